@@ -4,25 +4,38 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import top.jadeyan.commons.object.RandomNumberUtil;
+import top.jadeyan.commons.object.TraceIdGenerator;
 
 import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 控制器切面类
+ * <p>
+ * 开启统计模式(controller.aspect.metrics-enabled)后, 每个接口的耗时和错误数记录到 {@link EndpointMetrics},
+ * 不再逐个请求打印开始和结束日志, traceId 改用 {@link TraceIdGenerator} 生成的定长 id。
+ * 参数日志按 controller.aspect.arg-log-sample-rate 采样, 默认全部打印。
  *
  * @author yan
  * @time 2021-10-28
@@ -37,6 +50,16 @@ public class ControllerAspect {
 
     private final Gson gson;
 
+    /**
+     * 方法到接口名称的缓存, 避免每次请求拼接方法签名。
+     * Spring AOP 每次调用的 StaticPart 都是新对象, 只能按 {@link Method} 缓存
+     */
+    private final Map<Method, String> endpointNames = new ConcurrentHashMap<>();
+
+    private boolean metricsEnabled;
+
+    private double argLogSampleRate = 1.0;
+
     /**
      * 实例化Gson
      */
@@ -47,6 +70,29 @@ public class ControllerAspect {
                 .create();
     }
 
+    /**
+     * 设置是否开启统计模式
+     *
+     * @param metricsEnabled 是否开启
+     */
+    @Value("${controller.aspect.metrics-enabled:false}")
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * 设置参数日志的采样率
+     *
+     * @param argLogSampleRate 采样率, 0 不打印, 1 全部打印
+     */
+    @Value("${controller.aspect.arg-log-sample-rate:1.0}")
+    public void setArgLogSampleRate(double argLogSampleRate) {
+        if (argLogSampleRate < 0 || argLogSampleRate > 1) {
+            throw new IllegalArgumentException("argLogSampleRate must be in [0, 1]");
+        }
+        this.argLogSampleRate = argLogSampleRate;
+    }
+
     /**
      * region log method execution time
      */
@@ -62,8 +108,11 @@ public class ControllerAspect {
      */
     @Before("logMethod()")
     public void doBefore(JoinPoint point) {
-        String randomNumber = RandomNumberUtil.randomNumber();
-        MDC.put(UNIQUE_SIGN, randomNumber);
+        String traceId = metricsEnabled ? TraceIdGenerator.nextId() : RandomNumberUtil.randomNumber();
+        MDC.put(UNIQUE_SIGN, traceId);
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
         RequestAttributes ra = RequestContextHolder.getRequestAttributes();
         ServletRequestAttributes sra = (ServletRequestAttributes) ra;
         HttpServletRequest request = sra.getRequest();
@@ -72,6 +121,9 @@ public class ControllerAspect {
         String uri = request.getRequestURI();
         String queryString = request.getQueryString();
         logger.info("url: {}, method: {}, uri: {}, params: {}", url, method, uri, queryString);
+        if (!isArgLogSampled()) {
+            return;
+        }
         Object[] args = point.getArgs();
         for (Object arg : args) {
             String argStr = gson.toJson(arg);
@@ -88,6 +140,9 @@ public class ControllerAspect {
      */
     @Around(value = "logMethod()")
     public Object doAfter(ProceedingJoinPoint pjp) throws Throwable {
+        if (metricsEnabled) {
+            return proceedWithMetrics(pjp);
+        }
         Long beginTime = System.currentTimeMillis();
         String signature = pjp.getSignature().toString();
         logger.info("{} beginTime: {}", signature, beginTime);
@@ -95,4 +150,45 @@ public class ControllerAspect {
         logger.info("{} endTime: {}", signature, System.currentTimeMillis() - beginTime);
         return retVal;
     }
+
+    private Object proceedWithMetrics(ProceedingJoinPoint pjp) throws Throwable {
+        EndpointMetrics.Endpoint endpoint = EndpointMetrics.endpoint(getEndpointName(pjp));
+        long beginNanos = System.nanoTime();
+        boolean error = true;
+        try {
+            Object retVal = pjp.proceed();
+            error = false;
+            return retVal;
+        } finally {
+            endpoint.record(System.nanoTime() - beginNanos, error);
+        }
+    }
+
+    private String getEndpointName(ProceedingJoinPoint pjp) {
+        Signature signature = pjp.getSignature();
+        if (!(signature instanceof MethodSignature)) {
+            return signature.toShortString();
+        }
+        Method method = ((MethodSignature) signature).getMethod();
+        String name = endpointNames.get(method);
+        if (name == null) {
+            name = endpointNames.computeIfAbsent(method, ControllerAspect::buildEndpointName);
+        }
+        return name;
+    }
+
+    /**
+     * 接口名称: 声明类全名.方法名(参数类型), 不同包下的同名类和重载方法互不混淆
+     */
+    private static String buildEndpointName(Method method) {
+        StringJoiner parameters = new StringJoiner(",", "(", ")");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            parameters.add(parameterType.getSimpleName());
+        }
+        return method.getDeclaringClass().getName() + "." + method.getName() + parameters;
+    }
+
+    private boolean isArgLogSampled() {
+        return argLogSampleRate >= 1 || (argLogSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < argLogSampleRate);
+    }
 }
@@ -0,0 +1,143 @@
+package top.jadeyan.commons.aop;
+
+import top.jadeyan.commons.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 接口耗时统计
+ * <p>
+ * 每个接口一个无锁耗时直方图和错误计数, 记录时只有几次原子累加。
+ * {@link #snapshot()} 返回所有接口的统计, 不依赖具体接口, 可以直接暴露给监控抓取。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class EndpointMetrics {
+
+    private static final Map<String, Endpoint> ENDPOINTS = new ConcurrentHashMap<>();
+
+    private EndpointMetrics() {
+    }
+
+    /**
+     * 获取接口统计, 不存在时创建
+     *
+     * @param name 接口名称
+     * @return 接口统计
+     */
+    public static Endpoint endpoint(String name) {
+        Endpoint endpoint = ENDPOINTS.get(name);
+        return endpoint != null ? endpoint : ENDPOINTS.computeIfAbsent(name, Endpoint::new);
+    }
+
+    /**
+     * 获取所有接口的统计快照
+     *
+     * @return 统计快照
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>(ENDPOINTS.size());
+        for (Endpoint endpoint : ENDPOINTS.values()) {
+            snapshots.add(endpoint.snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * 清空所有接口的统计
+     */
+    public static void reset() {
+        ENDPOINTS.clear();
+    }
+
+    /**
+     * 单个接口的统计
+     */
+    public static final class Endpoint {
+
+        private final String name;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder errorCount = new LongAdder();
+
+        private Endpoint(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 记录一次调用
+         *
+         * @param nanos 耗时, 纳秒
+         * @param error 是否抛出异常
+         */
+        public void record(long nanos, boolean error) {
+            latency.record(nanos);
+            if (error) {
+                errorCount.increment();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 获取统计快照
+         *
+         * @return 统计快照
+         */
+        public Snapshot snapshot() {
+            return new Snapshot(name, latency.snapshot(), errorCount.sum());
+        }
+    }
+
+    /**
+     * 接口统计快照
+     */
+    public static final class Snapshot {
+
+        private final String name;
+
+        private final LatencyHistogram.Snapshot latency;
+
+        private final long errorCount;
+
+        private Snapshot(String name, LatencyHistogram.Snapshot latency, long errorCount) {
+            this.name = name;
+            this.latency = latency;
+            this.errorCount = errorCount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 调用次数, 包括失败的调用
+         *
+         * @return 调用次数
+         */
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{errorCount=" + errorCount + ", " + latency + '}';
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package top.jadeyan.commons.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 本机地址缓存
+ * <p>
+ * 首次使用时遍历一次网卡, 之后由后台守护线程定时刷新(默认 60 秒, 可以通过系统属性 {@value #REFRESH_SECONDS_PROPERTY} 修改),
+ * 读取时只读一次 volatile 快照。地址有变化时才替换快照并通知监听器。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class HostAddressCache {
+
+    /**
+     * 刷新间隔的系统属性, 单位秒
+     */
+    public static final String REFRESH_SECONDS_PROPERTY = "top.jadeyan.commons.host.refresh-seconds";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HostAddressCache.class);
+
+    private static final long DEFAULT_REFRESH_SECONDS = 60L;
+
+    private static final List<Consumer<Snapshot>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static volatile Snapshot snapshot = new Snapshot(HostIpUtil.resolveAddresses());
+
+    static {
+        long refreshSeconds = refreshSeconds(Long.getLong(REFRESH_SECONDS_PROPERTY, DEFAULT_REFRESH_SECONDS));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "host-address-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(HostAddressCache::refreshQuietly, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    private HostAddressCache() {
+    }
+
+    /**
+     * 获取当前快照
+     *
+     * @return 快照
+     */
+    public static Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 获取局域网地址
+     *
+     * @return 局域网地址, 没有时返回空字符串
+     */
+    public static String getLanAddress() {
+        return snapshot.getLanAddress();
+    }
+
+    /**
+     * 立即重新遍历网卡
+     *
+     * @return 地址是否有变化
+     */
+    public static boolean refresh() {
+        return update(HostIpUtil.resolveAddresses());
+    }
+
+    /**
+     * 添加地址变化的监听器, 在刷新线程中回调
+     *
+     * @param listener 监听器, 参数为新的快照
+     */
+    public static void addListener(Consumer<Snapshot> listener) {
+        LISTENERS.add(Objects.requireNonNull(listener, "listener cannot be null"));
+    }
+
+    /**
+     * 移除监听器
+     *
+     * @param listener 监听器
+     */
+    public static void removeListener(Consumer<Snapshot> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 用新地址更新快照
+     *
+     * @param addresses 新地址
+     * @return 地址是否有变化
+     */
+    static synchronized boolean update(List<String> addresses) {
+        if (snapshot.getAddresses().equals(addresses)) {
+            return false;
+        }
+        Snapshot newSnapshot = new Snapshot(addresses);
+        LOGGER.info("host address changed, from: {}, to: {}", snapshot.getAddresses(), newSnapshot.getAddresses());
+        snapshot = newSnapshot;
+        for (Consumer<Snapshot> listener : LISTENERS) {
+            try {
+                listener.accept(newSnapshot);
+            } catch (RuntimeException e) {
+                LOGGER.error("host address listener error", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 校验刷新间隔, 不是正数时使用默认值, 避免类初始化失败
+     *
+     * @param configured 配置的刷新间隔
+     * @return 刷新间隔, 单位秒
+     */
+    static long refreshSeconds(long configured) {
+        if (configured <= 0) {
+            LOGGER.warn("invalid {}: {}, use default {}", REFRESH_SECONDS_PROPERTY, configured, DEFAULT_REFRESH_SECONDS);
+            return DEFAULT_REFRESH_SECONDS;
+        }
+        return configured;
+    }
+
+    private static void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // 异常会终止定时任务, 这里只记录
+            LOGGER.error("refresh host address error", e);
+        }
+    }
+
+    /**
+     * 本机地址快照
+     */
+    public static final class Snapshot {
+
+        private final List<String> addresses;
+
+        private final String lanAddress;
+
+        private final long resolvedMillis;
+
+        private Snapshot(List<String> addresses) {
+            this.addresses = Collections.unmodifiableList(new ArrayList<>(addresses));
+            this.lanAddress = HostIpUtil.selectLanAddress(addresses);
+            this.resolvedMillis = System.currentTimeMillis();
+        }
+
+        public List<String> getAddresses() {
+            return addresses;
+        }
+
+        public String getLanAddress() {
+            return lanAddress;
+        }
+
+        /**
+         * 地址发生变化的时间
+         *
+         * @return 毫秒时间戳
+         */
+        public long getResolvedMillis() {
+            return resolvedMillis;
+        }
+    }
+}
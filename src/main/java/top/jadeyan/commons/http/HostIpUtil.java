@@ -24,8 +24,22 @@ public final class HostIpUtil {
 
     }
 
-    @SuppressWarnings("java:S3740")
+    /**
+     * 获取本机局域网地址, 从 {@link HostAddressCache} 读取, 不会每次遍历网卡
+     *
+     * @return 局域网地址, 没有时返回空字符串
+     */
     public static String getLocalHostLANAddress() {
+        return HostAddressCache.getLanAddress();
+    }
+
+    /**
+     * 遍历所有网卡获取本机地址, 开销较大, 一般通过 {@link HostAddressCache} 使用
+     *
+     * @return 本机地址, 最后一个是 jdk 提供的地址
+     */
+    @SuppressWarnings("java:S3740")
+    public static List<String> resolveAddresses() {
         List<String> ipList = new ArrayList<>();
         // 遍历所有的网络接口
         try {
@@ -43,6 +57,16 @@ public final class HostIpUtil {
         } catch (SocketException | UnknownHostException e) {
             logger.error(e);
         }
+        return ipList;
+    }
+
+    /**
+     * 从本机地址中选出局域网地址
+     *
+     * @param ipList 本机地址
+     * @return 局域网地址, 没有时返回空字符串
+     */
+    static String selectLanAddress(List<String> ipList) {
         for (String ip : ipList) {
             if (ip.contains("192.168")) {
                 return ip;
@@ -4,13 +4,29 @@ import com.github.pagehelper.PageInfo;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.skywalking.apm.toolkit.trace.RunnableWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+import top.jadeyan.commons.skywalking.SwExecutors;
+import top.jadeyan.commons.skywalking.SwThreadPoolWorker;
+
 import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.ToIntFunction;
@@ -23,11 +39,58 @@ import java.util.function.ToLongFunction;
  * @date 2022/01/19
  */
 public abstract class AbstractSyncJobTemplate {
+    /**
+     * 等待查询结果时, 每隔多少毫秒检查一次查询任务是否已经结束
+     */
+    private static final long FETCH_POLL_MILLIS = 1000L;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    //获取内部时间接口
-    //@Resource
-    //protected InternalKeyValueService internalKeyValueService;
+    /**
+     * 增量刻度存储, 默认保存在内存中, 重启后丢失, 生产环境需要设置持久化的存储
+     */
+    private CheckpointStore checkpointStore = new InMemoryCheckpointStore();
+
+    /**
+     * 没有增量刻度时的起始时间, 默认从头同步
+     */
+    private long initialUpdateTimeMillis = 0L;
+
+    /**
+     * 每批更新增量刻度时, 最多每隔多少页保存一次
+     */
+    private int checkpointEveryPages = 10;
+
+    /**
+     * 每批更新增量刻度时, 最多每隔多少毫秒保存一次
+     */
+    private long checkpointIntervalMillis = 5000L;
+
+    /**
+     * 每个增量刻度最近一次分页同步的统计
+     */
+    private final Map<String, SyncRunMetrics> runMetricsMap = new ConcurrentHashMap<>();
+
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = Objects.requireNonNull(checkpointStore, "checkpointStore cannot be null");
+    }
+
+    /**
+     * 设置没有增量刻度(首次运行或者存储中的刻度丢失)时的起始时间, 避免从 1970 年开始全量扫描
+     *
+     * @param initialUpdateTime 起始时间
+     */
+    public void setInitialUpdateTime(Timestamp initialUpdateTime) {
+        this.initialUpdateTimeMillis = Objects.requireNonNull(initialUpdateTime, "initialUpdateTime cannot be null").getTime();
+    }
+
+    public void setCheckpointEveryPages(int checkpointEveryPages) {
+        this.checkpointEveryPages = checkpointEveryPages;
+    }
+
+    public void setCheckpointIntervalMillis(long checkpointIntervalMillis) {
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+    }
 
     /**
      * 增量同步数据(数据刷取完之后更新一次增量刻度)
@@ -59,7 +122,7 @@ public abstract class AbstractSyncJobTemplate {
      * @param searchDataSortFieldFunction1           查询时的排序字段1
      * @param searchDataSortFieldFunction2           查询时的排序字段1
      * @param dealingDataFunction                    处理数据的function
-     * @param saveSyncIncrementMarkForEveryRecursive 每批数据保存的时候是否更新增量刻度
+     * @param saveSyncIncrementMarkForEveryRecursive 每批数据保存的时候是否更新增量刻度(每 N 页或者 T 毫秒合并保存一次)
      * @param <R>                                    查询的返回参数
      * @return 影响的行数
      */
@@ -69,47 +132,261 @@ public abstract class AbstractSyncJobTemplate {
                                          ToLongFunction<R> searchDataSortFieldFunction2, Function<List<R>, Integer> dealingDataFunction,
                                          boolean saveSyncIncrementMarkForEveryRecursive) {
         int effectRows = 0;
-        Timestamp lastUpdateTime = new Timestamp(0);
+        Timestamp lastUpdateTime = getLastUpdateTime(lastSyncIncrementMark);
         long lastUpdateTimeMaxId = 0L;
-        //获取更新时间
-        //String lastUpdateTimeStr = internalKeyValueService.getValue(lastSyncIncrementMark);
-        String lastUpdateTimeStr = "1642585506000";
-        if (StringUtils.isBlank(lastUpdateTimeStr)) {
-            InternalKeyValueRequestDTO internalKeyValueRequestDTO = new InternalKeyValueRequestDTO();
-            internalKeyValueRequestDTO.setKey(lastSyncIncrementMark);
-            internalKeyValueRequestDTO.setValue(String.valueOf(lastUpdateTime.getTime()));
-            //更新时间
-            //internalKeyValueService.saveKeyValue(internalKeyValueRequestDTO);
-        } else {
-            lastUpdateTime = new Timestamp(Long.valueOf(lastUpdateTimeStr));
-        }
+        CheckpointCoalescer checkpointCoalescer = new CheckpointCoalescer(checkpointEveryPages, checkpointIntervalMillis);
         Integer fetchCount = null;
         while (Objects.isNull(fetchCount) || pageSize.equals(fetchCount)) {
             logger.info("lastUpdateTime: {}, lastUpdateTimeMaxId: {}", lastUpdateTime, lastUpdateTimeMaxId);
             List<R> dataList = searchDataFunction.apply(lastUpdateTime, lastUpdateTimeMaxId);
             fetchCount = dataList.size();
-            Timestamp currentMaxUpdateTime = dataList.stream().map(searchDataSortFieldFunction1).max(Timestamp::compareTo)
-                    .orElse(lastUpdateTime);
-            lastUpdateTime = currentMaxUpdateTime;
-            lastUpdateTimeMaxId = dataList.stream().filter(x -> searchDataSortFieldFunction1.apply(x).compareTo(currentMaxUpdateTime) == 0)
-                    .mapToLong(searchDataSortFieldFunction2).max().orElse(lastUpdateTimeMaxId);
+            PageMark pageMark = PageMark.of(dataList, lastUpdateTime, lastUpdateTimeMaxId,
+                    searchDataSortFieldFunction1, searchDataSortFieldFunction2);
+            lastUpdateTime = pageMark.maxUpdateTime;
+            lastUpdateTimeMaxId = pageMark.maxId;
             effectRows += dealingDataFunction.apply(dataList);
-            if (Objects.equals(saveSyncIncrementMarkForEveryRecursive, Boolean.TRUE)) {
-                InternalKeyValueRequestDTO internalKeyValueRequestDTO = new InternalKeyValueRequestDTO();
-                internalKeyValueRequestDTO.setKey(lastSyncIncrementMark);
-                internalKeyValueRequestDTO.setValue(String.valueOf(lastUpdateTime.getTime()));
-                //更新时间
-                //internalKeyValueService.saveKeyValue(internalKeyValueRequestDTO);
+            if (Objects.equals(saveSyncIncrementMarkForEveryRecursive, Boolean.TRUE) && checkpointCoalescer.pageDone()) {
+                saveLastUpdateTime(lastSyncIncrementMark, lastUpdateTime);
             }
         }
-        InternalKeyValueRequestDTO internalKeyValueRequestDTO = new InternalKeyValueRequestDTO();
-        internalKeyValueRequestDTO.setKey(lastSyncIncrementMark);
-        internalKeyValueRequestDTO.setValue(String.valueOf(lastUpdateTime.getTime()));
-        //更新时间
-        //internalKeyValueService.saveKeyValue(internalKeyValueRequestDTO);
+        saveLastUpdateTime(lastSyncIncrementMark, lastUpdateTime);
+        checkpointStore.flush();
         return effectRows;
     }
 
+    /**
+     * 流水线增量同步数据, 处理第 N 页的同时查询第 N+1 页
+     *
+     * @param lastSyncIncrementMark                  最后一次同步成功的刻度
+     * @param pageSize                               每次查询的页数
+     * @param searchDataFunction                     查询的function
+     * @param searchDataSortFieldFunction1           查询时的排序字段1
+     * @param searchDataSortFieldFunction2           查询时的排序字段2
+     * @param dealingDataFunction                    处理数据的function
+     * @param saveSyncIncrementMarkForEveryRecursive 每批数据保存的时候是否更新增量刻度
+     * @param <R>                                    查询的返回参数
+     * @return 影响的行数
+     */
+    public <R> int syncIncrementTemplatePipelined(String lastSyncIncrementMark, Integer pageSize,
+                                                  BiFunction<Timestamp, Long, List<R>> searchDataFunction,
+                                                  Function<R, Timestamp> searchDataSortFieldFunction1,
+                                                  ToLongFunction<R> searchDataSortFieldFunction2, Function<List<R>, Integer> dealingDataFunction,
+                                                  boolean saveSyncIncrementMarkForEveryRecursive) {
+        return this.syncIncrementTemplatePipelined(lastSyncIncrementMark, pageSize, searchDataFunction, searchDataSortFieldFunction1,
+                searchDataSortFieldFunction2, dealingDataFunction, saveSyncIncrementMarkForEveryRecursive, 1, SwExecutors.io());
+    }
+
+    /**
+     * 流水线增量同步数据
+     * <p>
+     * 查询在单独的线程中按页顺序执行, 查询结果放入有界队列, 队列满时查询等待处理。
+     * processParallelism 大于 1 时多页数据在线程池中并行处理(同一批内不保证处理顺序),
+     * 增量刻度只在之前的页全部处理完成后才前移。
+     *
+     * @param lastSyncIncrementMark                  最后一次同步成功的刻度
+     * @param pageSize                               每次查询的页数
+     * @param searchDataFunction                     查询的function
+     * @param searchDataSortFieldFunction1           查询时的排序字段1
+     * @param searchDataSortFieldFunction2           查询时的排序字段2
+     * @param dealingDataFunction                    处理数据的function
+     * @param saveSyncIncrementMarkForEveryRecursive 每批数据保存的时候是否更新增量刻度
+     * @param processParallelism                     同时处理的页数, 1 表示在当前线程按顺序处理
+     * @param executorService                        并行处理使用的线程池
+     * @param <R>                                    查询的返回参数
+     * @return 影响的行数
+     */
+    public <R> int syncIncrementTemplatePipelined(String lastSyncIncrementMark, Integer pageSize,
+                                                  BiFunction<Timestamp, Long, List<R>> searchDataFunction,
+                                                  Function<R, Timestamp> searchDataSortFieldFunction1,
+                                                  ToLongFunction<R> searchDataSortFieldFunction2, Function<List<R>, Integer> dealingDataFunction,
+                                                  boolean saveSyncIncrementMarkForEveryRecursive,
+                                                  int processParallelism, ExecutorService executorService) {
+        if (processParallelism <= 0) {
+            throw new IllegalArgumentException("processParallelism must be positive");
+        }
+        SwThreadPoolWorker<Object> worker = SwThreadPoolWorker.of(executorService);
+        BlockingQueue<PipelinePage<R>> pageQueue = new ArrayBlockingQueue<>(processParallelism);
+        AtomicBoolean stopped = new AtomicBoolean();
+        Timestamp startUpdateTime = getLastUpdateTime(lastSyncIncrementMark);
+        CompletableFuture<Void> fetchDone = new CompletableFuture<>();
+        Runnable fetch = () -> {
+            try {
+                fetchPages(lastSyncIncrementMark, pageSize, startUpdateTime, searchDataFunction,
+                        searchDataSortFieldFunction1, searchDataSortFieldFunction2, pageQueue, stopped);
+                fetchDone.complete(null);
+            } catch (Throwable e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                // 队列满时放不进错误页, 消费端处理完已有的页后通过 fetchDone 发现错误
+                fetchDone.completeExceptionally(e);
+                pageQueue.offer(new PipelinePage<>(e));
+            }
+        };
+        startFetchThread(lastSyncIncrementMark, fetch);
+
+        int effectRows = 0;
+        Timestamp lastUpdateTime = startUpdateTime;
+        Deque<PipelinePage<R>> processingPages = new ArrayDeque<>(processParallelism);
+        CheckpointCoalescer checkpointCoalescer = saveSyncIncrementMarkForEveryRecursive
+                ? new CheckpointCoalescer(checkpointEveryPages, checkpointIntervalMillis) : null;
+        boolean finished = false;
+        try {
+            PipelinePage<R> page;
+            do {
+                page = nextPage(pageQueue, fetchDone);
+                if (page.error != null) {
+                    throw new ThreadRuntimeException("sync fetch data error", page.error);
+                }
+                if (processParallelism == 1) {
+                    effectRows += dealingDataFunction.apply(page.dataList);
+                    lastUpdateTime = page.pageMark.maxUpdateTime;
+                    if (checkpointCoalescer != null && checkpointCoalescer.pageDone()) {
+                        saveLastUpdateTime(lastSyncIncrementMark, lastUpdateTime);
+                    }
+                    continue;
+                }
+                page.result = worker.submit(page.dataList, dealingDataFunction);
+                processingPages.add(page);
+                if (processingPages.size() >= processParallelism) {
+                    effectRows += completeFirstPage(processingPages);
+                    lastUpdateTime = checkpoint(lastSyncIncrementMark, processingPages, checkpointCoalescer);
+                }
+            } while (!page.last);
+            while (!processingPages.isEmpty()) {
+                effectRows += completeFirstPage(processingPages);
+                lastUpdateTime = checkpoint(lastSyncIncrementMark, processingPages, checkpointCoalescer);
+            }
+            finished = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ThreadRuntimeException("sync interrupted", e);
+        } finally {
+            if (!finished) {
+                // 出错时停止查询, 清空队列唤醒等待中的查询线程
+                stopped.set(true);
+                pageQueue.clear();
+                processingPages.forEach(x -> x.result.cancel(true));
+            }
+        }
+        saveLastUpdateTime(lastSyncIncrementMark, lastUpdateTime);
+        checkpointStore.flush();
+        return effectRows;
+    }
+
+    /**
+     * 查询在独立的线程执行, 不占用处理线程池, 线程池再小也不会因为查询一直占着线程而卡住
+     */
+    private void startFetchThread(String lastSyncIncrementMark, Runnable fetch) {
+        Thread thread = new Thread(RunnableWrapper.of(fetch), "sync-fetch-" + lastSyncIncrementMark);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 等待下一页查询结果, 查询任务没有放入最后一页就结束时(出错、被中断)不再等待
+     */
+    private <R> PipelinePage<R> nextPage(BlockingQueue<PipelinePage<R>> pageQueue, CompletableFuture<Void> fetchDone)
+            throws InterruptedException {
+        while (true) {
+            PipelinePage<R> page = pageQueue.poll(FETCH_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (page != null) {
+                return page;
+            }
+            if (fetchDone.isDone()) {
+                // 查询任务结束前放入的页不能漏掉
+                page = pageQueue.poll();
+                if (page != null) {
+                    return page;
+                }
+                try {
+                    fetchDone.join();
+                } catch (CompletionException e) {
+                    throw new ThreadRuntimeException("sync fetch data error", e.getCause());
+                }
+                throw new ThreadRuntimeException("sync fetch task exited without the last page");
+            }
+        }
+    }
+
+    /**
+     * 按页顺序查询, 查询出错时抛出异常, 由调用方放入错误页
+     */
+    private <R> void fetchPages(String lastSyncIncrementMark, Integer pageSize, Timestamp startUpdateTime,
+                                BiFunction<Timestamp, Long, List<R>> searchDataFunction,
+                                Function<R, Timestamp> searchDataSortFieldFunction1, ToLongFunction<R> searchDataSortFieldFunction2,
+                                BlockingQueue<PipelinePage<R>> pageQueue, AtomicBoolean stopped) throws InterruptedException {
+        Timestamp lastUpdateTime = startUpdateTime;
+        long lastUpdateTimeMaxId = 0L;
+        while (!stopped.get()) {
+            logger.info("key:{}, lastUpdateTime: {}, lastUpdateTimeMaxId: {}", lastSyncIncrementMark, lastUpdateTime, lastUpdateTimeMaxId);
+            List<R> dataList = searchDataFunction.apply(lastUpdateTime, lastUpdateTimeMaxId);
+            PageMark pageMark = PageMark.of(dataList, lastUpdateTime, lastUpdateTimeMaxId,
+                    searchDataSortFieldFunction1, searchDataSortFieldFunction2);
+            lastUpdateTime = pageMark.maxUpdateTime;
+            lastUpdateTimeMaxId = pageMark.maxId;
+            boolean last = !pageSize.equals(dataList.size());
+            pageQueue.put(new PipelinePage<>(dataList, pageMark, last));
+            if (last) {
+                return;
+            }
+        }
+    }
+
+    private <R> int completeFirstPage(Deque<PipelinePage<R>> processingPages) {
+        PipelinePage<R> page = processingPages.peek();
+        try {
+            Integer rows = page.result.join();
+            return rows == null ? 0 : rows;
+        } catch (CompletionException e) {
+            throw new ThreadRuntimeException("sync dealing data error", e.getCause());
+        }
+    }
+
+    /**
+     * 第一页处理完成后前移增量刻度
+     */
+    private <R> Timestamp checkpoint(String lastSyncIncrementMark, Deque<PipelinePage<R>> processingPages,
+                                     CheckpointCoalescer checkpointCoalescer) {
+        Timestamp lastUpdateTime = processingPages.poll().pageMark.maxUpdateTime;
+        if (checkpointCoalescer != null && checkpointCoalescer.pageDone()) {
+            saveLastUpdateTime(lastSyncIncrementMark, lastUpdateTime);
+        }
+        return lastUpdateTime;
+    }
+
+    /**
+     * 获取最后一次同步的时间
+     *
+     * @param lastSyncIncrementMark 增量刻度
+     * @return 最后一次同步的时间
+     */
+    private Timestamp getLastUpdateTime(String lastSyncIncrementMark) {
+        //获取更新时间
+        String lastUpdateTimeStr = checkpointStore.getValue(lastSyncIncrementMark);
+        if (StringUtils.isBlank(lastUpdateTimeStr)) {
+            Timestamp lastUpdateTime = initialUpdateTime(lastSyncIncrementMark);
+            saveLastUpdateTime(lastSyncIncrementMark, lastUpdateTime);
+            return lastUpdateTime;
+        }
+        return new Timestamp(Long.parseLong(lastUpdateTimeStr));
+    }
+
+    private Timestamp initialUpdateTime(String lastSyncIncrementMark) {
+        logger.warn("{} 没有增量刻度, 从 {} 开始同步", lastSyncIncrementMark, new Timestamp(initialUpdateTimeMillis));
+        return new Timestamp(initialUpdateTimeMillis);
+    }
+
+    /**
+     * 保存最后一次同步的时间
+     *
+     * @param lastSyncIncrementMark 增量刻度
+     * @param lastUpdateTime        最后一次同步的时间
+     */
+    private void saveLastUpdateTime(String lastSyncIncrementMark, Timestamp lastUpdateTime) {
+        checkpointStore.saveValue(lastSyncIncrementMark, String.valueOf(lastUpdateTime.getTime()));
+    }
+
     /**
      * 分页增量同步数据（通过分页处理，避免重复操作，避免数据丢失）
      *
@@ -128,14 +405,41 @@ public abstract class AbstractSyncJobTemplate {
                                                Function<R, Timestamp> searchUpdateTimeFieldFunction,
                                                ToLongFunction<R> searchIdFieldFunction, ToIntFunction<List<R>> dealingDataFunction,
                                                boolean saveSyncIncrementMarkForEveryRecursive) {
+        return this.syncIncrementTemplateByPage(lastSyncIncrementMark, pageSize, pageSize, pageSize, 0L, searchDataFunction,
+                searchUpdateTimeFieldFunction, searchIdFieldFunction, dealingDataFunction, saveSyncIncrementMarkForEveryRecursive);
+    }
+
+    /**
+     * 分页增量同步数据, 分页大小根据查询和处理的耗时自动调整, 使每页的耗时接近 targetBatchMillis
+     *
+     * @param lastSyncIncrementMark                  最后一次同步成功的刻度
+     * @param pageSize                               第一页的条数
+     * @param minPageSize                            最小分页大小
+     * @param maxPageSize                            最大分页大小
+     * @param targetBatchMillis                      每页查询加处理的目标耗时
+     * @param searchDataFunction                     查询的function 参数：定时任务增量参数 返回值：分页数据
+     * @param searchUpdateTimeFieldFunction          获取时间字段值的函数
+     * @param searchIdFieldFunction                  获取增量id字段值的函数
+     * @param dealingDataFunction                    处理数据的function
+     * @param saveSyncIncrementMarkForEveryRecursive 每批数据保存的时候是否更新增量刻度
+     * @param <R>                                    查询的返回参数
+     * @return 影响的行数
+     */
+    public <R> int syncIncrementTemplateByPage(String lastSyncIncrementMark, Integer pageSize,
+                                               int minPageSize, int maxPageSize, long targetBatchMillis,
+                                               Function<SyncIncrementTemplateParamBO, PageInfo<R>> searchDataFunction,
+                                               Function<R, Timestamp> searchUpdateTimeFieldFunction,
+                                               ToLongFunction<R> searchIdFieldFunction, ToIntFunction<List<R>> dealingDataFunction,
+                                               boolean saveSyncIncrementMarkForEveryRecursive) {
+        long startNanos = System.nanoTime();
         int effectRows = 0;
-        Timestamp lastUpdateTime = new Timestamp(0);
+        Timestamp lastUpdateTime;
         long lastUpdateTimeMaxId = 0L;
         long lastUpdateTimeSize = 0L;
-        //String lastUpdateTimeStr = internalKeyValueService.getValue(lastSyncIncrementMark);
-        String lastUpdateTimeStr = "";
+        String lastUpdateTimeStr = checkpointStore.getValue(lastSyncIncrementMark);
         // 处理库里面的值
         if (StringUtils.isBlank(lastUpdateTimeStr)) {
+            lastUpdateTime = initialUpdateTime(lastSyncIncrementMark);
             saveKeyAndValue(lastSyncIncrementMark, lastUpdateTime, lastUpdateTimeSize);
         } else {
             String[] updateInfo = lastUpdateTimeStr.split("-");
@@ -144,45 +448,86 @@ public abstract class AbstractSyncJobTemplate {
             lastUpdateTimeSize = Optional.of(updateInfo).filter(x -> x.length > 1).map(x -> x[1])
                     .filter(StringUtils::isNotBlank).map(Long::parseLong).orElse(0L);
         }
-        // 最新时间的总条数
-        PageInfo<R> dataPage = searchDataFunction.apply(SyncIncrementTemplateParamBO.build(lastUpdateTime,
-                false, lastUpdateTimeMaxId, true, 1));
-        long lastUpdateSize = dataPage.getTotal();
-        Timestamp selectLastUpdateTime = Optional.ofNullable(dataPage.getList()).filter(CollectionUtils::isNotEmpty).map(x -> x.get(0))
-                .map(searchUpdateTimeFieldFunction).orElse(lastUpdateTime);
         // 如果最新时间的数据不变不进行再次处理
-        if (Objects.equals(lastUpdateTimeSize, lastUpdateSize) && Objects.equals(lastUpdateTime, selectLastUpdateTime)) {
+        if (isUnchanged(searchDataFunction, searchUpdateTimeFieldFunction, lastUpdateTime, lastUpdateTimeSize, maxPageSize)) {
             logger.info("{} 最后一次更新：{} 数据为：{} 没有变化，不进行操作", lastSyncIncrementMark, lastUpdateTime, lastUpdateTimeSize);
             return 0;
         }
         lastUpdateTimeSize = 0L;
-        Integer fetchCount = null;
-        while (Objects.isNull(fetchCount) || pageSize.equals(fetchCount)) {
-            logger.info("key:{}, lastUpdateTime: {}, lastUpdateTimeMaxId: {}", lastSyncIncrementMark, lastUpdateTime, lastUpdateTimeMaxId);
+        CheckpointCoalescer checkpointCoalescer = new CheckpointCoalescer(checkpointEveryPages, checkpointIntervalMillis);
+        AdaptivePageSizer pageSizer = new AdaptivePageSizer(pageSize, minPageSize, maxPageSize, targetBatchMillis);
+        SyncRunMetrics metrics = new SyncRunMetrics();
+        int currentPageSize;
+        int fetchCount;
+        do {
+            currentPageSize = pageSizer.getPageSize();
+            logger.info("key:{}, lastUpdateTime: {}, lastUpdateTimeMaxId: {}, pageSize: {}", lastSyncIncrementMark, lastUpdateTime,
+                    lastUpdateTimeMaxId, currentPageSize);
+            long fetchStartNanos = System.nanoTime();
             List<R> dataList = searchDataFunction.apply(SyncIncrementTemplateParamBO.build(lastUpdateTime,
-                    true, lastUpdateTimeMaxId, false, pageSize)).getList();
+                    true, lastUpdateTimeMaxId, false, currentPageSize)).getList();
+            long fetchNanos = System.nanoTime() - fetchStartNanos;
             fetchCount = dataList.size();
-            Timestamp currentMaxUpdateTime = dataList.stream().map(searchUpdateTimeFieldFunction).max(Timestamp::compareTo)
-                    .orElse(lastUpdateTime);
-            int lastUpdateTimeCount = (int) dataList.stream().map(searchUpdateTimeFieldFunction)
-                    .filter(x -> Objects.equals(x, currentMaxUpdateTime)).count();
-            if (Objects.equals(lastUpdateTime, currentMaxUpdateTime)) {
-                lastUpdateTimeSize += lastUpdateTimeCount;
+            PageMark pageMark = PageMark.of(dataList, lastUpdateTime, lastUpdateTimeMaxId,
+                    searchUpdateTimeFieldFunction, searchIdFieldFunction);
+            if (Objects.equals(lastUpdateTime, pageMark.maxUpdateTime)) {
+                lastUpdateTimeSize += pageMark.maxUpdateTimeCount;
             } else {
-                lastUpdateTimeSize = lastUpdateTimeCount;
+                lastUpdateTimeSize = pageMark.maxUpdateTimeCount;
             }
-            lastUpdateTime = currentMaxUpdateTime;
-            lastUpdateTimeMaxId = dataList.stream().filter(x -> searchUpdateTimeFieldFunction.apply(x).compareTo(currentMaxUpdateTime) == 0)
-                    .mapToLong(searchIdFieldFunction).max().orElse(lastUpdateTimeMaxId);
+            lastUpdateTime = pageMark.maxUpdateTime;
+            lastUpdateTimeMaxId = pageMark.maxId;
+            long dealStartNanos = System.nanoTime();
             effectRows += dealingDataFunction.applyAsInt(dataList);
-            if (Objects.equals(saveSyncIncrementMarkForEveryRecursive, Boolean.TRUE)) {
+            long dealNanos = System.nanoTime() - dealStartNanos;
+            pageSizer.record(fetchCount, fetchNanos, dealNanos);
+            metrics.recordPage(fetchCount, fetchNanos, dealNanos, currentPageSize);
+            if (Objects.equals(saveSyncIncrementMarkForEveryRecursive, Boolean.TRUE) && checkpointCoalescer.pageDone()) {
                 saveKeyAndValue(lastSyncIncrementMark, lastUpdateTime, 0L);
             }
-        }
+        } while (fetchCount == currentPageSize);
         saveKeyAndValue(lastSyncIncrementMark, lastUpdateTime, lastUpdateTimeSize);
+        checkpointStore.flush();
+        metrics.finish(startNanos);
+        runMetricsMap.put(lastSyncIncrementMark, metrics);
+        logger.info("key:{}, sync finished: {}", lastSyncIncrementMark, metrics);
         return effectRows;
     }
 
+    /**
+     * 获取最近一次分页增量同步的统计
+     *
+     * @param lastSyncIncrementMark 增量刻度
+     * @return 统计, 没有执行过或者数据没有变化时返回 null
+     */
+    public SyncRunMetrics getLastRunMetrics(String lastSyncIncrementMark) {
+        return runMetricsMap.get(lastSyncIncrementMark);
+    }
+
+    /**
+     * 最新时间的数据是否没有变化
+     * <p>
+     * 上次同步记录了最新时间和最新时间的条数 n, 这里按时间倒序只取 n + 1 条, 不执行 count:
+     * 取到的正好是 n 条并且最新时间没变, 说明没有新数据。n 太大时退回 count 查询。
+     */
+    private <R> boolean isUnchanged(Function<SyncIncrementTemplateParamBO, PageInfo<R>> searchDataFunction,
+                                    Function<R, Timestamp> searchUpdateTimeFieldFunction,
+                                    Timestamp lastUpdateTime, long lastUpdateTimeSize, int maxProbeSize) {
+        if (lastUpdateTimeSize >= maxProbeSize) {
+            PageInfo<R> dataPage = searchDataFunction.apply(SyncIncrementTemplateParamBO.build(lastUpdateTime,
+                    false, 0L, true, 1));
+            long lastUpdateSize = dataPage.getTotal();
+            Timestamp selectLastUpdateTime = Optional.ofNullable(dataPage.getList()).filter(CollectionUtils::isNotEmpty).map(x -> x.get(0))
+                    .map(searchUpdateTimeFieldFunction).orElse(lastUpdateTime);
+            return Objects.equals(lastUpdateTimeSize, lastUpdateSize) && Objects.equals(lastUpdateTime, selectLastUpdateTime);
+        }
+        List<R> dataList = searchDataFunction.apply(SyncIncrementTemplateParamBO.build(lastUpdateTime,
+                false, 0L, false, (int) lastUpdateTimeSize + 1)).getList();
+        int size = dataList == null ? 0 : dataList.size();
+        return size == lastUpdateTimeSize
+                && (size == 0 || Objects.equals(lastUpdateTime, searchUpdateTimeFieldFunction.apply(dataList.get(0))));
+    }
+
     /**
      * 保存最新更新记录
      *
@@ -191,11 +536,8 @@ public abstract class AbstractSyncJobTemplate {
      * @param lastUpdateNum 最新数据条数
      */
     private void saveKeyAndValue(String key, Timestamp time, Long lastUpdateNum) {
-        InternalKeyValueRequestDTO internalKeyValueRequestDTO = new InternalKeyValueRequestDTO();
-        internalKeyValueRequestDTO.setKey(key);
-        internalKeyValueRequestDTO.setValue(String.format("%s-%s", time.getTime(),
+        checkpointStore.saveValue(key, String.format("%s-%s", time.getTime(),
                 ObjectUtils.defaultIfNull(lastUpdateNum, "")));
-        //internalKeyValueService.saveKeyValue(internalKeyValueRequestDTO);
     }
 
     /**
@@ -223,4 +565,132 @@ public abstract class AbstractSyncJobTemplate {
         return effectRows;
     }
 
+    /**
+     * 分区并行全量同步, 按 min/max 查询得到的id 范围平均拆分分区
+     *
+     * @param syncMark                    分区游标的刻度 key
+     * @param pageSize                    每次查询的页数
+     * @param minId                       最小id(包含)
+     * @param maxId                       最大id(包含)
+     * @param partitionCount              分区数量
+     * @param searchDataFunction          查询的function 参数: 上一页最大id(不包含), 分区最大id(包含), 按id 升序
+     * @param searchDataSortFieldFunction 查询时的排序字段
+     * @param dealingDataFunction         处理数据的function
+     * @param parallelism                 并行同步的分区数
+     * @param executorService             线程池
+     * @param <R>                         查询的返回参数
+     * @return 影响的行数
+     */
+    public <R> int syncTemplatePartitioned(String syncMark, Integer pageSize, long minId, long maxId, int partitionCount,
+                                           BiFunction<Long, Long, List<R>> searchDataFunction,
+                                           ToLongFunction<R> searchDataSortFieldFunction, Function<List<R>, Integer> dealingDataFunction,
+                                           int parallelism, ExecutorService executorService) {
+        return this.syncTemplatePartitioned(syncMark, pageSize, SyncPartition.split(minId, maxId, partitionCount),
+                searchDataFunction, searchDataSortFieldFunction, dealingDataFunction, parallelism, executorService);
+    }
+
+    /**
+     * 分区并行全量同步
+     * <p>
+     * 分区可以来自 {@link SyncPartition#split(long, long, int)} 或者按月拆分的 {@link SyncPartition#splitByMonth(long, long)}。
+     * 空闲的线程会拆走其他分区剩余范围的后一半, 分区数据量不均匀时也能保持并行。
+     * 各分区游标保存在 syncMark 对应的刻度中, 失败后再次执行从游标继续, 全部完成后清空刻度。
+     *
+     * @param syncMark                    分区游标的刻度 key
+     * @param pageSize                    每次查询的页数
+     * @param partitions                  分区
+     * @param searchDataFunction          查询的function 参数: 上一页最大id(不包含), 分区最大id(包含), 按id 升序
+     * @param searchDataSortFieldFunction 查询时的排序字段
+     * @param dealingDataFunction         处理数据的function
+     * @param parallelism                 并行同步的分区数
+     * @param executorService             线程池
+     * @param <R>                         查询的返回参数
+     * @return 影响的行数
+     */
+    public <R> int syncTemplatePartitioned(String syncMark, Integer pageSize, List<SyncPartition> partitions,
+                                           BiFunction<Long, Long, List<R>> searchDataFunction,
+                                           ToLongFunction<R> searchDataSortFieldFunction, Function<List<R>, Integer> dealingDataFunction,
+                                           int parallelism, ExecutorService executorService) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        PartitionedSyncRunner<R> runner = new PartitionedSyncRunner<>(syncMark, pageSize, searchDataFunction,
+                searchDataSortFieldFunction, dealingDataFunction, checkpointStore,
+                new CheckpointCoalescer(checkpointEveryPages, checkpointIntervalMillis));
+        return runner.run(partitions, parallelism, executorService);
+    }
+
+    /**
+     * 一页数据的增量刻度: 最大更新时间, 最大更新时间中的最大id和条数
+     */
+    private static final class PageMark {
+
+        private final Timestamp maxUpdateTime;
+
+        private final long maxId;
+
+        private final int maxUpdateTimeCount;
+
+        private PageMark(Timestamp maxUpdateTime, long maxId, int maxUpdateTimeCount) {
+            this.maxUpdateTime = maxUpdateTime;
+            this.maxId = maxId;
+            this.maxUpdateTimeCount = maxUpdateTimeCount;
+        }
+
+        /**
+         * 遍历一次计算增量刻度, 没有数据时沿用上一次的刻度
+         */
+        static <R> PageMark of(List<R> dataList, Timestamp lastUpdateTime, long lastUpdateTimeMaxId,
+                               Function<R, Timestamp> updateTimeFunction, ToLongFunction<R> idFunction) {
+            Timestamp maxUpdateTime = null;
+            long maxId = lastUpdateTimeMaxId;
+            int maxUpdateTimeCount = 0;
+            for (R data : dataList) {
+                Timestamp updateTime = updateTimeFunction.apply(data);
+                int compare = maxUpdateTime == null ? 1 : updateTime.compareTo(maxUpdateTime);
+                if (compare > 0) {
+                    maxUpdateTime = updateTime;
+                    maxId = idFunction.applyAsLong(data);
+                    maxUpdateTimeCount = 1;
+                } else if (compare == 0) {
+                    maxId = Math.max(maxId, idFunction.applyAsLong(data));
+                    maxUpdateTimeCount++;
+                }
+            }
+            if (maxUpdateTime == null) {
+                return new PageMark(lastUpdateTime, lastUpdateTimeMaxId, 0);
+            }
+            return new PageMark(maxUpdateTime, maxId, maxUpdateTimeCount);
+        }
+    }
+
+    /**
+     * 流水线中的一页数据
+     */
+    private static final class PipelinePage<R> {
+
+        private final List<R> dataList;
+
+        private final PageMark pageMark;
+
+        private final boolean last;
+
+        private final Throwable error;
+
+        private CompletableFuture<Integer> result;
+
+        private PipelinePage(List<R> dataList, PageMark pageMark, boolean last) {
+            this.dataList = dataList;
+            this.pageMark = pageMark;
+            this.last = last;
+            this.error = null;
+        }
+
+        private PipelinePage(Throwable error) {
+            this.dataList = null;
+            this.pageMark = null;
+            this.last = true;
+            this.error = error;
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package top.jadeyan.commons.job;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应分页大小
+ * <p>
+ * 根据每页查询和处理的耗时估算单条数据的耗时(指数平滑), 调整下一页的条数使一批数据的耗时接近目标耗时。
+ * 每次最多扩大或缩小一倍, 避免偶发的慢查询让分页大小剧烈变化。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class AdaptivePageSizer {
+
+    private static final double SMOOTHING_FACTOR = 0.5;
+
+    private final int minPageSize;
+
+    private final int maxPageSize;
+
+    private final long targetBatchNanos;
+
+    private int pageSize;
+
+    private double nanosPerRow;
+
+    AdaptivePageSizer(int initialPageSize, int minPageSize, int maxPageSize, long targetBatchMillis) {
+        if (minPageSize <= 0 || minPageSize > maxPageSize) {
+            throw new IllegalArgumentException(String.format("invalid page size range [%s, %s]", minPageSize, maxPageSize));
+        }
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+        this.targetBatchNanos = TimeUnit.MILLISECONDS.toNanos(targetBatchMillis);
+        this.pageSize = clamp(initialPageSize, minPageSize, maxPageSize);
+    }
+
+    /**
+     * 下一页的条数
+     *
+     * @return 分页大小
+     */
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * 记录一页的耗时并调整分页大小
+     *
+     * @param rows       条数
+     * @param fetchNanos 查询耗时
+     * @param dealNanos  处理耗时
+     */
+    void record(int rows, long fetchNanos, long dealNanos) {
+        if (rows <= 0 || minPageSize == maxPageSize) {
+            return;
+        }
+        double currentNanosPerRow = (double) (fetchNanos + dealNanos) / rows;
+        nanosPerRow = nanosPerRow == 0 ? currentNanosPerRow
+                : SMOOTHING_FACTOR * currentNanosPerRow + (1 - SMOOTHING_FACTOR) * nanosPerRow;
+        long idealPageSize = nanosPerRow <= 0 ? maxPageSize : (long) (targetBatchNanos / nanosPerRow);
+        long boundedPageSize = Math.max(pageSize / 2L, Math.min(pageSize * 2L, idealPageSize));
+        pageSize = clamp(boundedPageSize, minPageSize, maxPageSize);
+    }
+
+    private static int clamp(long value, int min, int max) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+}
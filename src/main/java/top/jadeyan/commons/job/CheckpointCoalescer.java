@@ -0,0 +1,40 @@
+package top.jadeyan.commons.job;
+
+/**
+ * 合并增量刻度的保存: 每处理 N 页或者距离上次保存超过 T 毫秒才保存一次
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class CheckpointCoalescer {
+
+    private final int everyPages;
+
+    private final long intervalMillis;
+
+    private int pages;
+
+    private long lastSaveMillis;
+
+    CheckpointCoalescer(int everyPages, long intervalMillis) {
+        this.everyPages = everyPages;
+        this.intervalMillis = intervalMillis;
+        this.lastSaveMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 记录处理完一页, 返回是否需要保存刻度
+     *
+     * @return 是否需要保存刻度
+     */
+    boolean pageDone() {
+        pages++;
+        long now = System.currentTimeMillis();
+        if (pages >= everyPages || now - lastSaveMillis >= intervalMillis) {
+            pages = 0;
+            lastSaveMillis = now;
+            return true;
+        }
+        return false;
+    }
+}
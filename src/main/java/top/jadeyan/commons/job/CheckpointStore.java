@@ -0,0 +1,32 @@
+package top.jadeyan.commons.job;
+
+/**
+ * 同步任务增量刻度存储
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public interface CheckpointStore {
+
+    /**
+     * 获取刻度
+     *
+     * @param key 增量刻度 key
+     * @return 刻度, 不存在时返回 null
+     */
+    String getValue(String key);
+
+    /**
+     * 保存刻度, 实现可以延迟写入, 调用 {@link #flush()} 后保证持久化
+     *
+     * @param key   增量刻度 key
+     * @param value 刻度
+     */
+    void saveValue(String key, String value);
+
+    /**
+     * 持久化所有已保存的刻度
+     */
+    default void flush() {
+    }
+}
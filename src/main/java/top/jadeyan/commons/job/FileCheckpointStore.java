@@ -0,0 +1,139 @@
+package top.jadeyan.commons.job;
+
+import top.jadeyan.commons.exception.IORuntimeException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本地文件增量刻度存储
+ * <p>
+ * 所有刻度保存在一个 properties 文件中。写入时先写临时文件并 fsync, 再原子重命名覆盖原文件,
+ * 进程崩溃时文件只会是旧内容或者新内容。距离上次写文件不足 flushIntervalMillis 的保存只更新内存,
+ * 多次保存合并成一次 fsync, 调用 {@link #flush()} 或者 {@link #close()} 时写入剩余的刻度。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class FileCheckpointStore implements CheckpointStore, Closeable {
+
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000L;
+
+    private final Path path;
+
+    private final long flushIntervalMillis;
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    private volatile boolean dirty;
+
+    private volatile long lastFlushMillis;
+
+    /**
+     * 构造, 最多每秒写一次文件
+     *
+     * @param path 刻度文件
+     */
+    public FileCheckpointStore(Path path) {
+        this(path, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * 构造
+     *
+     * @param path                刻度文件
+     * @param flushIntervalMillis 两次写文件的最小间隔, 0 表示每次保存都写文件
+     */
+    public FileCheckpointStore(Path path, long flushIntervalMillis) {
+        if (flushIntervalMillis < 0) {
+            throw new IllegalArgumentException("flushIntervalMillis cannot be negative");
+        }
+        this.path = path.toAbsolutePath();
+        this.flushIntervalMillis = flushIntervalMillis;
+        load();
+    }
+
+    @Override
+    public String getValue(String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public void saveValue(String key, String value) {
+        values.put(key, value);
+        dirty = true;
+        if (System.currentTimeMillis() - lastFlushMillis >= flushIntervalMillis) {
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            write();
+            lastFlushMillis = System.currentTimeMillis();
+        } catch (IOException e) {
+            dirty = true;
+            throw new IORuntimeException(String.format("save checkpoint to file %s error", path), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void load() {
+        if (!Files.exists(path)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IORuntimeException(String.format("load checkpoint from file %s error", path), e);
+        }
+        properties.stringPropertyNames().forEach(key -> values.put(key, properties.getProperty(key)));
+    }
+
+    private void write() throws IOException {
+        Properties properties = new Properties();
+        properties.putAll(values);
+        StringWriter writer = new StringWriter();
+        properties.store(writer, null);
+        ByteBuffer buffer = ByteBuffer.wrap(writer.toString().getBytes(StandardCharsets.UTF_8));
+
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package top.jadeyan.commons.job;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存增量刻度存储, 用于测试或者不需要断点续传的任务
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class InMemoryCheckpointStore implements CheckpointStore {
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    @Override
+    public String getValue(String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public void saveValue(String key, String value) {
+        values.put(key, value);
+    }
+}
@@ -0,0 +1,276 @@
+package top.jadeyan.commons.job;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+import top.jadeyan.commons.skywalking.SwThreadPoolWorker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 分区并行全量同步
+ * <p>
+ * 每个工作线程领取一个分区, 在分区内按 id 游标分页同步。没有待领取的分区时, 从剩余范围最大的分区中
+ * 拆走后一半(work stealing), 原分区只处理前一半。所有分区的游标作为一个增量刻度保存,
+ * 失败后再次执行时从保存的游标继续, 全部完成后清空刻度。
+ *
+ * @param <R> 查询的返回参数
+ * @author yan
+ * @date 2026/10/18
+ */
+final class PartitionedSyncRunner<R> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedSyncRunner.class);
+
+    private static final String RANGE_SEPARATOR = ";";
+
+    private static final String CURSOR_SEPARATOR = ":";
+
+    private final String syncMark;
+
+    private final int pageSize;
+
+    private final BiFunction<Long, Long, List<R>> searchDataFunction;
+
+    private final ToLongFunction<R> searchDataSortFieldFunction;
+
+    private final Function<List<R>, Integer> dealingDataFunction;
+
+    private final CheckpointStore checkpointStore;
+
+    private final CheckpointCoalescer checkpointCoalescer;
+
+    /**
+     * 待领取的分区, 由 this 保护
+     */
+    private final Deque<PartitionCursor> pendingCursors = new ArrayDeque<>();
+
+    /**
+     * 同步中的分区, 由 this 保护
+     */
+    private final List<PartitionCursor> activeCursors = new ArrayList<>();
+
+    private final LongAdder effectRows = new LongAdder();
+
+    private volatile boolean failed;
+
+    PartitionedSyncRunner(String syncMark, int pageSize, BiFunction<Long, Long, List<R>> searchDataFunction,
+                          ToLongFunction<R> searchDataSortFieldFunction, Function<List<R>, Integer> dealingDataFunction,
+                          CheckpointStore checkpointStore, CheckpointCoalescer checkpointCoalescer) {
+        this.syncMark = syncMark;
+        this.pageSize = pageSize;
+        this.searchDataFunction = searchDataFunction;
+        this.searchDataSortFieldFunction = searchDataSortFieldFunction;
+        this.dealingDataFunction = dealingDataFunction;
+        this.checkpointStore = checkpointStore;
+        this.checkpointCoalescer = checkpointCoalescer;
+    }
+
+    int run(List<SyncPartition> partitions, int parallelism, ExecutorService executorService) {
+        restore(partitions);
+        if (pendingCursors.isEmpty()) {
+            return 0;
+        }
+        SwThreadPoolWorker<Void> worker = SwThreadPoolWorker.of(executorService);
+        int workerSize = Math.min(parallelism, pendingCursors.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workerSize);
+        for (int i = 0; i < workerSize; i++) {
+            futures.add(worker.submit((Runnable) this::work));
+        }
+        RuntimeException error = null;
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (error == null) {
+                    error = new ThreadRuntimeException("partitioned sync error", e.getCause());
+                }
+            }
+        }
+        synchronized (this) {
+            checkpointStore.saveValue(syncMark, error == null ? "" : serializeCursors());
+        }
+        checkpointStore.flush();
+        if (error != null) {
+            throw error;
+        }
+        return effectRows.intValue();
+    }
+
+    private void work() {
+        try {
+            PartitionCursor cursor;
+            while (!failed && (cursor = nextCursor()) != null) {
+                if (syncPartition(cursor)) {
+                    finish(cursor);
+                }
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    /**
+     * 同步一个分区, 返回分区是否同步完成
+     */
+    private boolean syncPartition(PartitionCursor cursor) {
+        while (!failed) {
+            long afterId;
+            long endId;
+            synchronized (this) {
+                afterId = cursor.afterId;
+                endId = cursor.endId;
+            }
+            if (afterId >= endId) {
+                return true;
+            }
+            LOGGER.info("key: {}, partition: ({}, {}]", syncMark, afterId, endId);
+            List<R> dataList = searchDataFunction.apply(afterId, endId);
+            List<R> ownedList = dataList;
+            long maxId = afterId;
+            synchronized (this) {
+                if (cursor.endId < endId) {
+                    // 查询过程中后一半被拆走, 只处理自己范围内的数据
+                    ownedList = new ArrayList<>(dataList.size());
+                    for (R data : dataList) {
+                        if (searchDataSortFieldFunction.applyAsLong(data) <= cursor.endId) {
+                            ownedList.add(data);
+                        }
+                    }
+                }
+                for (R data : ownedList) {
+                    maxId = Math.max(maxId, searchDataSortFieldFunction.applyAsLong(data));
+                }
+                // 处理之前先占住这一页的范围, 之后的拆分只能从这一页之后开始
+                cursor.claimedId = maxId;
+            }
+            if (!ownedList.isEmpty()) {
+                Integer rows = dealingDataFunction.apply(ownedList);
+                effectRows.add(rows == null ? 0 : rows);
+            }
+            synchronized (this) {
+                cursor.afterId = maxId;
+                if (checkpointCoalescer.pageDone()) {
+                    checkpointStore.saveValue(syncMark, serializeCursors());
+                }
+            }
+            if (dataList.size() < pageSize || ownedList.size() < dataList.size()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized PartitionCursor nextCursor() {
+        PartitionCursor cursor = pendingCursors.poll();
+        if (cursor == null) {
+            cursor = steal();
+        }
+        if (cursor != null) {
+            activeCursors.add(cursor);
+        }
+        return cursor;
+    }
+
+    /**
+     * 从剩余范围最大的分区拆走后一半
+     */
+    private PartitionCursor steal() {
+        PartitionCursor victim = null;
+        long maxSpan = 1L;
+        for (PartitionCursor cursor : activeCursors) {
+            long span = cursor.endId - cursor.claimedId;
+            if (span > maxSpan) {
+                maxSpan = span;
+                victim = cursor;
+            }
+        }
+        if (victim == null) {
+            return null;
+        }
+        long middleId = victim.claimedId + maxSpan / 2;
+        PartitionCursor stolen = new PartitionCursor(middleId, victim.endId);
+        victim.endId = middleId;
+        LOGGER.info("key: {}, steal partition: ({}, {}]", syncMark, stolen.afterId, stolen.endId);
+        return stolen;
+    }
+
+    private synchronized void finish(PartitionCursor cursor) {
+        activeCursors.remove(cursor);
+    }
+
+    private void restore(List<SyncPartition> partitions) {
+        String value = checkpointStore.getValue(syncMark);
+        if (StringUtils.isBlank(value)) {
+            for (SyncPartition partition : partitions) {
+                pendingCursors.add(new PartitionCursor(partition.getStartId(), partition.getEndId()));
+            }
+            return;
+        }
+        LOGGER.info("key: {}, resume partitions: {}", syncMark, value);
+        for (String range : value.split(RANGE_SEPARATOR)) {
+            String[] ids = range.split(CURSOR_SEPARATOR);
+            pendingCursors.add(new PartitionCursor(Long.parseLong(ids[0]), Long.parseLong(ids[1])));
+        }
+    }
+
+    /**
+     * 未完成分区的游标, 格式 afterId:endId;afterId:endId
+     */
+    private String serializeCursors() {
+        StringBuilder builder = new StringBuilder();
+        for (PartitionCursor cursor : activeCursors) {
+            appendCursor(builder, cursor);
+        }
+        for (PartitionCursor cursor : pendingCursors) {
+            appendCursor(builder, cursor);
+        }
+        return builder.toString();
+    }
+
+    private static void appendCursor(StringBuilder builder, PartitionCursor cursor) {
+        if (cursor.afterId >= cursor.endId) {
+            return;
+        }
+        if (builder.length() > 0) {
+            builder.append(RANGE_SEPARATOR);
+        }
+        builder.append(cursor.afterId).append(CURSOR_SEPARATOR).append(cursor.endId);
+    }
+
+    /**
+     * 分区游标, 字段由 PartitionedSyncRunner.this 保护
+     */
+    private static final class PartitionCursor {
+
+        /**
+         * 已经处理完成的最大id
+         */
+        private long afterId;
+
+        /**
+         * 已经领取(处理中)的最大id
+         */
+        private long claimedId;
+
+        private long endId;
+
+        private PartitionCursor(long afterId, long endId) {
+            this.afterId = afterId;
+            this.claimedId = afterId;
+            this.endId = endId;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package top.jadeyan.commons.job;
+
+import top.jadeyan.commons.sharding.ShardingUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 全量同步的id 分区, 包含 startId &lt; id &lt;= endId 的数据
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class SyncPartition {
+
+    private final long startId;
+
+    private final long endId;
+
+    private SyncPartition(long startId, long endId) {
+        this.startId = startId;
+        this.endId = endId;
+    }
+
+    /**
+     * 创建分区
+     *
+     * @param startId 开始id(不包含)
+     * @param endId   结束id(包含)
+     * @return 分区
+     */
+    public static SyncPartition of(long startId, long endId) {
+        if (startId >= endId) {
+            throw new IllegalArgumentException(String.format("startId %s must be less than endId %s", startId, endId));
+        }
+        return new SyncPartition(startId, endId);
+    }
+
+    /**
+     * 把 [minId, maxId] 平均拆分成多个分区, minId 和 maxId 通常来自 min/max 查询
+     *
+     * @param minId          最小id(包含)
+     * @param maxId          最大id(包含)
+     * @param partitionCount 分区数量
+     * @return 分区
+     */
+    public static List<SyncPartition> split(long minId, long maxId, int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("partitionCount must be positive");
+        }
+        List<SyncPartition> partitions = new ArrayList<>(partitionCount);
+        if (minId > maxId) {
+            return partitions;
+        }
+        long span = maxId - minId + 1;
+        long step = Math.max(1L, span / partitionCount + (span % partitionCount == 0 ? 0 : 1));
+        long startId = minId - 1;
+        while (startId < maxId) {
+            long endId = maxId - startId <= step ? maxId : startId + step;
+            partitions.add(new SyncPartition(startId, endId));
+            startId = endId;
+        }
+        return partitions;
+    }
+
+    /**
+     * 按月拆分分片主键范围, 每个月一个分区
+     *
+     * @param minPk 最小主键(包含)
+     * @param maxPk 最大主键(包含)
+     * @return 分区
+     */
+    public static List<SyncPartition> splitByMonth(long minPk, long maxPk) {
+        List<SyncPartition> partitions = new ArrayList<>();
+        long startId = minPk - 1;
+        while (startId < maxPk) {
+            long endId = Math.min(ShardingUtils.getCurrentMonthMaxPkFast(startId + 1), maxPk);
+            partitions.add(new SyncPartition(startId, endId));
+            startId = endId;
+        }
+        return partitions;
+    }
+
+    public long getStartId() {
+        return startId;
+    }
+
+    public long getEndId() {
+        return endId;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + startId + ", " + endId + "]";
+    }
+}
@@ -0,0 +1,108 @@
+package top.jadeyan.commons.job;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次同步的统计
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class SyncRunMetrics {
+
+    private int pages;
+
+    private long rows;
+
+    private long fetchNanos;
+
+    private long dealNanos;
+
+    private long elapsedNanos;
+
+    private int lastPageSize;
+
+    SyncRunMetrics() {
+    }
+
+    void recordPage(int pageRows, long pageFetchNanos, long pageDealNanos, int pageSize) {
+        pages++;
+        rows += pageRows;
+        fetchNanos += pageFetchNanos;
+        dealNanos += pageDealNanos;
+        lastPageSize = pageSize;
+    }
+
+    void finish(long startNanos) {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 查询的页数
+     *
+     * @return 页数
+     */
+    public int getPages() {
+        return pages;
+    }
+
+    /**
+     * 同步的条数
+     *
+     * @return 条数
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * 查询耗时(毫秒)
+     *
+     * @return 毫秒
+     */
+    public long getFetchMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(fetchNanos);
+    }
+
+    /**
+     * 处理耗时(毫秒)
+     *
+     * @return 毫秒
+     */
+    public long getDealMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dealNanos);
+    }
+
+    /**
+     * 总耗时(毫秒)
+     *
+     * @return 毫秒
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * 最后一页的分页大小
+     *
+     * @return 分页大小
+     */
+    public int getLastPageSize() {
+        return lastPageSize;
+    }
+
+    /**
+     * 每秒同步的条数
+     *
+     * @return 条数/秒
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos <= 0 ? 0 : rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("pages=%d, rows=%d, rows/s=%.1f, fetch=%dms, deal=%dms, elapsed=%dms, lastPageSize=%d",
+                pages, rows, getRowsPerSecond(), getFetchMillis(), getDealMillis(), getElapsedMillis(), lastPageSize);
+    }
+}
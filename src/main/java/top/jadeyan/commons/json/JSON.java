@@ -1,22 +1,43 @@
 package top.jadeyan.commons.json;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
 import top.jadeyan.commons.exception.JsonRuntimeException;
 import top.jadeyan.commons.object.CompressUtils;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JSON 工具对象
+ * <p>
+ * 按 Class、TypeReference 缓存 {@link ObjectReader}, 按对象的运行时类型缓存 {@link ObjectWriter},
+ * 每次调用不再经过 ObjectMapper 的类型解析和根序列化器查找, parseArray 也不再每次构造 CollectionType。
+ * 字节数组、{@link ByteBuffer} 和 {@link InputStream} 直接交给 jackson 解析, 不先解码成字符串;
+ * 输出可以直接写入调用方的 {@link OutputStream} 或 {@link ByteBuffer}, jackson 内部的读写缓冲区由它的 BufferRecycler 复用。
  *
  * @author yan
  */
@@ -30,8 +51,47 @@ public final class JSON {
         MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         // 大小写不敏感
         MAPPER.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
+        // 输入输出流由调用方关闭
+        MAPPER.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+        MAPPER.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
     }
 
+    /**
+     * 序列化 null 使用的 writer
+     */
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<ObjectWriter>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return MAPPER.writerFor(type);
+        }
+    };
+
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<ObjectReader>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return MAPPER.readerFor(type);
+        }
+    };
+
+    private static final ClassValue<ObjectReader> LIST_READERS = new ClassValue<ObjectReader>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return MAPPER.readerFor(MAPPER.getTypeFactory().constructCollectionType(List.class, type));
+        }
+    };
+
+    /**
+     * TypeReference 的 reader 缓存上限, 超过后不再缓存
+     */
+    private static final int TYPE_READER_CACHE_SIZE = 1024;
+
+    /**
+     * 按 {@link TypeReference#getType()} 缓存, 子类重写 getType() 时也能取到正确的类型
+     */
+    private static final Map<Type, ObjectReader> TYPE_READERS = new ConcurrentHashMap<>();
+
     private JSON() {
     }
 
@@ -70,7 +130,7 @@ public final class JSON {
      */
     public static String toJSONString(Object object) {
         try {
-            return MAPPER.writeValueAsString(object);
+            return writer(object).writeValueAsString(object);
         } catch (JsonProcessingException e) {
             throw new JsonRuntimeException("toJSONString error", e);
         }
@@ -86,7 +146,7 @@ public final class JSON {
      */
     public static <T> T parseObject(String json, Class<T> clazz) {
         try {
-            return MAPPER.readValue(json, clazz);
+            return READERS.get(clazz).readValue(json);
         } catch (JsonProcessingException e) {
             String errMsg = String.format("parseObject error, json: %s; class: %s", json, clazz.getName());
             throw new JsonRuntimeException(errMsg, e);
@@ -103,7 +163,7 @@ public final class JSON {
      */
     public static <T> T parseObject(String json, TypeReference<T> typeReference) {
         try {
-            return MAPPER.readValue(json, typeReference);
+            return reader(typeReference).readValue(json);
         } catch (JsonProcessingException e) {
             String errMsg = String.format("parse complex Object error, json: %s", json);
             throw new JsonRuntimeException(errMsg, e);
@@ -121,8 +181,12 @@ public final class JSON {
      */
     public static <T> T parseObject(byte[] body, Charset charset, TypeReference<T> typeReference) {
         try {
-            return MAPPER.readValue(new String(body, charset), typeReference);
-        } catch (JsonProcessingException e) {
+            if (isUtf8(charset)) {
+                // 直接解析字节, 不先解码成字符串
+                return reader(typeReference).readValue(body);
+            }
+            return reader(typeReference).readValue(new InputStreamReader(new ByteArrayInputStream(body), charset));
+        } catch (IOException e) {
             throw new JsonRuntimeException("parse byte body error", e);
         }
     }
@@ -137,7 +201,7 @@ public final class JSON {
      */
     public static <T> List<T> parseArray(String json, Class<T> clazz) {
         try {
-            return MAPPER.readValue(json, MAPPER.getTypeFactory().constructCollectionType(List.class, clazz));
+            return LIST_READERS.get(clazz).readValue(json);
         } catch (JsonProcessingException e) {
             String errMsg = String.format("parseArray error, json: %s; class: %s", json, clazz.getName());
             throw new JsonRuntimeException(errMsg, e);
@@ -156,7 +220,7 @@ public final class JSON {
             if (Objects.isNull(object)) {
                 return new byte[0];
             }
-            byte[] bytes = MAPPER.writeValueAsBytes(object);
+            byte[] bytes = writer(object).writeValueAsBytes(object);
             if (!compress) {
                 return bytes;
             }
@@ -181,7 +245,7 @@ public final class JSON {
                 return null;
             }
             byte[] decodeBytes = compress ? CompressUtils.decompress(bytes) : bytes;
-            return MAPPER.readValue(decodeBytes, clazz);
+            return READERS.get(clazz).readValue(decodeBytes);
         } catch (Exception e) {
             throw new JsonRuntimeException("parseObject error", e);
         }
@@ -202,10 +266,159 @@ public final class JSON {
                 return new ArrayList<>();
             }
             byte[] decodeBytes = compress ? CompressUtils.decompress(bytes) : bytes;
-            return MAPPER.readValue(decodeBytes, MAPPER.getTypeFactory().constructCollectionType(List.class, clazz));
+            return LIST_READERS.get(clazz).readValue(decodeBytes);
         } catch (Exception e) {
             throw new JsonRuntimeException("parseArray error", e);
         }
     }
+
+    /**
+     * 转换 UTF-8/16/32 编码的字节数组变成对象, 不先解码成字符串
+     *
+     * @param bytes 字节数组
+     * @param clazz 实体
+     * @param <T>   实体类
+     * @return 实体类对象
+     */
+    public static <T> T parseObject(byte[] bytes, Class<T> clazz) {
+        try {
+            return READERS.get(clazz).readValue(bytes);
+        } catch (IOException e) {
+            throw new JsonRuntimeException("parseObject error, class: " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * 转换 UTF-8/16/32 编码的字节数组变成复杂泛型对象
+     *
+     * @param bytes         字节数组
+     * @param typeReference 复杂泛型类型
+     * @param <T>           实体类
+     * @return 实体类对象
+     */
+    public static <T> T parseObject(byte[] bytes, TypeReference<T> typeReference) {
+        try {
+            return reader(typeReference).readValue(bytes);
+        } catch (IOException e) {
+            throw new JsonRuntimeException("parse complex Object error", e);
+        }
+    }
+
+    /**
+     * 转换 ByteBuffer 中剩余的字节变成对象, 不改变 buffer 的 position
+     *
+     * @param buffer 字节缓冲区, UTF-8/16/32 编码
+     * @param clazz  实体
+     * @param <T>    实体类
+     * @return 实体类对象
+     */
+    public static <T> T parseObject(ByteBuffer buffer, Class<T> clazz) {
+        try {
+            ObjectReader reader = READERS.get(clazz);
+            if (buffer.hasArray()) {
+                return reader.readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            }
+            return reader.readValue(new ByteBufferBackedInputStream(buffer.duplicate()));
+        } catch (IOException e) {
+            throw new JsonRuntimeException("parseObject error, class: " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * 从输入流读取对象, 不关闭输入流
+     *
+     * @param in    输入流, UTF-8/16/32 编码
+     * @param clazz 实体
+     * @param <T>   实体类
+     * @return 实体类对象
+     */
+    public static <T> T parseObject(InputStream in, Class<T> clazz) {
+        try {
+            return READERS.get(clazz).readValue(in);
+        } catch (IOException e) {
+            throw new JsonRuntimeException("parseObject error, class: " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * 从输入流读取复杂泛型对象, 不关闭输入流
+     *
+     * @param in            输入流, UTF-8/16/32 编码
+     * @param typeReference 复杂泛型类型
+     * @param <T>           实体类
+     * @return 实体类对象
+     */
+    public static <T> T parseObject(InputStream in, TypeReference<T> typeReference) {
+        try {
+            return reader(typeReference).readValue(in);
+        } catch (IOException e) {
+            throw new JsonRuntimeException("parse complex Object error", e);
+        }
+    }
+
+    /**
+     * 从输入流读取数组, 不关闭输入流
+     *
+     * @param in    输入流, UTF-8/16/32 编码
+     * @param clazz 实体
+     * @param <T>   实体类
+     * @return 实体类对象
+     */
+    public static <T> List<T> parseArray(InputStream in, Class<T> clazz) {
+        try {
+            return LIST_READERS.get(clazz).readValue(in);
+        } catch (IOException e) {
+            throw new JsonRuntimeException("parseArray error, class: " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * 序列化对象写入输出流, 使用 UTF-8 编码, 不关闭输出流
+     *
+     * @param object 对象
+     * @param out    输出流
+     */
+    public static void writeTo(Object object, OutputStream out) {
+        try {
+            writer(object).writeValue(out, object);
+        } catch (IOException e) {
+            throw new JsonRuntimeException("writeTo error", e);
+        }
+    }
+
+    /**
+     * 序列化对象写入调用方的缓冲区, 使用 UTF-8 编码, 写入后 position 移到内容末尾
+     *
+     * @param object 对象
+     * @param buffer 缓冲区, 可以在多次调用之间复用
+     * @return 写入的字节数
+     * @throws java.nio.BufferOverflowException 缓冲区剩余空间不足
+     */
+    public static int writeTo(Object object, ByteBuffer buffer) {
+        int start = buffer.position();
+        writeTo(object, new ByteBufferBackedOutputStream(buffer));
+        return buffer.position() - start;
+    }
+
+    private static ObjectWriter writer(Object object) {
+        return object == null ? WRITER : WRITERS.get(object.getClass());
+    }
+
+    private static ObjectReader reader(TypeReference<?> typeReference) {
+        Type type = typeReference.getType();
+        ObjectReader reader = TYPE_READERS.get(type);
+        if (reader != null) {
+            return reader;
+        }
+        reader = MAPPER.readerFor(MAPPER.getTypeFactory().constructType(type));
+        if (TYPE_READERS.size() < TYPE_READER_CACHE_SIZE) {
+            TYPE_READERS.putIfAbsent(type, reader);
+        }
+        return reader;
+    }
+
+    private static boolean isUtf8(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset);
+    }
     /// endregion
 }
@@ -0,0 +1,169 @@
+package top.jadeyan.commons.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁耗时直方图
+ * <p>
+ * 按微秒分桶, 与 HdrHistogram 类似, 每个 2 的幂区间再等分为 {@value #SUB_BUCKET_COUNT} 个子桶,
+ * 记录时只有几次原子累加, 适合在热点路径上使用。分位数取所在子桶的上界, 相对误差不超过 1/{@value #SUB_BUCKET_COUNT}。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * 每个 2 的幂区间的子桶数
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 覆盖到 2^40 微秒(约 12 天), 更长的耗时都记在最后一个桶
+     */
+    private static final int BUCKET_SIZE = (40 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_SIZE);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时, 纳秒
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * 获取当前统计的快照, 快照期间的并发记录可能只统计了一部分
+     *
+     * @return 快照
+     */
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKET_SIZE];
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            bucketCounts[i] = buckets.get(i);
+        }
+        return new Snapshot(bucketCounts, count.sum(), totalNanos.sum(), maxNanos.get());
+    }
+
+    private static int bucketIndex(long nanos) {
+        long micros = nanos / 1000;
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        // 最高位之后的 SUB_BUCKET_BITS 位决定子桶
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        int subIndex = (int) (micros >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return Math.min((shift + 1) * SUB_BUCKET_COUNT + subIndex, BUCKET_SIZE - 1);
+    }
+
+    /**
+     * 桶的上界(不含), 微秒
+     */
+    private static long bucketUpperMicros(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index + 1L;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lower = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lower + (1L << shift);
+    }
+
+    /**
+     * 直方图快照
+     */
+    public static final class Snapshot {
+
+        private final long[] bucketCounts;
+
+        private final long count;
+
+        private final long totalNanos;
+
+        private final long maxNanos;
+
+        private Snapshot(long[] bucketCounts, long count, long totalNanos, long maxNanos) {
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * 平均耗时
+         *
+         * @return 平均耗时, 纳秒
+         */
+        public long getMeanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        /**
+         * 分位数耗时
+         *
+         * @param percentile 分位数, 取值 (0, 100]
+         * @return 分位数所在桶的上界, 不超过最大耗时, 纳秒
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be in (0, 100]");
+            }
+            long total = 0;
+            for (long bucketCount : bucketCounts) {
+                total += bucketCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperMicros(i) * 1000, maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count
+                    + ", meanMillis=" + getMeanNanos() / 1_000_000.0
+                    + ", p99Millis=" + getPercentileNanos(99) / 1_000_000.0
+                    + ", maxMillis=" + maxNanos / 1_000_000.0;
+        }
+    }
+}
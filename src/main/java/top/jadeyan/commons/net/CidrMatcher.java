@@ -0,0 +1,177 @@
+package top.jadeyan.commons.net;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * IPv4 网段匹配
+ * <p>
+ * 构造时把网段转成 [起始, 结束] 区间, 排序并合并重叠和相邻的区间, 匹配时二分查找, 几千个网段也是 O(log n)。
+ * 对象不可变, 可以多线程共享。
+ * <pre>
+ * CidrMatcher whiteList = CidrMatcher.of("10.0.0.0/8", "192.168.1.0/24", "172.16.0.1");
+ * boolean allowed = whiteList.matches(request.getRemoteAddr());
+ * </pre>
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class CidrMatcher {
+
+    private static final long MAX_IP = 0xFFFFFFFFL;
+
+    private final long[] starts;
+
+    private final long[] ends;
+
+    private CidrMatcher(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * 创建匹配器
+     *
+     * @param cidrs 网段, 如 10.0.0.0/8, 不带掩码时表示单个 ip
+     * @return 匹配器
+     */
+    public static CidrMatcher of(String... cidrs) {
+        return of(Arrays.asList(cidrs));
+    }
+
+    /**
+     * 创建匹配器
+     *
+     * @param cidrs 网段, 如 10.0.0.0/8, 不带掩码时表示单个 ip
+     * @return 匹配器
+     */
+    public static CidrMatcher of(Collection<String> cidrs) {
+        long[][] ranges = new long[cidrs.size()][];
+        int index = 0;
+        for (String cidr : cidrs) {
+            ranges[index++] = parseRange(cidr);
+        }
+        Arrays.sort(ranges, (a, b) -> Long.compare(a[0], b[0]));
+        long[] starts = new long[ranges.length];
+        long[] ends = new long[ranges.length];
+        int size = 0;
+        for (long[] range : ranges) {
+            if (size > 0 && range[0] <= ends[size - 1] + 1) {
+                // 与上一个区间重叠或相邻, 合并
+                ends[size - 1] = Math.max(ends[size - 1], range[1]);
+            } else {
+                starts[size] = range[0];
+                ends[size] = range[1];
+                size++;
+            }
+        }
+        return new CidrMatcher(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+
+    /**
+     * 是否匹配任意网段
+     *
+     * @param ip ip 地址
+     * @return true 匹配, 为空、IPv6 或者不是合法的 IPv4 地址时返回 false
+     */
+    public boolean matches(String ip) {
+        if (ip == null) {
+            return false;
+        }
+        String text = ip.trim();
+        return isIpv4(text) && matches(IpUtils.ipToLong(text));
+    }
+
+    /**
+     * 是否匹配任意网段
+     *
+     * @param ip {@link IpUtils#ipToLong(String)} 转换后的 ip
+     * @return true 匹配
+     */
+    public boolean matches(long ip) {
+        int index = Arrays.binarySearch(starts, ip);
+        if (index >= 0) {
+            return true;
+        }
+        // 插入点前一个区间是起始地址不大于 ip 的最后一个区间
+        int previous = -index - 2;
+        return previous >= 0 && ip <= ends[previous];
+    }
+
+    /**
+     * 合并后的区间数
+     *
+     * @return 区间数
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * 合并后的区间
+     *
+     * @return 区间, 如 10.0.0.0-10.255.255.255
+     */
+    public List<String> getRanges() {
+        List<String> ranges = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            ranges.add(IpUtils.longToIp(starts[i]) + "-" + IpUtils.longToIp(ends[i]));
+        }
+        return ranges;
+    }
+
+    @Override
+    public String toString() {
+        return "CidrMatcher" + getRanges();
+    }
+
+    private static long[] parseRange(String cidr) {
+        if (cidr == null) {
+            throw new IllegalArgumentException("cidr cannot be null");
+        }
+        String text = cidr.trim();
+        int slash = text.indexOf('/');
+        int prefixLength = 32;
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(text.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid cidr: " + cidr, e);
+            }
+            if (prefixLength < 0 || prefixLength > 32) {
+                throw new IllegalArgumentException("invalid cidr: " + cidr);
+            }
+            text = text.substring(0, slash);
+        }
+        if (!isIpv4(text)) {
+            throw new IllegalArgumentException("invalid cidr: " + cidr);
+        }
+        long mask = prefixLength == 0 ? 0 : (MAX_IP << (32 - prefixLength)) & MAX_IP;
+        long start = IpUtils.ipToLong(text) & mask;
+        return new long[]{start, start | (~mask & MAX_IP)};
+    }
+
+    private static boolean isIpv4(String ip) {
+        String[] parts = ip.split("\\.", -1);
+        if (parts.length != 4) {
+            return false;
+        }
+        for (String part : parts) {
+            if (part.isEmpty() || part.length() > 3) {
+                return false;
+            }
+            for (int i = 0; i < part.length(); i++) {
+                char c = part.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            if (Integer.parseInt(part) > 255) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -4,19 +4,26 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
-import org.springframework.cglib.beans.BeanCopier;
+import org.apache.skywalking.apm.toolkit.trace.RunnableWrapper;
 import org.springframework.util.CollectionUtils;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+import top.jadeyan.commons.skywalking.SwThreadPoolExecutor;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-
-import static java.lang.String.format;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Bean拷贝工具类
+ * <p>
+ * 拷贝通过 {@link BeanMapper} 完成, 每对类型只编译一次拷贝计划, 类型不同的属性会做常见的类型转换
  *
  * @author yan
  * @date 2020-07-17
@@ -27,9 +34,13 @@ public final class BeanCopyUtils {
     private BeanCopyUtils() {
     }
 
-    private static final Map<String, BeanCopier> BEAN_COPIER_CACHE = new ConcurrentHashMap<>();
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * 并行拷贝时每个分片的默认元素数
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 2048;
+
     /**
      * 复制对象属性
      *
@@ -37,8 +48,8 @@ public final class BeanCopyUtils {
      * @param target 目标
      */
     public static void copyProperties(Object source, Object target) {
-        BeanCopier copier = getBeanCopier(source.getClass(), target.getClass());
-        copier.copy(source, target, null);
+        BeanMapper mapper = BeanMapper.of(source.getClass(), target.getClass());
+        mapper.copy(source, target);
     }
 
     /**
@@ -54,25 +65,133 @@ public final class BeanCopyUtils {
             return Collections.emptyList();
         }
         List<T> list = Lists.newArrayListWithExpectedSize(sourceList.size());
+        MappingFunction<T> mapping = new MappingFunction<>(targetCls);
         for (Object source : sourceList) {
-            list.add(copyProperties(source, targetCls));
+            list.add(mapping.apply(source));
         }
         return list;
     }
 
     /**
-     * 生成key
+     * 并行 List copy, 按 2048 个元素一个分片提交到执行器
+     *
+     * @param sourceList 源List
+     * @param targetCls  目标类型
+     * @param executor   执行器
+     * @param <T>        泛型对象
+     * @return 目标List, 顺序与源List一致
+     */
+    public static <T> List<T> copyList(List<?> sourceList, Class<T> targetCls, Executor executor) {
+        return copyList(sourceList, targetCls, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 并行 List copy
+     * <p>
+     * 源List切成连续分片, 除第一个分片外提交到执行器, 第一个分片在当前线程执行。每个分片把结果写入预先分配好的数组的对应区间,
+     * 不需要合并。元素数不超过一个分片时直接在当前线程拷贝。提交的分片会传递 skywalking 链路。
      *
-     * @param srcClazz 源文件的class
-     * @param tgtClazz 目标文件的class
-     * @return string
+     * @param sourceList 源List
+     * @param targetCls  目标类型
+     * @param executor   执行器
+     * @param chunkSize  每个分片的元素数
+     * @param <T>        泛型对象
+     * @return 目标List, 顺序与源List一致
+     */
+    public static <T> List<T> copyList(List<?> sourceList, Class<T> targetCls, Executor executor, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        if (CollectionUtils.isEmpty(sourceList) || sourceList.size() <= chunkSize) {
+            return copyList(sourceList, targetCls);
+        }
+        Object[] sources = sourceList.toArray();
+        Object[] targets = new Object[sources.length];
+        int chunkCount = (sources.length + chunkSize - 1) / chunkSize;
+        List<CompletableFuture<Void>> futures = new ArrayList<>(chunkCount - 1);
+        boolean firstChunkCopied = false;
+        try {
+            for (int i = 1; i < chunkCount; i++) {
+                int fromIndex = i * chunkSize;
+                int toIndex = Math.min(sources.length, fromIndex + chunkSize);
+                Runnable task = () -> copyRange(sources, targets, fromIndex, toIndex, targetCls);
+                futures.add(CompletableFuture.runAsync(traced(task, executor), executor));
+            }
+            copyRange(sources, targets, 0, chunkSize, targetCls);
+            firstChunkCopied = true;
+        } finally {
+            if (!firstChunkCopied) {
+                // 提交或者第一个分片失败时, 还没开始的分片不再执行
+                futures.forEach(future -> future.cancel(false));
+            }
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ThreadRuntimeException("copyList error", e.getCause());
+        }
+        return new ArrayList<>((List<T>) Arrays.asList(targets));
+    }
+
+    /**
+     * 包装分片任务以传递 skywalking 链路, {@link SwThreadPoolExecutor} 自身已经传递链路, 不重复包装
      */
-    private static String genKey(Class<?> srcClazz, Class<?> tgtClazz) {
-        return srcClazz.getName() + "&" + tgtClazz.getName();
+    private static Runnable traced(Runnable task, Executor executor) {
+        return executor instanceof SwThreadPoolExecutor ? task : RunnableWrapper.of(task);
     }
 
     /**
-     * BeanCopier的copy
+     * 惰性 Stream copy, 元素在被消费时才拷贝, 可以从数据库游标直接流向序列化, 不生成中间集合
+     *
+     * @param source    源Stream
+     * @param targetCls 目标类型
+     * @param <T>       泛型对象
+     * @return 目标Stream, 关闭时同时关闭源Stream
+     */
+    public static <T> Stream<T> copyStream(Stream<?> source, Class<T> targetCls) {
+        return source.map(new MappingFunction<>(targetCls));
+    }
+
+    /**
+     * 惰性 Iterator copy, 每次 next 时拷贝一个元素
+     *
+     * @param source    源Iterator
+     * @param targetCls 目标类型
+     * @param <T>       泛型对象
+     * @return 目标Iterator, remove 会删除源Iterator中的元素
+     */
+    public static <T> Iterator<T> copyIterator(Iterator<?> source, Class<T> targetCls) {
+        MappingFunction<T> mapping = new MappingFunction<>(targetCls);
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return mapping.apply(source.next());
+            }
+
+            @Override
+            public void remove() {
+                source.remove();
+            }
+        };
+    }
+
+    private static <T> void copyRange(Object[] sources, Object[] targets, int fromIndex, int toIndex, Class<T> targetCls) {
+        MappingFunction<T> mapping = new MappingFunction<>(targetCls);
+        for (int i = fromIndex; i < toIndex; i++) {
+            targets[i] = mapping.apply(sources[i]);
+        }
+    }
+
+    /**
+     * 创建目标对象并复制属性
      *
      * @param source      目标对象
      * @param targetClass 目标类
@@ -80,13 +199,12 @@ public final class BeanCopyUtils {
      * @return <T> copy的实例
      */
     public static <T> T copyProperties(Object source, Class<T> targetClass) {
-        T t = createInstance(targetClass);
-        copyProperties(source, t);
-        return t;
+        BeanMapper mapper = BeanMapper.of(source.getClass(), targetClass);
+        return (T) mapper.map(source);
     }
 
     /**
-     * BeanCopier的copy
+     * 创建目标对象并复制属性
      *
      * @param source        目标对象
      * @param typeReference 目标类
@@ -96,28 +214,36 @@ public final class BeanCopyUtils {
     public static <T> T copyProperties(Object source, TypeReference<T> typeReference) {
         final JavaType javaType = objectMapper.getTypeFactory().constructType(typeReference);
         Class<T> targetClass = (Class<T>) javaType.getRawClass();
-        T t = createInstance(targetClass);
-        copyProperties(source, t);
-        return t;
+        return copyProperties(source, targetClass);
     }
 
-    private static <T> T createInstance(Class<T> targetClass) {
-        T t;
-        try {
-            t = targetClass.newInstance();
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new RuntimeException(format("Create new instance of %s failed: %s", targetClass, e.getMessage()));
+    /**
+     * 拷贝到目标类型, 元素类型通常相同, 只在类型变化时重新查找映射器
+     */
+    private static final class MappingFunction<T> implements Function<Object, T> {
+
+        private final Class<T> targetCls;
+
+        /**
+         * 并行流中可能被多个线程覆盖, 映射器不可变, 读到任意一个都是正确的
+         */
+        private BeanMapper mapper;
+
+        private MappingFunction(Class<T> targetCls) {
+            this.targetCls = targetCls;
         }
-        return t;
-    }
 
-    private static BeanCopier getBeanCopier(Class sourceClass, Class targetClass) {
-        String beanKey = genKey(sourceClass, targetClass);
-        BeanCopier copier = BEAN_COPIER_CACHE.get(beanKey);
-        if (Objects.isNull(copier)) {
-            copier = BeanCopier.create(sourceClass, targetClass, false);
-            BEAN_COPIER_CACHE.put(beanKey, copier);
+        @Override
+        public T apply(Object source) {
+            if (source == null) {
+                return null;
+            }
+            BeanMapper current = mapper;
+            if (current == null || current.getSourceType() != source.getClass()) {
+                current = BeanMapper.of(source.getClass(), targetCls);
+                mapper = current;
+            }
+            return (T) current.map(source);
         }
-        return copier;
     }
 }
@@ -0,0 +1,312 @@
+package top.jadeyan.commons.object;
+
+import java.beans.Introspector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Bean 属性映射
+ * <p>
+ * 每对 (源类, 目标类) 只编译一次拷贝计划: 按属性名匹配源对象的 get/is 方法和目标对象的 set 方法,
+ * 选好类型转换后编译成 {@link MethodHandle}, 目标对象也通过编译好的无参构造方法句柄创建。
+ * 计划按类对象缓存在嵌套的 {@link ClassValue} 中, 查找时不拼接字符串。注意内层 {@link ClassValue} 的值挂在目标类上,
+ * 映射器强引用源类, 所以目标类存活期间对应的源类(及其类加载器)不会被卸载; 源类和目标类来自不同且会被卸载的类加载器时不要使用。
+ * <p>
+ * 类型不同的属性按 {@link TypeConverters} 转换(包装类型、数字、日期、{@link top.jadeyan.commons.enums.ITextValueEnum}),
+ * 数字之间只做无损转换, 无法转换的属性跳过; 源属性为 null 时目标的基本类型属性保持默认值。
+ *
+ * @param <S> 源类型
+ * @param <T> 目标类型
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class BeanMapper<S, T> {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final ClassValue<ClassValue<BeanMapper<?, ?>>> MAPPERS = new ClassValue<ClassValue<BeanMapper<?, ?>>>() {
+        @Override
+        protected ClassValue<BeanMapper<?, ?>> computeValue(Class<?> sourceType) {
+            return new ClassValue<BeanMapper<?, ?>>() {
+                @Override
+                protected BeanMapper<?, ?> computeValue(Class<?> targetType) {
+                    return compile(sourceType, targetType);
+                }
+            };
+        }
+    };
+
+    private final Class<S> sourceType;
+
+    private final Class<T> targetType;
+
+    private final MethodHandle constructor;
+
+    private final PropertyCopier[] copiers;
+
+    private BeanMapper(Class<S> sourceType, Class<T> targetType, MethodHandle constructor, PropertyCopier[] copiers) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.constructor = constructor;
+        this.copiers = copiers;
+    }
+
+    /**
+     * 获取映射器, 每对类型只编译一次
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param <S>        源类型
+     * @param <T>        目标类型
+     * @return 映射器
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> BeanMapper<S, T> of(Class<S> sourceType, Class<T> targetType) {
+        return (BeanMapper<S, T>) MAPPERS.get(sourceType).get(targetType);
+    }
+
+    /**
+     * 创建目标对象并拷贝属性
+     *
+     * @param source 源对象
+     * @return 目标对象, 源对象为 null 时返回 null
+     */
+    public T map(S source) {
+        if (source == null) {
+            return null;
+        }
+        T target = newInstance();
+        copy(source, target);
+        return target;
+    }
+
+    /**
+     * 拷贝属性到已有的目标对象
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     */
+    public void copy(S source, T target) {
+        for (PropertyCopier copier : copiers) {
+            copier.copy(source, target);
+        }
+    }
+
+    /**
+     * 创建目标对象
+     *
+     * @return 目标对象
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() {
+        if (constructor == null) {
+            throw new IllegalStateException(format("Create new instance of %s failed: no accessible no-arg constructor", targetType));
+        }
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(format("Create new instance of %s failed: %s", targetType, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 会拷贝的属性
+     *
+     * @return 属性名
+     */
+    public List<String> getPropertyNames() {
+        List<String> names = new ArrayList<>(copiers.length);
+        for (PropertyCopier copier : copiers) {
+            names.add(copier.name);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    public Class<S> getSourceType() {
+        return sourceType;
+    }
+
+    public Class<T> getTargetType() {
+        return targetType;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanMapper{" + sourceType.getName() + " -> " + targetType.getName() + ", properties=" + getPropertyNames() + '}';
+    }
+
+    private static <S, T> BeanMapper<S, T> compile(Class<S> sourceType, Class<T> targetType) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<String, Method> getters = new HashMap<>();
+        for (Method method : sourceType.getMethods()) {
+            String name = getterProperty(method);
+            if (name != null) {
+                getters.putIfAbsent(name, method);
+            }
+        }
+        List<PropertyCopier> copiers = new ArrayList<>();
+        Map<String, Method> selectedSetters = selectSetters(targetType, getters);
+        for (Map.Entry<String, Method> entry : selectedSetters.entrySet()) {
+            Method getter = getters.get(entry.getKey());
+            Method setter = entry.getValue();
+            Class<?> from = getter.getReturnType();
+            Class<?> to = setter.getParameterTypes()[0];
+            Function<Object, Object> converter = TypeConverters.find(from, to);
+            if (converter == null) {
+                if (!isOpenType(from)) {
+                    continue;
+                }
+                // 声明类型可能是泛型擦除后的 Object 或者接口, 运行时再按实际类型转换
+                converter = value -> convertByRuntimeType(value, to);
+            }
+            copiers.add(new PropertyCopier(entry.getKey(), unreflect(lookup, getter).asType(GETTER_TYPE),
+                    unreflect(lookup, setter).asType(SETTER_TYPE),
+                    converter == TypeConverters.IDENTITY ? null : converter, to.isPrimitive()));
+        }
+        copiers.sort((a, b) -> a.name.compareTo(b.name));
+        return new BeanMapper<>(sourceType, targetType, constructor(lookup, targetType),
+                copiers.toArray(new PropertyCopier[0]));
+    }
+
+    /**
+     * 为每个属性选择 set 方法, 有重载时优先选择参数类型与 get 方法返回类型一致的
+     */
+    private static Map<String, Method> selectSetters(Class<?> targetType, Map<String, Method> getters) {
+        Map<String, Method> selected = new HashMap<>();
+        for (Method method : targetType.getMethods()) {
+            String name = setterProperty(method);
+            Method getter = name == null ? null : getters.get(name);
+            if (getter == null) {
+                continue;
+            }
+            Method current = selected.get(name);
+            if (current == null || (TypeConverters.wrap(method.getParameterTypes()[0]) == TypeConverters.wrap(getter.getReturnType())
+                    && TypeConverters.wrap(current.getParameterTypes()[0]) != TypeConverters.wrap(getter.getReturnType()))) {
+                selected.put(name, method);
+            }
+        }
+        return selected;
+    }
+
+    private static Object convertByRuntimeType(Object value, Class<?> to) {
+        if (TypeConverters.wrap(to).isInstance(value)) {
+            return value;
+        }
+        Function<Object, Object> converter = TypeConverters.find(value.getClass(), to);
+        return converter == null ? TypeConverters.SKIP : converter.apply(value);
+    }
+
+    private static boolean isOpenType(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !Modifier.isFinal(type.getModifiers());
+    }
+
+    private static String getterProperty(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3 && method.getReturnType() != void.class) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2
+                && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    private static String setterProperty(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1) {
+            return null;
+        }
+        String name = method.getName();
+        return name.startsWith("set") && name.length() > 3 ? Introspector.decapitalize(name.substring(3)) : null;
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method) {
+        try {
+            // public 方法所在的类可能不是 public 的
+            method.setAccessible(true);
+            return lookup.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("cannot access " + method, e);
+        }
+    }
+
+    private static MethodHandle constructor(MethodHandles.Lookup lookup, Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return lookup.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个属性的拷贝
+     */
+    private static final class PropertyCopier {
+
+        private final String name;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private final Function<Object, Object> converter;
+
+        private final boolean primitive;
+
+        private PropertyCopier(String name, MethodHandle getter, MethodHandle setter,
+                               Function<Object, Object> converter, boolean primitive) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+            this.primitive = primitive;
+        }
+
+        private void copy(Object source, Object target) {
+            try {
+                Object value = (Object) getter.invokeExact(source);
+                if (value != null && converter != null) {
+                    value = converter.apply(value);
+                    if (value == TypeConverters.SKIP) {
+                        return;
+                    }
+                }
+                if (value == null && primitive) {
+                    return;
+                }
+                setter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(format("Copy property %s failed: %s", name, e.getMessage()), e);
+            }
+        }
+    }
+}
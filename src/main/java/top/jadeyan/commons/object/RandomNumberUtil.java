@@ -1,8 +1,8 @@
 package top.jadeyan.commons.object;
 
-import top.jadeyan.commons.http.HostIpUtil;
+import top.jadeyan.commons.http.HostAddressCache;
 
-import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 生成随机数工具
@@ -20,6 +20,17 @@ public final class RandomNumberUtil {
 
     public static final int RANDOM_NUMBER_MINIMUM = 1000;
 
+    /**
+     * 本机 ip 的十六进制, 地址变化时由 {@link HostAddressCache} 的监听器更新
+     */
+    private static volatile String ipHex;
+
+    static {
+        // 先注册监听器再读取, 两者之间的地址变化不会丢失
+        HostAddressCache.addListener(snapshot -> ipHex = ipToHex(snapshot.getLanAddress()));
+        ipHex = ipToHex(HostAddressCache.getLanAddress());
+    }
+
     private RandomNumberUtil() {
 
     }
@@ -39,20 +50,20 @@ public final class RandomNumberUtil {
     }
 
     /**
-     * 生成随机序列号
+     * 生成随机序列号, 不保证唯一, 需要唯一的定长链路 id 时使用 {@link TraceIdGenerator#nextId()}
      *
      * @return String
      */
     public static String randomNumber() {
         //4位随机数字+11位+16进制ip地址 8位(可为空)+时间戳+线程id 不限位数
         //随机数
-        SecureRandom secureRandom = new SecureRandom();
-        Integer randomNum = secureRandom.nextInt(RANDOM_NUMBER_RANGE) + RANDOM_NUMBER_MINIMUM;
-
-        //十六进制 服务器ip
-        String ip = HostIpUtil.getLocalHostLANAddress();
-        String ipHex = ipToHex(ip);
-        //13位时间戳
-        return String.format("%d%s%d%d", randomNum, ipHex, System.currentTimeMillis(), Thread.currentThread().getId());
+        int randomNum = ThreadLocalRandom.current().nextInt(RANDOM_NUMBER_RANGE) + RANDOM_NUMBER_MINIMUM;
+        //十六进制 服务器ip, 13位时间戳
+        return new StringBuilder(48)
+                .append(randomNum)
+                .append(ipHex)
+                .append(System.currentTimeMillis())
+                .append(Thread.currentThread().getId())
+                .toString();
     }
 }
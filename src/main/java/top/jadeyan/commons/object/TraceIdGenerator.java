@@ -0,0 +1,100 @@
+package top.jadeyan.commons.object;
+
+import top.jadeyan.commons.http.HostAddressCache;
+import top.jadeyan.commons.net.IpUtils;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 链路 id 生成器
+ * <p>
+ * 生成 32 位定长十六进制 id: 8 位本机 IP + 11 位毫秒时间戳 + 4 位进程随机数 + 9 位自增序列。
+ * 进程随机数在类加载时计算一次, 本机 IP 跟随 {@link HostAddressCache} 的变化更新,
+ * 每次生成只有一次原子自增, 不会创建 SecureRandom 或者遍历网卡。
+ * 同一进程内序列每 2^36 个 id 才循环一次, 多线程下不会重复。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class TraceIdGenerator {
+
+    /**
+     * id 长度
+     */
+    public static final int ID_LENGTH = 32;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final int HOST_WIDTH = 8;
+
+    private static final int MILLIS_WIDTH = 11;
+
+    private static final int PROCESS_WIDTH = 4;
+
+    private static final int SEQUENCE_WIDTH = 9;
+
+    private static volatile long host;
+
+    private static final long PROCESS = new SplittableRandom().nextInt(1 << (PROCESS_WIDTH * 4));
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(new SplittableRandom().nextLong());
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[ID_LENGTH]);
+
+    static {
+        // 先注册监听器再读取, 两者之间的地址变化不会丢失
+        HostAddressCache.addListener(snapshot -> host = resolveHost(snapshot.getLanAddress()));
+        host = resolveHost(HostAddressCache.getLanAddress());
+    }
+
+    private TraceIdGenerator() {
+    }
+
+    /**
+     * 生成 id
+     *
+     * @return 32 位十六进制 id
+     */
+    public static String nextId() {
+        char[] buffer = BUFFER.get();
+        nextId(buffer, 0);
+        return new String(buffer);
+    }
+
+    /**
+     * 生成 id 写入调用方的缓冲区, 不创建字符串
+     *
+     * @param buffer 缓冲区
+     * @param offset 开始位置, 之后需要有 {@link #ID_LENGTH} 个字符的空间
+     */
+    public static void nextId(char[] buffer, int offset) {
+        if (offset < 0 || buffer.length - offset < ID_LENGTH) {
+            throw new IllegalArgumentException("buffer too small");
+        }
+        int index = writeHex(buffer, offset, host, HOST_WIDTH);
+        index = writeHex(buffer, index, System.currentTimeMillis(), MILLIS_WIDTH);
+        index = writeHex(buffer, index, PROCESS, PROCESS_WIDTH);
+        writeHex(buffer, index, SEQUENCE.getAndIncrement(), SEQUENCE_WIDTH);
+    }
+
+    /**
+     * 按固定宽度写入低位十六进制, 高位截断
+     */
+    private static int writeHex(char[] buffer, int offset, long value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        return offset + width;
+    }
+
+    private static long resolveHost(String ip) {
+        try {
+            return ip.isEmpty() ? 0 : IpUtils.ipToLong(ip);
+        } catch (RuntimeException e) {
+            // 取不到合法的 IPv4 地址时用 0 代替, 进程随机数和序列仍然可以区分
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package top.jadeyan.commons.object;
+
+import top.jadeyan.commons.enums.EnumUtils;
+import top.jadeyan.commons.enums.ITextValueEnum;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * 属性拷贝时的类型转换
+ * <p>
+ * 支持基本类型与包装类型、数字类型之间、{@link Date}/{@link Timestamp}/{@link java.sql.Date}/{@link LocalDate}/{@link LocalDateTime}/{@link Instant} 之间,
+ * 以及 {@link ITextValueEnum} 与 int 值、文本之间的转换。日期与 {@link LocalDate} 之间按系统默认时区转换。
+ * 数字之间只做无损转换, 溢出、丢失小数或者精度时返回 {@link #SKIP}, 不设置该属性。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class TypeConverters {
+
+    /**
+     * 类型相同或者可以直接赋值, 不需要转换
+     */
+    static final Function<Object, Object> IDENTITY = value -> value;
+
+    /**
+     * 转换器返回该值时不设置属性
+     */
+    static final Object SKIP = new Object();
+
+    private TypeConverters() {
+    }
+
+    /**
+     * 查找转换器
+     *
+     * @param from 源类型
+     * @param to   目标类型
+     * @return 转换器, 输入不为 null, 输出为 {@link #SKIP} 时不设置属性; 不支持时返回 null
+     */
+    static Function<Object, Object> find(Class<?> from, Class<?> to) {
+        Class<?> source = wrap(from);
+        Class<?> target = wrap(to);
+        if (target.isAssignableFrom(source)) {
+            return IDENTITY;
+        }
+        if (Number.class.isAssignableFrom(source) && isNumber(target)) {
+            return value -> toNumber((Number) value, target);
+        }
+        if (isTemporal(source) && isTemporalTarget(target)) {
+            return value -> fromInstant(toInstant(value), target);
+        }
+        return findEnumConverter(source, target);
+    }
+
+    /**
+     * 基本类型转为包装类型
+     *
+     * @param type 类型
+     * @return 包装类型, 非基本类型原样返回
+     */
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Object, Object> findEnumConverter(Class<?> source, Class<?> target) {
+        if (ITextValueEnum.class.isAssignableFrom(source)) {
+            if (target == Integer.class) {
+                return value -> ((ITextValueEnum) value).getValue();
+            }
+            if (target == String.class) {
+                return value -> ((ITextValueEnum) value).getText();
+            }
+        }
+        if (target.isEnum() && ITextValueEnum.class.isAssignableFrom(target)) {
+            Class enumType = target;
+            if (source == Integer.class || source == Short.class || source == Byte.class) {
+                return value -> EnumUtils.getEnumNullable(enumType, ((Number) value).intValue());
+            }
+            if (source == String.class) {
+                return value -> EnumUtils.getEnumByTextValue((String) value, enumType).orElse(null);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNumber(Class<?> type) {
+        return type == Integer.class || type == Long.class || type == Double.class || type == Float.class
+                || type == Short.class || type == Byte.class || type == BigDecimal.class || type == BigInteger.class;
+    }
+
+    private static Object toNumber(Number value, Class<?> target) {
+        if (target == Double.class || target == Float.class) {
+            return toFloating(value, target);
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return fromLong(value.longValue(), target);
+        }
+        try {
+            BigDecimal decimal = toBigDecimal(value);
+            if (target == Integer.class) {
+                return decimal.intValueExact();
+            }
+            if (target == Long.class) {
+                return decimal.longValueExact();
+            }
+            if (target == Short.class) {
+                return decimal.shortValueExact();
+            }
+            if (target == Byte.class) {
+                return decimal.byteValueExact();
+            }
+            if (target == BigDecimal.class) {
+                return decimal;
+            }
+            return decimal.toBigIntegerExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            // 溢出、有小数部分, 或者 NaN、无穷大
+            return SKIP;
+        }
+    }
+
+    private static Object fromLong(long value, Class<?> target) {
+        if (target == Long.class) {
+            return value;
+        }
+        if (target == Integer.class) {
+            return (int) value == value ? (Object) (int) value : SKIP;
+        }
+        if (target == Short.class) {
+            return (short) value == value ? (Object) (short) value : SKIP;
+        }
+        if (target == Byte.class) {
+            return (byte) value == value ? (Object) (byte) value : SKIP;
+        }
+        if (target == BigDecimal.class) {
+            return BigDecimal.valueOf(value);
+        }
+        return BigInteger.valueOf(value);
+    }
+
+    /**
+     * 转为 double/float, 转换后的十进制值与原值不相等时跳过, 如超过 2^53 的 long、超出 float 范围的 double
+     */
+    private static Object toFloating(Number value, Class<?> target) {
+        Number result = target == Double.class ? (Number) value.doubleValue() : (Number) value.floatValue();
+        boolean sourceFloating = value instanceof Double || value instanceof Float;
+        if (sourceFloating && (Double.isNaN(value.doubleValue()) || Double.isInfinite(value.doubleValue()))) {
+            return result;
+        }
+        if (Double.isInfinite(result.doubleValue())) {
+            return SKIP;
+        }
+        return new BigDecimal(result.toString()).compareTo(toBigDecimal(value)) == 0 ? result : SKIP;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            // 按十进制字符串转换, 避免 new BigDecimal(0.1) 的二进制误差
+            return BigDecimal.valueOf(value.doubleValue());
+        }
+        return BigDecimal.valueOf(value.longValue());
+    }
+
+    private static boolean isTemporal(Class<?> type) {
+        return Date.class.isAssignableFrom(type) || type == LocalDate.class || type == LocalDateTime.class
+                || type == Instant.class;
+    }
+
+    private static boolean isTemporalTarget(Class<?> type) {
+        return type == Date.class || type == Timestamp.class || type == java.sql.Date.class || type == LocalDate.class
+                || type == LocalDateTime.class || type == Instant.class;
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toInstant();
+        }
+        if (value instanceof Date) {
+            // java.sql.Date 不支持 toInstant
+            return Instant.ofEpochMilli(((Date) value).getTime());
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+        }
+        return (Instant) value;
+    }
+
+    private static Object fromInstant(Instant instant, Class<?> target) {
+        if (target == Timestamp.class) {
+            return Timestamp.from(instant);
+        }
+        if (target == java.sql.Date.class) {
+            return new java.sql.Date(instant.toEpochMilli());
+        }
+        if (target == LocalDate.class) {
+            return instant.atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        if (target == LocalDateTime.class) {
+            return instant.atZone(ZoneId.systemDefault()).toLocalDateTime();
+        }
+        if (target == Instant.class) {
+            return instant;
+        }
+        return Date.from(instant);
+    }
+}
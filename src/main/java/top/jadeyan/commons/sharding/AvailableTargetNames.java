@@ -0,0 +1,71 @@
+package top.jadeyan.commons.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 可用分片表名索引
+ * <p>
+ * ShardingSphere 每次路由传入的 availableTargetNames 是同一个集合对象, 这里按对象引用缓存它的哈希索引,
+ * 裁剪路由结果时每个表名只做一次哈希查找, 不再线性扫描集合。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class AvailableTargetNames {
+
+    private final Collection<String> source;
+
+    private final int sourceSize;
+
+    private final Set<String> nameSet;
+
+    private AvailableTargetNames(Collection<String> source) {
+        this.source = source;
+        this.sourceSize = source.size();
+        this.nameSet = source instanceof Set ? (Set<String>) source : new HashSet<>(source);
+    }
+
+    /**
+     * 获取可用分片表名索引, 集合没有变化时复用已有的索引
+     *
+     * @param cached               已有索引, 可以为空
+     * @param availableTargetNames 可用分片表名
+     * @return 索引
+     */
+    static AvailableTargetNames of(AvailableTargetNames cached, Collection<String> availableTargetNames) {
+        if (cached != null && cached.source == availableTargetNames && cached.sourceSize == availableTargetNames.size()) {
+            return cached;
+        }
+        return new AvailableTargetNames(availableTargetNames);
+    }
+
+    /**
+     * 只保留存在的分片表, 全部存在时直接返回原集合
+     *
+     * @param tableNames 路由出的分片表名
+     * @return 存在的分片表名
+     */
+    List<String> retain(List<String> tableNames) {
+        int size = tableNames.size();
+        int index = 0;
+        while (index < size && nameSet.contains(tableNames.get(index))) {
+            index++;
+        }
+        if (index == size) {
+            return tableNames;
+        }
+        List<String> result = new ArrayList<>(size - 1);
+        result.addAll(tableNames.subList(0, index));
+        for (index++; index < size; index++) {
+            String tableName = tableNames.get(index);
+            if (nameSet.contains(tableName)) {
+                result.add(tableName);
+            }
+        }
+        return result;
+    }
+}
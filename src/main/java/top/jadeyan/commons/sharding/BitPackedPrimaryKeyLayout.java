@@ -0,0 +1,134 @@
+package top.jadeyan.commons.sharding;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 位压缩主键格式: 相对秒数 | 机器id | 序列号
+ * <p>
+ * 与 Baidu uid-generator 的 DefaultUidGenerator 格式一致, 时间、机器id、序列号都通过移位和掩码获取。
+ * 和 {@link UidGeneratorUtils} 的解码方式一致, 时间部分使用无符号右移, 符号位也算作时间位
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class BitPackedPrimaryKeyLayout implements PrimaryKeyLayout {
+
+    private static final int TOTAL_BITS = 64;
+
+    /**
+     * Baidu uid 格式, 与 {@link UidGeneratorUtils} 一致
+     */
+    public static final BitPackedPrimaryKeyLayout BAIDU_UID = new BitPackedPrimaryKeyLayout(
+            UidGeneratorUtils.EPOCH_SECONDS, UidGeneratorUtils.WORKER_BITS, UidGeneratorUtils.SEQ_BITS);
+
+    private final long epochSeconds;
+
+    private final int workerBits;
+
+    private final int sequenceBits;
+
+    private final int timestampShift;
+
+    private final long maxDeltaSeconds;
+
+    private final long maxWorkerId;
+
+    private final long maxSequence;
+
+    /**
+     * 构造
+     *
+     * @param epochSeconds 起始时间(秒)
+     * @param workerBits   机器id 位数
+     * @param sequenceBits 序列号位数
+     */
+    public BitPackedPrimaryKeyLayout(long epochSeconds, int workerBits, int sequenceBits) {
+        if (workerBits < 0 || sequenceBits < 0 || workerBits + sequenceBits >= TOTAL_BITS) {
+            throw new IllegalArgumentException(String.format("invalid bits, workerBits: %d, sequenceBits: %d", workerBits, sequenceBits));
+        }
+        this.epochSeconds = epochSeconds;
+        this.workerBits = workerBits;
+        this.sequenceBits = sequenceBits;
+        this.timestampShift = workerBits + sequenceBits;
+        this.maxDeltaSeconds = ~(-1L << (TOTAL_BITS - timestampShift));
+        this.maxWorkerId = ~(-1L << workerBits);
+        this.maxSequence = ~(-1L << sequenceBits);
+    }
+
+    @Override
+    public long getEpochMillis(long pk) {
+        return TimeUnit.SECONDS.toMillis(epochSeconds + (pk >>> timestampShift));
+    }
+
+    @Override
+    public long getMinPk(long epochMillis) {
+        long deltaSeconds = Math.floorDiv(epochMillis, 1000L) - epochSeconds;
+        return Math.max(deltaSeconds, 0L) << timestampShift;
+    }
+
+    /**
+     * 获取相对秒数
+     *
+     * @param pk 主键
+     * @return 相对秒数
+     */
+    public long getDeltaSeconds(long pk) {
+        return pk >>> timestampShift;
+    }
+
+    /**
+     * 获取机器id
+     *
+     * @param pk 主键
+     * @return 机器id
+     */
+    public long getWorkerId(long pk) {
+        return (pk >>> sequenceBits) & maxWorkerId;
+    }
+
+    /**
+     * 获取序列号
+     *
+     * @param pk 主键
+     * @return 序列号
+     */
+    public long getSequence(long pk) {
+        return pk & maxSequence;
+    }
+
+    /**
+     * 组装主键
+     *
+     * @param deltaSeconds 相对秒数
+     * @param workerId     机器id
+     * @param sequence     序列号
+     * @return 主键
+     */
+    public long compose(long deltaSeconds, long workerId, long sequence) {
+        return (deltaSeconds << timestampShift) | (workerId << sequenceBits) | sequence;
+    }
+
+    public long getEpochSeconds() {
+        return epochSeconds;
+    }
+
+    public int getWorkerBits() {
+        return workerBits;
+    }
+
+    public int getSequenceBits() {
+        return sequenceBits;
+    }
+
+    public long getMaxDeltaSeconds() {
+        return maxDeltaSeconds;
+    }
+
+    public long getMaxWorkerId() {
+        return maxWorkerId;
+    }
+
+    public long getMaxSequence() {
+        return maxSequence;
+    }
+}
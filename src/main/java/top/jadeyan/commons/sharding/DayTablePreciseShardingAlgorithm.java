@@ -0,0 +1,44 @@
+package top.jadeyan.commons.sharding;
+
+import org.apache.shardingsphere.api.sharding.standard.PreciseShardingAlgorithm;
+import org.apache.shardingsphere.api.sharding.standard.PreciseShardingValue;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * 日分片表精确分片逻辑
+ * <p>
+ * 表名从按纪元日下标的缓存数组中直接获取
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class DayTablePreciseShardingAlgorithm implements PreciseShardingAlgorithm<Long> {
+
+    private final PrimaryKeyLayout layout;
+
+    /**
+     * 构造, 主键为 {@link ShardingUtils} 分页id 格式
+     */
+    public DayTablePreciseShardingAlgorithm() {
+        this(DecimalWeightedPrimaryKeyLayout.PAGE_ID);
+    }
+
+    /**
+     * 构造
+     *
+     * @param layout 主键格式
+     */
+    public DayTablePreciseShardingAlgorithm(PrimaryKeyLayout layout) {
+        this.layout = Objects.requireNonNull(layout, "layout cannot be null");
+    }
+
+    @Override
+    public String doSharding(Collection<String> collection, PreciseShardingValue<Long> preciseShardingValue) {
+        long pk = preciseShardingValue.getValue();
+        String tableName = preciseShardingValue.getLogicTableName();
+        int ordinal = ShardingTableUnit.DAY.ordinalOf(layout.getEpochMillis(pk));
+        return ShardingTableNameCache.day().getTableName(tableName, ordinal);
+    }
+}
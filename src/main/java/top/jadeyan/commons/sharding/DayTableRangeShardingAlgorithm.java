@@ -0,0 +1,70 @@
+package top.jadeyan.commons.sharding;
+
+import com.google.common.collect.Range;
+import org.apache.shardingsphere.api.sharding.standard.RangeShardingAlgorithm;
+import org.apache.shardingsphere.api.sharding.standard.RangeShardingValue;
+
+import java.security.InvalidParameterException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 日分片表范围分片逻辑
+ * <p>
+ * 路由结果只保留 availableTargetNames 中实际存在的分片表
+ *
+ * @author yan
+ * @date 2026/10/18
+ **/
+public class DayTableRangeShardingAlgorithm implements RangeShardingAlgorithm<Long> {
+
+    private final PrimaryKeyLayout layout;
+
+    private volatile AvailableTargetNames availableTargetNames;
+
+    /**
+     * 构造, 主键为 {@link ShardingUtils} 分页id 格式
+     */
+    public DayTableRangeShardingAlgorithm() {
+        this(DecimalWeightedPrimaryKeyLayout.PAGE_ID);
+    }
+
+    /**
+     * 构造
+     *
+     * @param layout 主键格式
+     */
+    public DayTableRangeShardingAlgorithm(PrimaryKeyLayout layout) {
+        this.layout = Objects.requireNonNull(layout, "layout cannot be null");
+    }
+
+    @Override
+    public Collection<String> doSharding(Collection<String> collection, RangeShardingValue<Long> rangeShardingValue) {
+        String tableName = rangeShardingValue.getLogicTableName();
+        Range<Long> idRange = rangeShardingValue.getValueRange();
+        boolean hasLowerBound = idRange.hasLowerBound();
+        boolean hasUpperBound = idRange.hasUpperBound();
+        Long minPk = hasLowerBound ? idRange.lowerEndpoint() : null;
+        Long maxPk = hasUpperBound ? idRange.upperEndpoint() : null;
+        List<String> tables = getTables(tableName, minPk, maxPk);
+        if (collection == null) {
+            return tables;
+        }
+        AvailableTargetNames available = AvailableTargetNames.of(this.availableTargetNames, collection);
+        this.availableTargetNames = available;
+        return available.retain(tables);
+    }
+
+
+    private List<String> getTables(String tableName, Long minPk, Long maxPk) {
+        if (minPk == null) {
+            throw new InvalidParameterException("minPk cannot be empty!");
+        }
+
+        ShardingTableUnit unit = ShardingTableUnit.DAY;
+        long endMillis = maxPk == null ? System.currentTimeMillis() : layout.getEpochMillis(maxPk);
+        return ShardingTableNameCache.of(unit).getTableNames(tableName,
+                unit.ordinalOf(layout.getEpochMillis(minPk)), unit.ordinalOf(endMillis));
+    }
+}
@@ -0,0 +1,55 @@
+package top.jadeyan.commons.sharding;
+
+/**
+ * 十进制权重主键格式: 毫秒时间 * 权重 + 流水号
+ * <p>
+ * {@link ShardingUtils#getPageId(java.util.Date, long)} 生成的分页id 即为该格式, 权重为 1_000_000
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class DecimalWeightedPrimaryKeyLayout implements PrimaryKeyLayout {
+
+    /**
+     * ShardingUtils 分页id 格式
+     */
+    public static final DecimalWeightedPrimaryKeyLayout PAGE_ID = new DecimalWeightedPrimaryKeyLayout(1_000_000L);
+
+    private final long weight;
+
+    /**
+     * 构造
+     *
+     * @param weight 时间权重
+     */
+    public DecimalWeightedPrimaryKeyLayout(long weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+        this.weight = weight;
+    }
+
+    @Override
+    public long getEpochMillis(long pk) {
+        return pk / weight;
+    }
+
+    @Override
+    public long getMinPk(long epochMillis) {
+        return epochMillis * weight;
+    }
+
+    /**
+     * 获取主键中的流水号
+     *
+     * @param pk 主键
+     * @return 流水号
+     */
+    public long getFlowId(long pk) {
+        return pk % weight;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+}
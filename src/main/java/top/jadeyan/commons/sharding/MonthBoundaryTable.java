@@ -0,0 +1,249 @@
+package top.jadeyan.commons.sharding;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * 预先计算的月份边界表(系统默认时区)
+ * <p>
+ * 保存 1970-01 到 2261-12 每个月开始时刻的毫秒值, 日期换算只做数组查找和整数运算。
+ * 超出范围或者月内存在时区偏移变化(夏令时)时, 回退到 java.time 计算。
+ * 与 {@link java.sql.Date#toLocalDate()} 一样每次调用时读取系统默认时区, 默认时区变化后重新计算边界表。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class MonthBoundaryTable {
+
+    static final long DAY_MILLIS = 86_400_000L;
+
+    private static final int START_YEAR = 1970;
+    private static final int END_YEAR = 2261;
+    private static final int MONTHS_OF_YEAR = 12;
+    private static final int MONTH_SIZE = (END_YEAR - START_YEAR + 1) * MONTHS_OF_YEAR;
+    /**
+     * 平均每月毫秒数 (365.2425 / 12 天)
+     */
+    private static final long AVG_MONTH_MILLIS = 2_629_746_000L;
+
+    /**
+     * 当前默认时区的边界表
+     */
+    private static volatile MonthBoundaryTable current = new MonthBoundaryTable(ZoneId.systemDefault());
+
+    private final ZoneId zoneId;
+
+    /**
+     * 每月开始时刻, 多一个元素用于获取下月开始时刻
+     */
+    private final long[] monthStartMillis = new long[MONTH_SIZE + 1];
+
+    /**
+     * 每月开始时刻的时区偏移
+     */
+    private final int[] monthOffsetMillis = new int[MONTH_SIZE];
+
+    /**
+     * 月内时区偏移是否固定
+     */
+    private final boolean[] fixedOffset = new boolean[MONTH_SIZE];
+
+    private MonthBoundaryTable(ZoneId zoneId) {
+        this.zoneId = zoneId;
+        ZoneRules rules = zoneId.getRules();
+        LocalDate month = LocalDate.of(START_YEAR, 1, 1);
+        for (int i = 0; i <= MONTH_SIZE; i++) {
+            monthStartMillis[i] = month.atStartOfDay(zoneId).toInstant().toEpochMilli();
+            month = month.plusMonths(1);
+        }
+        for (int i = 0; i < MONTH_SIZE; i++) {
+            Instant monthStart = Instant.ofEpochMilli(monthStartMillis[i]);
+            monthOffsetMillis[i] = rules.getOffset(monthStart).getTotalSeconds() * 1000;
+            ZoneOffsetTransition transition = rules.nextTransition(monthStart);
+            fixedOffset[i] = transition == null || transition.toEpochSecond() * 1000 >= monthStartMillis[i + 1];
+        }
+    }
+
+    /**
+     * 获取当前默认时区的边界表
+     *
+     * @return 边界表
+     */
+    private static MonthBoundaryTable current() {
+        ZoneId zoneId = ZoneId.systemDefault();
+        MonthBoundaryTable table = current;
+        if (!table.zoneId.equals(zoneId)) {
+            table = new MonthBoundaryTable(zoneId);
+            current = table;
+        }
+        return table;
+    }
+
+    /**
+     * 获取时间所在月份的下标, 超出范围返回 -1
+     *
+     * @param epochMillis 毫秒时间
+     * @return 月份下标
+     */
+    private int indexOf(long epochMillis) {
+        if (epochMillis < monthStartMillis[0] || epochMillis >= monthStartMillis[MONTH_SIZE]) {
+            return -1;
+        }
+        int index = (int) Math.min((epochMillis - monthStartMillis[0]) / AVG_MONTH_MILLIS, MONTH_SIZE - 1L);
+        while (monthStartMillis[index] > epochMillis) {
+            index--;
+        }
+        while (monthStartMillis[index + 1] <= epochMillis) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * 获取时间所在月份的序号, 与 {@link ShardingTableUnit#MONTH} 一致
+     *
+     * @param epochMillis 毫秒时间
+     * @return 月份序号
+     */
+    static int monthOrdinalOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0) {
+            return ShardingTableUnit.MONTH.ordinalOf(table.toLocalDate(epochMillis));
+        }
+        return START_YEAR * MONTHS_OF_YEAR + index;
+    }
+
+    /**
+     * 获取时间所在年份
+     *
+     * @param epochMillis 毫秒时间
+     * @return 年份
+     */
+    static int yearOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0) {
+            return table.toLocalDate(epochMillis).getYear();
+        }
+        return START_YEAR + index / MONTHS_OF_YEAR;
+    }
+
+    /**
+     * 获取时间所在月份的开始时刻
+     *
+     * @param epochMillis 毫秒时间
+     * @return 月开始时刻
+     */
+    static long monthStartOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0) {
+            return table.toEpochMillis(table.toLocalDate(epochMillis).withDayOfMonth(1));
+        }
+        return table.monthStartMillis[index];
+    }
+
+    /**
+     * 获取时间所在月份的下个月开始时刻
+     *
+     * @param epochMillis 毫秒时间
+     * @return 下月开始时刻
+     */
+    static long nextMonthStartOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0) {
+            return table.toEpochMillis(table.toLocalDate(epochMillis).withDayOfMonth(1).plusMonths(1));
+        }
+        return table.monthStartMillis[index + 1];
+    }
+
+    /**
+     * 获取时间所在年份的开始时刻
+     *
+     * @param epochMillis 毫秒时间
+     * @return 年开始时刻
+     */
+    static long yearStartOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0) {
+            return table.toEpochMillis(table.toLocalDate(epochMillis).withDayOfYear(1));
+        }
+        return table.monthStartMillis[index - index % MONTHS_OF_YEAR];
+    }
+
+    /**
+     * 获取时间所在年份的下一年开始时刻
+     *
+     * @param epochMillis 毫秒时间
+     * @return 下一年开始时刻
+     */
+    static long nextYearStartOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0) {
+            return table.toEpochMillis(table.toLocalDate(epochMillis).withDayOfYear(1).plusYears(1));
+        }
+        return table.monthStartMillis[index - index % MONTHS_OF_YEAR + MONTHS_OF_YEAR];
+    }
+
+    /**
+     * 获取时间所在天的开始时刻
+     *
+     * @param epochMillis 毫秒时间
+     * @return 天开始时刻
+     */
+    static long dayStartOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0 || !table.fixedOffset[index]) {
+            return table.toEpochMillis(table.toLocalDate(epochMillis));
+        }
+        int offset = table.monthOffsetMillis[index];
+        return Math.floorDiv(epochMillis + offset, DAY_MILLIS) * DAY_MILLIS - offset;
+    }
+
+    /**
+     * 获取时间所在天的下一天开始时刻
+     *
+     * @param epochMillis 毫秒时间
+     * @return 下一天开始时刻
+     */
+    static long nextDayStartOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0 || !table.fixedOffset[index]) {
+            return table.toEpochMillis(table.toLocalDate(epochMillis).plusDays(1));
+        }
+        return Math.min(dayStartOf(epochMillis) + DAY_MILLIS, table.monthStartMillis[index + 1]);
+    }
+
+    /**
+     * 获取时间所在的本地纪元日(自 1970-01-01 起的天数)
+     *
+     * @param epochMillis 毫秒时间
+     * @return 纪元日
+     */
+    static long epochDayOf(long epochMillis) {
+        MonthBoundaryTable table = current();
+        int index = table.indexOf(epochMillis);
+        if (index < 0 || !table.fixedOffset[index]) {
+            return table.toLocalDate(epochMillis).toEpochDay();
+        }
+        return Math.floorDiv(epochMillis + table.monthOffsetMillis[index], DAY_MILLIS);
+    }
+
+    private LocalDate toLocalDate(long epochMillis) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zoneId).toLocalDate();
+    }
+
+    private long toEpochMillis(LocalDate date) {
+        return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+}
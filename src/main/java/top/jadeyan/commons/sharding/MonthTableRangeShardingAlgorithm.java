@@ -5,8 +5,8 @@ import org.apache.shardingsphere.api.sharding.standard.RangeShardingAlgorithm;
 import org.apache.shardingsphere.api.sharding.standard.RangeShardingValue;
 
 import java.security.InvalidParameterException;
-import java.sql.Date;
 import java.util.Collection;
+import java.util.Objects;
 
 /**
  * 月分片表范围分片逻辑
@@ -16,6 +16,24 @@ import java.util.Collection;
  **/
 public class MonthTableRangeShardingAlgorithm implements RangeShardingAlgorithm<Long> {
 
+    private final PrimaryKeyLayout layout;
+
+    /**
+     * 构造, 主键为 {@link ShardingUtils} 分页id 格式
+     */
+    public MonthTableRangeShardingAlgorithm() {
+        this(DecimalWeightedPrimaryKeyLayout.PAGE_ID);
+    }
+
+    /**
+     * 构造
+     *
+     * @param layout 主键格式
+     */
+    public MonthTableRangeShardingAlgorithm(PrimaryKeyLayout layout) {
+        this.layout = Objects.requireNonNull(layout, "layout cannot be null");
+    }
+
     @Override
     public Collection<String> doSharding(Collection<String> collection, RangeShardingValue<Long> rangeShardingValue) {
         String tableName = rangeShardingValue.getLogicTableName();
@@ -33,8 +51,9 @@ public class MonthTableRangeShardingAlgorithm implements RangeShardingAlgorithm<
             throw new InvalidParameterException("minPk cannot be empty!");
         }
 
-        Date startDate = ShardingUtils.getPkDate(minPk);
-        Date endDate = maxPk == null ? new Date(System.currentTimeMillis()) : ShardingUtils.getPkDate(maxPk);
-        return ShardingUtils.getMonthShardingTableNames(tableName, startDate, endDate);
+        ShardingTableUnit unit = ShardingTableUnit.MONTH;
+        long endMillis = maxPk == null ? System.currentTimeMillis() : layout.getEpochMillis(maxPk);
+        return ShardingTableNameCache.of(unit).getTableNames(tableName,
+                unit.ordinalOf(layout.getEpochMillis(minPk)), unit.ordinalOf(endMillis));
     }
 }
@@ -0,0 +1,38 @@
+package top.jadeyan.commons.sharding;
+
+/**
+ * 分片主键编码格式
+ * <p>
+ * 描述主键中时间部分的编码方式, 分片算法只依赖时间部分进行路由
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public interface PrimaryKeyLayout {
+
+    /**
+     * 获取主键中的毫秒时间
+     *
+     * @param pk 主键
+     * @return 毫秒时间
+     */
+    long getEpochMillis(long pk);
+
+    /**
+     * 获取不早于该时间的最小主键
+     *
+     * @param epochMillis 毫秒时间
+     * @return 最小主键
+     */
+    long getMinPk(long epochMillis);
+
+    /**
+     * 获取早于该时间的最大主键
+     *
+     * @param epochMillis 毫秒时间
+     * @return 最大主键
+     */
+    default long getMaxPkBefore(long epochMillis) {
+        return getMinPk(epochMillis) - 1;
+    }
+}
@@ -0,0 +1,275 @@
+package top.jadeyan.commons.sharding;
+
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+import top.jadeyan.commons.skywalking.SwExecutors;
+import top.jadeyan.commons.skywalking.SwThreadPoolWorker;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 按月/年分片表的主键游标分页迭代器
+ * <p>
+ * 从开始主键之后(pk &gt; startPk)逐页读取, 每页只查询一张分片表: 当前表不足一页时跳到下一张表,
+ * 直到超过当前月/年或者结束主键。返回当前页的同时异步预取下一页, 处理数据和查询数据库可以重叠。
+ * <pre>
+ * try (Stream&lt;Quote&gt; stream = ShardingKeysetIterator.of(startPk, 1000, quoteMapper::listByPk, Quote::getId).stream()) {
+ *     stream.forEach(this::sync);
+ * }
+ * </pre>
+ *
+ * @param <T> 数据类型
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class ShardingKeysetIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final long startPk;
+
+    private final int pageSize;
+
+    private final PageFetcher<T> pageFetcher;
+
+    private final ToLongFunction<? super T> pkFunction;
+
+    private ShardingTableUnit unit = ShardingTableUnit.MONTH;
+
+    private long endPk = Long.MAX_VALUE;
+
+    private ExecutorService executorService = SwExecutors.io();
+
+    private SwThreadPoolWorker<List<T>> worker;
+
+    private PageRequest pendingRequest;
+
+    private CompletableFuture<List<T>> pendingPage;
+
+    private Iterator<T> currentPage = Collections.emptyIterator();
+
+    private ShardingKeysetIterator(long startPk, int pageSize, PageFetcher<T> pageFetcher, ToLongFunction<? super T> pkFunction) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        this.startPk = startPk;
+        this.pageSize = pageSize;
+        this.pageFetcher = Objects.requireNonNull(pageFetcher, "pageFetcher cannot be null");
+        this.pkFunction = Objects.requireNonNull(pkFunction, "pkFunction cannot be null");
+    }
+
+    /**
+     * 创建迭代器, 默认按月分片, 一直读到当前月
+     *
+     * @param startPk     开始主键(不包含)
+     * @param pageSize    每页条数
+     * @param pageFetcher 单表分页查询
+     * @param pkFunction  获取主键
+     * @param <T>         数据类型
+     * @return 迭代器
+     */
+    public static <T> ShardingKeysetIterator<T> of(long startPk, int pageSize, PageFetcher<T> pageFetcher,
+                                                   ToLongFunction<? super T> pkFunction) {
+        return new ShardingKeysetIterator<>(startPk, pageSize, pageFetcher, pkFunction);
+    }
+
+    /**
+     * 设置分片单位, 只支持月和年
+     *
+     * @param unit 分片单位
+     * @return 当前对象
+     */
+    public ShardingKeysetIterator<T> unit(ShardingTableUnit unit) {
+        if (unit != ShardingTableUnit.MONTH && unit != ShardingTableUnit.YEAR) {
+            throw new IllegalArgumentException("unsupported sharding unit: " + unit);
+        }
+        checkNotStarted();
+        this.unit = unit;
+        return this;
+    }
+
+    /**
+     * 设置结束主键(包含)
+     *
+     * @param endPk 结束主键
+     * @return 当前对象
+     */
+    public ShardingKeysetIterator<T> endPk(long endPk) {
+        checkNotStarted();
+        this.endPk = endPk;
+        return this;
+    }
+
+    /**
+     * 设置预取下一页的线程池
+     * <p>
+     * 预取只查询不阻塞, 线程池饱和后被退回当前线程执行(CALLER_RUNS)时只是变为同步查询, 不会死锁。
+     *
+     * @param executorService 线程池
+     * @return 当前对象
+     */
+    public ShardingKeysetIterator<T> executor(ExecutorService executorService) {
+        checkNotStarted();
+        this.executorService = Objects.requireNonNull(executorService, "executorService cannot be null");
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentPage.hasNext()) {
+            if (!loadNextPage()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.next();
+    }
+
+    /**
+     * 转换为顺序流, 关闭流时取消预取
+     *
+     * @return 流
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * 取消正在预取的页
+     */
+    @Override
+    public void close() {
+        if (pendingPage != null) {
+            pendingPage.cancel(true);
+            pendingPage = null;
+        }
+        currentPage = Collections.emptyIterator();
+    }
+
+    private boolean loadNextPage() {
+        if (worker == null) {
+            worker = SwThreadPoolWorker.of(executorService);
+            PageRequest firstRequest = firstRequest();
+            if (firstRequest != null) {
+                submit(firstRequest);
+            }
+        }
+        if (pendingPage == null) {
+            return false;
+        }
+        List<T> rows;
+        try {
+            rows = pendingPage.join();
+        } catch (CompletionException e) {
+            close();
+            throw new ThreadRuntimeException("fetch sharding page error", e.getCause());
+        }
+        rows = rows == null ? Collections.emptyList() : rows;
+        PageRequest request = pendingRequest;
+        pendingPage = null;
+        PageRequest nextRequest = rows.size() >= pageSize
+                ? new PageRequest(pkFunction.applyAsLong(rows.get(rows.size() - 1)), request.maxPk)
+                : nextShardRequest(request.maxPk);
+        if (nextRequest != null) {
+            // 处理当前页的同时预取下一页
+            submit(nextRequest);
+        }
+        currentPage = rows.iterator();
+        return true;
+    }
+
+    private void submit(PageRequest request) {
+        pendingRequest = request;
+        Supplier<List<T>> fetchPage = () -> pageFetcher.fetch(request.afterPk, request.maxPk, pageSize);
+        pendingPage = worker.submit(fetchPage);
+    }
+
+    private PageRequest firstRequest() {
+        if (startPk >= endPk) {
+            return null;
+        }
+        long firstPk = startPk + 1;
+        if (isMaxShard(firstPk)) {
+            return null;
+        }
+        return new PageRequest(startPk, Math.min(currentShardMaxPk(firstPk), endPk));
+    }
+
+    private PageRequest nextShardRequest(long shardMaxPk) {
+        if (shardMaxPk >= endPk) {
+            return null;
+        }
+        long nextShardMinPk = shardMaxPk + 1;
+        if (isMaxShard(nextShardMinPk)) {
+            return null;
+        }
+        return new PageRequest(shardMaxPk, Math.min(currentShardMaxPk(nextShardMinPk), endPk));
+    }
+
+    private long currentShardMaxPk(long pk) {
+        return unit == ShardingTableUnit.YEAR ? ShardingUtils.getCurrentYearMaxPkFast(pk) : ShardingUtils.getCurrentMonthMaxPkFast(pk);
+    }
+
+    private boolean isMaxShard(long pk) {
+        return unit == ShardingTableUnit.YEAR ? ShardingUtils.isMaxYearFast(pk) : ShardingUtils.isMaxMonthFast(pk);
+    }
+
+    private void checkNotStarted() {
+        if (worker != null) {
+            throw new IllegalStateException("iterator already started");
+        }
+    }
+
+    /**
+     * 单表分页查询
+     *
+     * @param <T> 数据类型
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+
+        /**
+         * 查询同一张分片表内 afterPk &lt; pk &lt;= maxPk 的数据, 按主键升序, 最多 pageSize 条
+         *
+         * @param afterPk  上一页最后的主键(不包含)
+         * @param maxPk    当前分片表的最大主键(包含)
+         * @param pageSize 每页条数
+         * @return 数据
+         */
+        List<T> fetch(long afterPk, long maxPk, int pageSize);
+    }
+
+    /**
+     * 分页查询条件
+     */
+    private static final class PageRequest {
+
+        private final long afterPk;
+
+        private final long maxPk;
+
+        private PageRequest(long afterPk, long maxPk) {
+            this.afterPk = afterPk;
+            this.maxPk = maxPk;
+        }
+    }
+}
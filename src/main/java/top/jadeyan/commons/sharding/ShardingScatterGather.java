@@ -0,0 +1,233 @@
+package top.jadeyan.commons.sharding;
+
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+import top.jadeyan.commons.skywalking.SwExecutors;
+import top.jadeyan.commons.skywalking.SwThreadPoolWorker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 分片表并行查询合并
+ * <p>
+ * 对范围分片路由出的分片表并行查询, 按主键多路归并。分片表按时间排序, 前面的表已经凑够一页时不再查询后面的表。
+ * 每个查询都通过 {@link SwThreadPoolWorker} 提交, skywalking 链路可以传递到查询线程。
+ *
+ * @param <T> 查询结果类型
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class ShardingScatterGather<T> {
+
+    private final List<String> tableNames;
+
+    private final Function<String, List<T>> queryFunction;
+
+    private ExecutorService executorService = SwExecutors.io();
+
+    private int maxConcurrency = Runtime.getRuntime().availableProcessors();
+
+    private ToLongFunction<? super T> pkFunction;
+
+    private boolean asc = true;
+
+    private int limit = Integer.MAX_VALUE;
+
+    private ShardingScatterGather(List<String> tableNames, Function<String, List<T>> queryFunction) {
+        this.tableNames = new ArrayList<>(tableNames);
+        this.queryFunction = Objects.requireNonNull(queryFunction, "queryFunction cannot be null");
+    }
+
+    /**
+     * 创建对象
+     *
+     * @param tableNames    按时间排序的分片表名, 与结果排序方向一致
+     * @param queryFunction 单表查询, 参数为分片表名, 返回按主键排序的数据
+     * @param <T>           查询结果类型
+     * @return 对象
+     */
+    public static <T> ShardingScatterGather<T> of(List<String> tableNames, Function<String, List<T>> queryFunction) {
+        return new ShardingScatterGather<>(tableNames, queryFunction);
+    }
+
+    /**
+     * 设置执行查询的线程池
+     *
+     * @param executorService 线程池
+     * @return 当前对象
+     */
+    public ShardingScatterGather<T> executor(ExecutorService executorService) {
+        this.executorService = Objects.requireNonNull(executorService, "executorService cannot be null");
+        return this;
+    }
+
+    /**
+     * 设置同时执行的查询数量
+     *
+     * @param maxConcurrency 最大并发数
+     * @return 当前对象
+     */
+    public ShardingScatterGather<T> maxConcurrency(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * 设置归并的主键
+     *
+     * @param pkFunction 获取主键
+     * @param asc        是否升序
+     * @return 当前对象
+     */
+    public ShardingScatterGather<T> orderBy(ToLongFunction<? super T> pkFunction, boolean asc) {
+        this.pkFunction = Objects.requireNonNull(pkFunction, "pkFunction cannot be null");
+        this.asc = asc;
+        return this;
+    }
+
+    /**
+     * 设置返回的最大条数, 前面的表已经凑够时不再查询后面的表
+     *
+     * @param limit 最大条数
+     * @return 当前对象
+     */
+    public ShardingScatterGather<T> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit cannot be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * 执行查询
+     *
+     * @return 归并后的数据
+     */
+    public List<T> execute() {
+        if (tableNames.isEmpty() || limit == 0) {
+            return Collections.emptyList();
+        }
+        List<List<T>> results = fetch();
+        return merge(results);
+    }
+
+    private List<List<T>> fetch() {
+        SwThreadPoolWorker<List<T>> worker = SwThreadPoolWorker.of(executorService);
+        int tableSize = tableNames.size();
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(tableSize);
+        List<List<T>> results = new ArrayList<>(tableSize);
+        int submitted = 0;
+        try {
+            for (; submitted < Math.min(maxConcurrency, tableSize); submitted++) {
+                futures.add(worker.submit(tableNames.get(submitted), queryFunction));
+            }
+            long fetchedSize = 0;
+            for (int i = 0; i < tableSize; i++) {
+                List<T> rows = futures.get(i).join();
+                rows = rows == null ? Collections.emptyList() : rows;
+                results.add(rows);
+                fetchedSize += rows.size();
+                if (fetchedSize >= limit) {
+                    break;
+                }
+                if (submitted < tableSize) {
+                    futures.add(worker.submit(tableNames.get(submitted), queryFunction));
+                    submitted++;
+                }
+            }
+        } catch (CompletionException e) {
+            throw new ThreadRuntimeException("scatter gather query error", e.getCause());
+        } finally {
+            // 已经凑够或者出错, 取消还没有用到的查询
+            for (int i = results.size(); i < futures.size(); i++) {
+                futures.get(i).cancel(true);
+            }
+        }
+        return results;
+    }
+
+    private List<T> merge(List<List<T>> results) {
+        int totalSize = 0;
+        for (List<T> rows : results) {
+            totalSize += rows.size();
+        }
+        int resultSize = Math.min(totalSize, limit);
+        List<T> merged = new ArrayList<>(resultSize);
+        if (pkFunction == null || results.size() == 1) {
+            // 不需要归并时按表顺序拼接
+            for (List<T> rows : results) {
+                for (int i = 0; i < rows.size() && merged.size() < resultSize; i++) {
+                    merged.add(rows.get(i));
+                }
+            }
+            return merged;
+        }
+        PriorityQueue<MergeCursor<T>> queue = new PriorityQueue<>(results.size());
+        for (List<T> rows : results) {
+            if (!rows.isEmpty()) {
+                queue.add(new MergeCursor<>(rows, pkFunction, asc));
+            }
+        }
+        while (merged.size() < resultSize) {
+            MergeCursor<T> cursor = queue.poll();
+            merged.add(cursor.current());
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 单表结果的归并游标
+     */
+    private static final class MergeCursor<T> implements Comparable<MergeCursor<T>> {
+
+        private final List<T> rows;
+
+        private final ToLongFunction<? super T> pkFunction;
+
+        private final boolean asc;
+
+        private int index;
+
+        private long pk;
+
+        MergeCursor(List<T> rows, ToLongFunction<? super T> pkFunction, boolean asc) {
+            this.rows = rows;
+            this.pkFunction = pkFunction;
+            this.asc = asc;
+            this.pk = pkFunction.applyAsLong(rows.get(0));
+        }
+
+        T current() {
+            return rows.get(index);
+        }
+
+        boolean next() {
+            index++;
+            if (index >= rows.size()) {
+                return false;
+            }
+            pk = pkFunction.applyAsLong(rows.get(index));
+            return true;
+        }
+
+        @Override
+        public int compareTo(MergeCursor<T> other) {
+            return asc ? Long.compare(pk, other.pk) : Long.compare(other.pk, pk);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package top.jadeyan.commons.sharding;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分片表名缓存
+ * <p>
+ * 按 逻辑表名 + 序号 缓存驻留(intern)后的分片表名, 范围路由时直接返回切片视图, 不再逐个格式化表名。
+ * 每个逻辑表缓存的表数量有上限, 进入新的日/月/年时窗口自动向后滚动。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class ShardingTableNameCache {
+
+    private static final int MAX_LOGIC_TABLE_SIZE = 512;
+
+    private static final Map<ShardingTableUnit, ShardingTableNameCache> CACHE_MAP = new EnumMap<>(ShardingTableUnit.class);
+
+    static {
+        for (ShardingTableUnit unit : ShardingTableUnit.values()) {
+            CACHE_MAP.put(unit, new ShardingTableNameCache(unit));
+        }
+    }
+
+    private final ShardingTableUnit unit;
+
+    private final Map<String, TableNameSegment> segmentMap = new ConcurrentHashMap<>();
+
+    /**
+     * 当前时间所在的序号
+     */
+    private volatile int currentOrdinal;
+
+    /**
+     * 下一次滚动窗口的时间点(毫秒)
+     */
+    private volatile long rolloverMillis;
+
+    private ShardingTableNameCache(ShardingTableUnit unit) {
+        this.unit = unit;
+        resetCurrentOrdinal(System.currentTimeMillis());
+    }
+
+    /**
+     * 获取分片单位对应的缓存
+     *
+     * @param unit 分片单位
+     * @return 缓存
+     */
+    public static ShardingTableNameCache of(ShardingTableUnit unit) {
+        return CACHE_MAP.get(Objects.requireNonNull(unit, "unit cannot be null"));
+    }
+
+    /**
+     * 获取月分片表名缓存
+     *
+     * @return 缓存
+     */
+    public static ShardingTableNameCache month() {
+        return of(ShardingTableUnit.MONTH);
+    }
+
+    /**
+     * 获取年分片表名缓存
+     *
+     * @return 缓存
+     */
+    public static ShardingTableNameCache year() {
+        return of(ShardingTableUnit.YEAR);
+    }
+
+    /**
+     * 获取日分片表名缓存
+     *
+     * @return 缓存
+     */
+    public static ShardingTableNameCache day() {
+        return of(ShardingTableUnit.DAY);
+    }
+
+    /**
+     * 获取单个分片表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param ordinal        序号
+     * @return 分片表名
+     */
+    public String getTableName(String logicTableName, int ordinal) {
+        checkRollover();
+        TableNameSegment segment = segmentMap.get(logicTableName);
+        if (segment != null && segment.covers(ordinal, ordinal)) {
+            return segment.tableNames[ordinal - segment.firstOrdinal];
+        }
+        return getTableNames(logicTableName, ordinal, ordinal).get(0);
+    }
+
+    /**
+     * 获取序号区间内的分片表名(包含首尾), 返回只读视图; 开始序号大于结束序号时返回空集合
+     *
+     * @param logicTableName 逻辑表名
+     * @param startOrdinal   开始序号
+     * @param endOrdinal     结束序号
+     * @return 分片表名
+     */
+    public List<String> getTableNames(String logicTableName, int startOrdinal, int endOrdinal) {
+        if (startOrdinal > endOrdinal) {
+            return Collections.emptyList();
+        }
+        checkRollover();
+        TableNameSegment segment = segmentMap.get(logicTableName);
+        if (segment != null && segment.covers(startOrdinal, endOrdinal)) {
+            return segment.slice(startOrdinal, endOrdinal);
+        }
+        int upperOrdinal = Math.max(endOrdinal, currentOrdinal + unit.getLookahead());
+        if (upperOrdinal - startOrdinal + 1 > unit.getMaxCachedSize()
+                || (segment == null && segmentMap.size() >= MAX_LOGIC_TABLE_SIZE)) {
+            // 超出缓存上限, 直接生成不缓存
+            return TableNameSegment.build(unit, logicTableName, startOrdinal, endOrdinal).slice(startOrdinal, endOrdinal);
+        }
+        TableNameSegment merged = segmentMap.compute(logicTableName, (key, old) -> {
+            if (old != null && old.covers(startOrdinal, endOrdinal)) {
+                return old;
+            }
+            int lower = old == null ? startOrdinal : Math.min(startOrdinal, old.firstOrdinal);
+            int upper = old == null ? upperOrdinal : Math.max(upperOrdinal, old.lastOrdinal());
+            if (upper - lower + 1 > unit.getMaxCachedSize()) {
+                // 合并后超过上限时丢弃旧的窗口
+                lower = startOrdinal;
+                upper = upperOrdinal;
+            }
+            return TableNameSegment.build(unit, key, lower, upper);
+        });
+        return merged.slice(startOrdinal, endOrdinal);
+    }
+
+    /**
+     * 当前缓存的逻辑表数量
+     *
+     * @return 逻辑表数量
+     */
+    public int size() {
+        return segmentMap.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        segmentMap.clear();
+    }
+
+    private void checkRollover() {
+        long now = System.currentTimeMillis();
+        if (now < rolloverMillis) {
+            return;
+        }
+        synchronized (this) {
+            if (now < rolloverMillis) {
+                return;
+            }
+            resetCurrentOrdinal(now);
+            int upper = currentOrdinal + unit.getLookahead();
+            segmentMap.replaceAll((key, segment) -> {
+                if (segment.lastOrdinal() >= upper) {
+                    return segment;
+                }
+                int lower = Math.max(segment.firstOrdinal, upper - unit.getMaxCachedSize() + 1);
+                return TableNameSegment.build(unit, key, lower, upper);
+            });
+        }
+    }
+
+    private void resetCurrentOrdinal(long now) {
+        ZoneId zoneId = ZoneId.systemDefault();
+        LocalDate today = Instant.ofEpochMilli(now).atZone(zoneId).toLocalDate();
+        int ordinal = unit.ordinalOf(today);
+        this.currentOrdinal = ordinal;
+        this.rolloverMillis = unit.startOf(ordinal + 1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 连续序号的分片表名
+     */
+    private static final class TableNameSegment {
+
+        private final int firstOrdinal;
+
+        private final String[] tableNames;
+
+        private TableNameSegment(int firstOrdinal, String[] tableNames) {
+            this.firstOrdinal = firstOrdinal;
+            this.tableNames = tableNames;
+        }
+
+        static TableNameSegment build(ShardingTableUnit unit, String logicTableName, int firstOrdinal, int lastOrdinal) {
+            String[] tableNames = new String[lastOrdinal - firstOrdinal + 1];
+            for (int i = 0; i < tableNames.length; i++) {
+                tableNames[i] = unit.formatTableName(logicTableName, firstOrdinal + i).intern();
+            }
+            return new TableNameSegment(firstOrdinal, tableNames);
+        }
+
+        int lastOrdinal() {
+            return firstOrdinal + tableNames.length - 1;
+        }
+
+        boolean covers(int startOrdinal, int endOrdinal) {
+            return startOrdinal >= firstOrdinal && endOrdinal <= lastOrdinal();
+        }
+
+        List<String> slice(int startOrdinal, int endOrdinal) {
+            return new TableNameSlice(tableNames, startOrdinal - firstOrdinal, endOrdinal - startOrdinal + 1);
+        }
+    }
+
+    /**
+     * 分片表名数组的只读切片
+     */
+    private static final class TableNameSlice extends AbstractList<String> implements RandomAccess {
+
+        private final String[] tableNames;
+
+        private final int offset;
+
+        private final int size;
+
+        private TableNameSlice(String[] tableNames, int offset, int size) {
+            this.tableNames = tableNames;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+            }
+            return tableNames[offset + index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package top.jadeyan.commons.sharding;
+
+import java.time.LocalDate;
+
+/**
+ * 分片表时间单位
+ * <p>
+ * 每个单位把日期映射成一个连续的整数序号(ordinal), 相邻的分片表序号相差 1
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public enum ShardingTableUnit {
+
+    /**
+     * 按月分片, 序号 = year * 12 + (month - 1), 表名 logic_yyyy_MM
+     */
+    MONTH(12 * 30, 1) {
+        @Override
+        public int ordinalOf(LocalDate date) {
+            return date.getYear() * MONTHS_OF_YEAR + date.getMonthValue() - 1;
+        }
+
+        @Override
+        public int ordinalOf(long epochMillis) {
+            return MonthBoundaryTable.monthOrdinalOf(epochMillis);
+        }
+
+        @Override
+        public LocalDate startOf(int ordinal) {
+            return LocalDate.of(Math.floorDiv(ordinal, MONTHS_OF_YEAR), Math.floorMod(ordinal, MONTHS_OF_YEAR) + 1, 1);
+        }
+
+        @Override
+        public String formatTableName(String logicTableName, int ordinal) {
+            return String.format("%s_%d_%02d", logicTableName,
+                    Math.floorDiv(ordinal, MONTHS_OF_YEAR), Math.floorMod(ordinal, MONTHS_OF_YEAR) + 1);
+        }
+    },
+
+    /**
+     * 按年分片, 序号 = year, 表名 logic_yyyy
+     */
+    YEAR(100, 1) {
+        @Override
+        public int ordinalOf(LocalDate date) {
+            return date.getYear();
+        }
+
+        @Override
+        public int ordinalOf(long epochMillis) {
+            return MonthBoundaryTable.yearOf(epochMillis);
+        }
+
+        @Override
+        public LocalDate startOf(int ordinal) {
+            return LocalDate.of(ordinal, 1, 1);
+        }
+
+        @Override
+        public String formatTableName(String logicTableName, int ordinal) {
+            return String.format("%s_%d", logicTableName, ordinal);
+        }
+    },
+
+    /**
+     * 按日分片, 序号 = 纪元日(自 1970-01-01 起的天数), 表名 logic_yyyy_MM_dd
+     */
+    DAY(366 * 3, 1) {
+        @Override
+        public int ordinalOf(LocalDate date) {
+            return Math.toIntExact(date.toEpochDay());
+        }
+
+        @Override
+        public int ordinalOf(long epochMillis) {
+            return Math.toIntExact(MonthBoundaryTable.epochDayOf(epochMillis));
+        }
+
+        @Override
+        public LocalDate startOf(int ordinal) {
+            return LocalDate.ofEpochDay(ordinal);
+        }
+
+        @Override
+        public String formatTableName(String logicTableName, int ordinal) {
+            LocalDate date = LocalDate.ofEpochDay(ordinal);
+            return String.format("%s_%d_%02d_%02d", logicTableName, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        }
+    };
+
+    private static final int MONTHS_OF_YEAR = 12;
+
+    /**
+     * 单个逻辑表最多缓存的分片表数量
+     */
+    private final int maxCachedSize;
+
+    /**
+     * 预先生成的未来分片表数量
+     */
+    private final int lookahead;
+
+    ShardingTableUnit(int maxCachedSize, int lookahead) {
+        this.maxCachedSize = maxCachedSize;
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * 获取日期对应的序号
+     *
+     * @param date 日期
+     * @return 序号
+     */
+    public abstract int ordinalOf(LocalDate date);
+
+    /**
+     * 获取毫秒时间(系统默认时区)对应的序号
+     *
+     * @param epochMillis 毫秒时间
+     * @return 序号
+     */
+    public abstract int ordinalOf(long epochMillis);
+
+    /**
+     * 获取序号对应分片的开始日期
+     *
+     * @param ordinal 序号
+     * @return 开始日期
+     */
+    public abstract LocalDate startOf(int ordinal);
+
+    /**
+     * 格式化分片表名
+     *
+     * @param logicTableName 逻辑表名
+     * @param ordinal        序号
+     * @return 分片表名
+     */
+    public abstract String formatTableName(String logicTableName, int ordinal);
+
+    public int getMaxCachedSize() {
+        return maxCachedSize;
+    }
+
+    public int getLookahead() {
+        return lookahead;
+    }
+}
@@ -21,6 +21,7 @@ public final class ShardingUtils {
     private static final Integer MONTHS_OF_YEAR = 12;
     private static final Integer YEAR_MONTH_WIGHT = 100;
     private static final long YIELD_PRICE_SUB_VALUE = 1000;
+    private static final long MILLIS_OF_SECOND = 1000;
 
 
     private ShardingUtils() {
@@ -408,6 +409,205 @@ public final class ShardingUtils {
 
     /// endregion
 
+    /// region primitive pk
+    // 以下为原始类型版本, 直接基于 pk 的毫秒值和预先计算的月份边界表运算, 不装箱也不创建日期对象。
+    // 与包装类型或 Date 版本同名的方法加 Fast 后缀, 避免传入 long 的调用方被静默绑定到另一个实现
+
+    /**
+     * 获取分页id
+     *
+     * @param epochMillis 发布时间毫秒值
+     * @param flowId      流水号
+     * @return 分页id
+     */
+    public static long getPageId(long epochMillis, long flowId) {
+        return epochMillis * DATE_PAGE_WIGHT + flowId;
+    }
+
+    /**
+     * 获取分片主键的毫秒时间
+     *
+     * @param pk 主键
+     * @return 毫秒时间
+     */
+    public static long getPkMillis(long pk) {
+        return pk / DATE_PAGE_WIGHT;
+    }
+
+    /**
+     * 利用pageid 还原 flowid
+     *
+     * @param pageId 分页id
+     * @return 流水id
+     */
+    public static long getFlowIdFast(long pageId) {
+        return pageId - getPkMillis(pageId) * DATE_PAGE_WIGHT;
+    }
+
+    /**
+     * 获取分片值
+     *
+     * @param epochMillis 毫秒时间
+     * @return 分片值
+     */
+    public static long getPkValue(long epochMillis) {
+        return epochMillis * DATE_PAGE_WIGHT;
+    }
+
+    /**
+     * 获取某天最小PK
+     *
+     * @param epochMillis 毫秒时间
+     * @return 最小PK
+     */
+    public static long getMinPkOfDate(long epochMillis) {
+        return MonthBoundaryTable.dayStartOf(epochMillis) * DATE_PAGE_WIGHT;
+    }
+
+    /**
+     * 获取某天最大PK
+     *
+     * @param epochMillis 毫秒时间
+     * @return 最大PK
+     */
+    public static long getMaxPkOfDate(long epochMillis) {
+        return MonthBoundaryTable.nextDayStartOf(epochMillis) * DATE_PAGE_WIGHT - 1;
+    }
+
+    /**
+     * 获取这一秒的最小PK
+     *
+     * @param epochMillis 毫秒时间
+     * @return 这一秒最小pk
+     */
+    public static long getMinPkOfSecond(long epochMillis) {
+        return epochMillis * DATE_PAGE_WIGHT;
+    }
+
+    /**
+     * 获取这一秒最大pk
+     *
+     * @param epochMillis 毫秒时间
+     * @return 这一秒最大pk
+     */
+    public static long getMaxPkOfSecond(long epochMillis) {
+        return (epochMillis + MILLIS_OF_SECOND) * DATE_PAGE_WIGHT - 1;
+    }
+
+    /**
+     * 获取pk 所在月份的序号(year * 12 + month - 1), 与 {@link ShardingTableUnit#MONTH} 一致
+     *
+     * @param pk 主键
+     * @return 月份序号
+     */
+    public static int getMonthOrdinal(long pk) {
+        return MonthBoundaryTable.monthOrdinalOf(getPkMillis(pk));
+    }
+
+    /**
+     * 获取pk 所在年份
+     *
+     * @param pk 主键
+     * @return 年份
+     */
+    public static int getYear(long pk) {
+        return MonthBoundaryTable.yearOf(getPkMillis(pk));
+    }
+
+    /**
+     * 判断两个时间是否是同年同月
+     *
+     * @param epochMillis1 毫秒时间1
+     * @param epochMillis2 毫秒时间2
+     * @return 两个时间是否是同年同月
+     */
+    public static boolean isSameYearMonth(long epochMillis1, long epochMillis2) {
+        return MonthBoundaryTable.monthOrdinalOf(epochMillis1) == MonthBoundaryTable.monthOrdinalOf(epochMillis2);
+    }
+
+    /**
+     * 获取pk 同月最小值
+     *
+     * @param pk 主键
+     * @return 同月最小值pk
+     */
+    public static long getCurrentMonthMinPkFast(long pk) {
+        return MonthBoundaryTable.monthStartOf(getPkMillis(pk)) * DATE_PAGE_WIGHT;
+    }
+
+    /**
+     * 获取pk 同月最大值
+     *
+     * @param pk 主键
+     * @return 最大同月的pk
+     */
+    public static long getCurrentMonthMaxPkFast(long pk) {
+        return getNextMonthMinPkFast(pk) - 1;
+    }
+
+    /**
+     * 获取pk 下月最小值
+     *
+     * @param pk 主键
+     * @return 最小下个月pk
+     */
+    public static long getNextMonthMinPkFast(long pk) {
+        return MonthBoundaryTable.nextMonthStartOf(getPkMillis(pk)) * DATE_PAGE_WIGHT;
+    }
+
+    /**
+     * 是否已经是最大的月份表
+     *
+     * @param startPk 开始分片主键
+     * @return 是否已经是最大的月份表
+     */
+    public static boolean isMaxMonthFast(long startPk) {
+        return getMonthOrdinal(startPk) > MonthBoundaryTable.monthOrdinalOf(System.currentTimeMillis());
+    }
+
+    /**
+     * 获取pk 同年最大值
+     *
+     * @param pk 主键
+     * @return 最大同年的pk
+     */
+    public static long getCurrentYearMaxPkFast(long pk) {
+        return getNextYearMinPkFast(pk) - 1;
+    }
+
+    /**
+     * 获取pk 下一年最小值
+     *
+     * @param pk 主键
+     * @return 最小下一年pk
+     */
+    public static long getNextYearMinPkFast(long pk) {
+        return MonthBoundaryTable.nextYearStartOf(getPkMillis(pk)) * DATE_PAGE_WIGHT;
+    }
+
+    /**
+     * 是否已经是最大的年份表
+     *
+     * @param startPk 开始分片主键
+     * @return 是否已经是最大的年份表
+     */
+    public static boolean isMaxYearFast(long startPk) {
+        return getYear(startPk) > MonthBoundaryTable.yearOf(System.currentTimeMillis());
+    }
+
+    /**
+     * 比较开始pk和当月最小的pk大小
+     *
+     * @param currentMillis 当前时间毫秒值
+     * @param startPk       开始pk
+     * @return 最大值pk
+     */
+    public static long getMaxPk(long currentMillis, long startPk) {
+        return Math.max(MonthBoundaryTable.monthStartOf(currentMillis) * DATE_PAGE_WIGHT, startPk);
+    }
+
+    /// endregion
+
     /**
      * get value of date format(yyyyMM)
      *
@@ -0,0 +1,17 @@
+package top.jadeyan.commons.sharding;
+
+/**
+ * 日分片表精确分片逻辑 (主键为 Baidu uid)
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class UidDayTablePreciseShardingAlgorithm extends DayTablePreciseShardingAlgorithm {
+
+    /**
+     * 构造
+     */
+    public UidDayTablePreciseShardingAlgorithm() {
+        super(BitPackedPrimaryKeyLayout.BAIDU_UID);
+    }
+}
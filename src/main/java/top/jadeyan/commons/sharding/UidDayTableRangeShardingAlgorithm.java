@@ -0,0 +1,17 @@
+package top.jadeyan.commons.sharding;
+
+/**
+ * 日分片表范围分片逻辑 (主键为 Baidu uid)
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class UidDayTableRangeShardingAlgorithm extends DayTableRangeShardingAlgorithm {
+
+    /**
+     * 构造
+     */
+    public UidDayTableRangeShardingAlgorithm() {
+        super(BitPackedPrimaryKeyLayout.BAIDU_UID);
+    }
+}
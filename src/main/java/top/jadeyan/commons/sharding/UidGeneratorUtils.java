@@ -13,9 +13,9 @@ import java.util.concurrent.TimeUnit;
  **/
 public final class UidGeneratorUtils {
 
-    private static final long EPOCH_SECONDS = TimeUnit.MILLISECONDS.toSeconds(1_463_673_600_000L);
-    private static final int WORKER_BITS = 22;
-    private static final int SEQ_BITS = 13;
+    static final long EPOCH_SECONDS = TimeUnit.MILLISECONDS.toSeconds(1_463_673_600_000L);
+    static final int WORKER_BITS = 22;
+    static final int SEQ_BITS = 13;
 
     private UidGeneratorUtils() {
         // hide constructor
@@ -0,0 +1,17 @@
+package top.jadeyan.commons.sharding;
+
+/**
+ * 月分片表范围分片逻辑 (主键为 Baidu uid)
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class UidMonthTableRangeShardingAlgorithm extends MonthTableRangeShardingAlgorithm {
+
+    /**
+     * 构造
+     */
+    public UidMonthTableRangeShardingAlgorithm() {
+        super(BitPackedPrimaryKeyLayout.BAIDU_UID);
+    }
+}
@@ -0,0 +1,17 @@
+package top.jadeyan.commons.sharding;
+
+/**
+ * 年分片表精确分片逻辑 (主键为 Baidu uid)
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class UidYearTablePreciseShardingAlgorithm extends YearTablePreciseShardingAlgorithm {
+
+    /**
+     * 构造
+     */
+    public UidYearTablePreciseShardingAlgorithm() {
+        super(BitPackedPrimaryKeyLayout.BAIDU_UID);
+    }
+}
@@ -3,8 +3,8 @@ package top.jadeyan.commons.sharding;
 import org.apache.shardingsphere.api.sharding.standard.PreciseShardingAlgorithm;
 import org.apache.shardingsphere.api.sharding.standard.PreciseShardingValue;
 
-import java.sql.Date;
 import java.util.Collection;
+import java.util.Objects;
 
 /**
  * 年份表精确分片逻辑
@@ -14,11 +14,29 @@ import java.util.Collection;
  */
 public class YearTablePreciseShardingAlgorithm implements PreciseShardingAlgorithm<Long> {
 
+    private final PrimaryKeyLayout layout;
+
+    /**
+     * 构造, 主键为 {@link ShardingUtils} 分页id 格式
+     */
+    public YearTablePreciseShardingAlgorithm() {
+        this(DecimalWeightedPrimaryKeyLayout.PAGE_ID);
+    }
+
+    /**
+     * 构造
+     *
+     * @param layout 主键格式
+     */
+    public YearTablePreciseShardingAlgorithm(PrimaryKeyLayout layout) {
+        this.layout = Objects.requireNonNull(layout, "layout cannot be null");
+    }
+
     @Override
     public String doSharding(Collection<String> collection, PreciseShardingValue<Long> preciseShardingValue) {
-        Long pk = preciseShardingValue.getValue();
+        long pk = preciseShardingValue.getValue();
         String tableName = preciseShardingValue.getLogicTableName();
-        Date pkDate = ShardingUtils.getPkDate(pk);
-        return String.format("%s_%tY", tableName, pkDate);
+        int ordinal = ShardingTableUnit.YEAR.ordinalOf(layout.getEpochMillis(pk));
+        return ShardingTableNameCache.year().getTableName(tableName, ordinal);
     }
 }
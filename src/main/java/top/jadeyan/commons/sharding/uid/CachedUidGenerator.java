@@ -0,0 +1,182 @@
+package top.jadeyan.commons.sharding.uid;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import top.jadeyan.commons.sharding.BitPackedPrimaryKeyLayout;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 进程内 uid 生成器, 位格式与 {@link top.jadeyan.commons.sharding.UidGeneratorUtils} 一致
+ * <p>
+ * 预先把整秒的 uid 填入环形缓冲区, 取 uid 只是一次 CAS。剩余数量低于阈值时由后台线程补充;
+ * 高并发下一秒的序列号用完时会借用未来的秒数, 空闲之后秒数会重新追上当前时间。
+ * 发出每一秒的 uid 之前通过 {@link WorkerIdAssigner#saveLastSecond(long, long)} 记录, 重启后从记录的秒数之后继续,
+ * 复用同一个机器id 时不会重复发出借用过的秒数。
+ * <p>
+ * 符号位也算作时间位: 默认格式下 2024-11-20 之后生成的 uid 都是负数。同一符号区间内有符号顺序与生成顺序一致,
+ * 但跨过符号位翻转的 uid 按有符号 long(包括数据库 BIGINT)比较时顺序相反, 判断先后请使用
+ * {@link Long#compareUnsigned(long, long)} 或者比较 {@link BitPackedPrimaryKeyLayout#getDeltaSeconds(long)}。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class CachedUidGenerator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedUidGenerator.class);
+
+    private static final int DEFAULT_BOOST_POWER = 3;
+
+    private static final int DEFAULT_PADDING_FACTOR = 50;
+
+    private static final int PERCENT = 100;
+
+    private final BitPackedPrimaryKeyLayout layout;
+
+    private final WorkerIdAssigner workerIdAssigner;
+
+    private final long workerId;
+
+    private final UidRingBuffer ringBuffer;
+
+    private final long paddingThreshold;
+
+    /**
+     * 最后一次填充使用的相对秒数
+     */
+    private final PaddedAtomicLong lastSecond;
+
+    /**
+     * 已经记录到分配器的相对秒数, 只在填充时读写, 由 padding 标志保证同一时间只有一个线程访问
+     */
+    private long savedSecond;
+
+    private final AtomicBoolean padding = new AtomicBoolean();
+
+    private final ThreadPoolExecutor paddingExecutor;
+
+    /**
+     * 构造
+     *
+     * @param workerIdAssigner 机器id 分配器
+     */
+    public CachedUidGenerator(WorkerIdAssigner workerIdAssigner) {
+        this(BitPackedPrimaryKeyLayout.BAIDU_UID, workerIdAssigner, DEFAULT_BOOST_POWER, DEFAULT_PADDING_FACTOR);
+    }
+
+    /**
+     * 构造
+     *
+     * @param layout           uid 位格式
+     * @param workerIdAssigner 机器id 分配器
+     * @param boostPower       缓冲区大小 = 每秒序列号数量 &lt;&lt; boostPower
+     * @param paddingFactor    剩余数量低于缓冲区的百分之多少时开始填充
+     */
+    public CachedUidGenerator(BitPackedPrimaryKeyLayout layout, WorkerIdAssigner workerIdAssigner,
+                              int boostPower, int paddingFactor) {
+        if (paddingFactor <= 0 || paddingFactor >= PERCENT) {
+            throw new IllegalArgumentException("paddingFactor must be in (0, 100)");
+        }
+        this.layout = Objects.requireNonNull(layout, "layout cannot be null");
+        this.workerIdAssigner = Objects.requireNonNull(workerIdAssigner, "workerIdAssigner cannot be null");
+        this.workerId = workerIdAssigner.assignWorkerId(layout.getMaxWorkerId());
+        if (workerId < 0 || workerId > layout.getMaxWorkerId()) {
+            throw new IllegalStateException(String.format("worker id %d out of range [0, %d]", workerId, layout.getMaxWorkerId()));
+        }
+        long bufferSize = (layout.getMaxSequence() + 1) << boostPower;
+        if (bufferSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException(String.format("buffer size %d is too large", bufferSize));
+        }
+        this.ringBuffer = new UidRingBuffer((int) bufferSize);
+        this.paddingThreshold = bufferSize * paddingFactor / PERCENT;
+        this.savedSecond = workerIdAssigner.loadLastSecond(workerId);
+        this.lastSecond = new PaddedAtomicLong(Math.max(currentDeltaSeconds() - 1, savedSecond));
+        this.paddingExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), runnable -> {
+                    Thread thread = new Thread(runnable, "uid-padding-" + workerId);
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        paddingBuffer();
+        logger.info("CachedUidGenerator initialized, workerId: {}, bufferSize: {}", workerId, bufferSize);
+    }
+
+    /**
+     * 获取 uid
+     *
+     * @return uid
+     */
+    public long getUid() {
+        for (; ; ) {
+            long uid = ringBuffer.take();
+            if (uid != UidRingBuffer.EMPTY) {
+                if (ringBuffer.size() < paddingThreshold && !padding.get()) {
+                    asyncPaddingBuffer();
+                }
+                return uid;
+            }
+            // 缓冲区被取空, 当前线程直接填充, 其他线程正在填充时让出 cpu 后重试
+            if (!paddingBuffer()) {
+                Thread.yield();
+            }
+        }
+    }
+
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    public BitPackedPrimaryKeyLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public void close() {
+        // 不中断正在执行的填充, 避免记录秒数的写入被打断
+        paddingExecutor.shutdown();
+    }
+
+    private void asyncPaddingBuffer() {
+        // 队列长度为 1, 已有待执行的填充任务时直接丢弃
+        paddingExecutor.execute(this::paddingBuffer);
+    }
+
+    /**
+     * 按整秒填充缓冲区, 直到缓冲区写满
+     *
+     * @return 是否由当前线程完成了填充
+     */
+    private boolean paddingBuffer() {
+        if (!padding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            int sequenceSize = (int) (layout.getMaxSequence() + 1);
+            boolean full = false;
+            while (!full) {
+                long currentSecond = currentDeltaSeconds();
+                long second = lastSecond.updateAndGet(old -> Math.max(old + 1, currentSecond));
+                // 最后一秒保留不用, 保证 uid 不会等于 UidRingBuffer.EMPTY
+                if (second >= layout.getMaxDeltaSeconds()) {
+                    throw new IllegalStateException(String.format("timestamp bits is exhausted, delta seconds: %d", second));
+                }
+                if (second > savedSecond) {
+                    workerIdAssigner.saveLastSecond(workerId, second);
+                    savedSecond = second;
+                }
+                full = ringBuffer.put(layout.compose(second, workerId, 0), sequenceSize) < sequenceSize;
+            }
+            return true;
+        } finally {
+            padding.set(false);
+        }
+    }
+
+    private long currentDeltaSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) - layout.getEpochSeconds();
+    }
+}
@@ -0,0 +1,59 @@
+package top.jadeyan.commons.sharding.uid;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 从系统属性或环境变量读取机器id, 系统属性优先
+ * <p>
+ * 不记录已经使用到的秒数, 重启间隔需要大于生成器借用的未来秒数, 否则请使用 {@link FileWorkerIdAssigner}
+ * 或者每次启动分配新机器id 的 {@link RedissonWorkerIdAssigner}
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class EnvironmentWorkerIdAssigner implements WorkerIdAssigner {
+
+    /**
+     * 默认的属性名
+     */
+    public static final String DEFAULT_KEY = "UID_WORKER_ID";
+
+    private final String key;
+
+    /**
+     * 构造, 读取 {@link #DEFAULT_KEY}
+     */
+    public EnvironmentWorkerIdAssigner() {
+        this(DEFAULT_KEY);
+    }
+
+    /**
+     * 构造
+     *
+     * @param key 系统属性或环境变量名
+     */
+    public EnvironmentWorkerIdAssigner(String key) {
+        this.key = key;
+    }
+
+    @Override
+    public long assignWorkerId(long maxWorkerId) {
+        String value = System.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            value = System.getenv(key);
+        }
+        if (StringUtils.isBlank(value)) {
+            throw new IllegalStateException(String.format("worker id not found, key: %s", key));
+        }
+        long workerId;
+        try {
+            workerId = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(String.format("invalid worker id '%s', key: %s", value, key), e);
+        }
+        if (workerId < 0 || workerId > maxWorkerId) {
+            throw new IllegalStateException(String.format("worker id %d out of range [0, %d]", workerId, maxWorkerId));
+        }
+        return workerId;
+    }
+}
@@ -0,0 +1,93 @@
+package top.jadeyan.commons.sharding.uid;
+
+import top.jadeyan.commons.exception.IORuntimeException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 从本地文件读取机器id
+ * <p>
+ * 机器id 文件由部署时统一分配写入, 文件不存在或者内容不合法时直接失败, 不自行生成, 避免不同机器的 id 冲突。
+ * 机器id 在重启后不变, 已经使用到的秒数记录在同目录的 {@code <文件名>.second} 文件中, 重启后从记录的秒数之后继续。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class FileWorkerIdAssigner implements WorkerIdAssigner {
+
+    private static final String SECOND_FILE_SUFFIX = ".second";
+
+    private final Path path;
+
+    private final Path secondPath;
+
+    /**
+     * 构造
+     *
+     * @param path 机器id 文件
+     */
+    public FileWorkerIdAssigner(Path path) {
+        this.path = path;
+        this.secondPath = path.resolveSibling(path.getFileName() + SECOND_FILE_SUFFIX);
+    }
+
+    @Override
+    public long assignWorkerId(long maxWorkerId) {
+        if (!Files.exists(path)) {
+            throw new IllegalStateException(String.format("worker id file %s not found", path));
+        }
+        long workerId = readLong(path);
+        if (workerId < 0 || workerId > maxWorkerId) {
+            throw new IllegalStateException(String.format("worker id %d in file %s out of range [0, %d]",
+                    workerId, path, maxWorkerId));
+        }
+        return workerId;
+    }
+
+    @Override
+    public long loadLastSecond(long workerId) {
+        return Files.exists(secondPath) ? readLong(secondPath) : -1L;
+    }
+
+    @Override
+    public synchronized void saveLastSecond(long workerId, long second) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(secondPath.toAbsolutePath().getParent(), secondPath.getFileName().toString(), ".tmp");
+            Files.write(tmp, String.valueOf(second).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, secondPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            throw new IORuntimeException(String.format("save last second to file %s error", secondPath), e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // 临时文件删除失败不影响结果
+        }
+    }
+
+    private static long readLong(Path file) {
+        String value;
+        try {
+            value = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            throw new IORuntimeException(String.format("read file %s error", file), e);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(String.format("invalid number '%s' in file %s", value, file), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package top.jadeyan.commons.sharding.uid;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内的机器id 分配器, 模拟 redis INCR 的行为, 用于本地开发和测试
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class LocalWorkerIdAssigner implements WorkerIdAssigner {
+
+    private static final Map<String, AtomicLong> COUNTER_MAP = new ConcurrentHashMap<>();
+
+    private final String key;
+
+    /**
+     * 构造
+     *
+     * @param key 计数器名称
+     */
+    public LocalWorkerIdAssigner(String key) {
+        this.key = key;
+    }
+
+    @Override
+    public long assignWorkerId(long maxWorkerId) {
+        long value = COUNTER_MAP.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        return value % (maxWorkerId + 1);
+    }
+}
@@ -0,0 +1,38 @@
+package top.jadeyan.commons.sharding.uid;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 填充缓存行的 AtomicLong, 避免读写游标之间的伪共享
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+@SuppressWarnings("unused")
+class PaddedAtomicLong extends AtomicLong {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 64 字节缓存行: 对象头 12 字节 + value 8 字节 + 6 * 8 字节填充
+     */
+    public volatile long p1;
+    public volatile long p2;
+    public volatile long p3;
+    public volatile long p4;
+    public volatile long p5;
+    public volatile long p6 = 7L;
+
+    PaddedAtomicLong(long initialValue) {
+        super(initialValue);
+    }
+
+    /**
+     * 防止填充字段被优化掉
+     *
+     * @return 填充字段之和
+     */
+    long sumPaddingToPreventOptimisation() {
+        return p1 + p2 + p3 + p4 + p5 + p6;
+    }
+}
@@ -0,0 +1,33 @@
+package top.jadeyan.commons.sharding.uid;
+
+import org.redisson.api.RedissonClient;
+
+/**
+ * 通过 redis 自增计数分配机器id
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public class RedissonWorkerIdAssigner implements WorkerIdAssigner {
+
+    private final RedissonClient redissonClient;
+
+    private final String key;
+
+    /**
+     * 构造
+     *
+     * @param redissonClient redisson 客户端
+     * @param key            计数器 key
+     */
+    public RedissonWorkerIdAssigner(RedissonClient redissonClient, String key) {
+        this.redissonClient = redissonClient;
+        this.key = key;
+    }
+
+    @Override
+    public long assignWorkerId(long maxWorkerId) {
+        long value = redissonClient.getAtomicLong(key).incrementAndGet();
+        return value % (maxWorkerId + 1);
+    }
+}
@@ -0,0 +1,117 @@
+package top.jadeyan.commons.sharding.uid;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * uid 环形缓冲区
+ * <p>
+ * 单生产者(填充线程, put 加锁)多消费者(take 无锁 CAS)。tail 为最后写入的位置, cursor 为最后取出的位置,
+ * 两个游标都做了缓存行填充。每个槽位的标记保证消费者取走之前不会被覆盖。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class UidRingBuffer {
+
+    /**
+     * 缓冲区为空时 take 的返回值
+     * <p>
+     * 符号位也是时间位, uid 可能是负数; -1 是时间、机器id、序列号全为最大值的 uid,
+     * 只会出现在时间位用尽的最后一秒, {@link CachedUidGenerator} 保留这一秒不用, 不会和它冲突
+     */
+    static final long EMPTY = -1L;
+
+    private static final long START_POINT = -1L;
+    private static final long CAN_PUT_FLAG = 0L;
+    private static final long CAN_TAKE_FLAG = 1L;
+
+    private final int bufferSize;
+
+    private final int indexMask;
+
+    private final long[] slots;
+
+    private final AtomicLongArray flags;
+
+    private final PaddedAtomicLong tail = new PaddedAtomicLong(START_POINT);
+
+    private final PaddedAtomicLong cursor = new PaddedAtomicLong(START_POINT);
+
+    /**
+     * 构造
+     *
+     * @param bufferSize 缓冲区大小, 必须是 2 的幂
+     */
+    UidRingBuffer(int bufferSize) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        this.bufferSize = bufferSize;
+        this.indexMask = bufferSize - 1;
+        this.slots = new long[bufferSize];
+        this.flags = new AtomicLongArray(bufferSize);
+    }
+
+    /**
+     * 批量写入连续的 uid: firstUid, firstUid + 1, ..., firstUid + count - 1
+     * <p>
+     * 同一秒内的 uid 只有序列号不同, 是连续的整数, 整批写完之后才移动 tail 一次
+     *
+     * @param firstUid 第一个 uid
+     * @param count    数量
+     * @return 实际写入的数量, 小于 count 表示缓冲区已满
+     */
+    synchronized int put(long firstUid, int count) {
+        long currentTail = tail.get();
+        long available = bufferSize - (currentTail - cursor.get());
+        int putCount = (int) Math.min(available, count);
+        for (int i = 0; i < putCount; i++) {
+            int index = (int) ((currentTail + 1 + i) & indexMask);
+            if (flags.get(index) != CAN_PUT_FLAG) {
+                // 消费者已经移动了游标但还没有读走槽位
+                putCount = i;
+                break;
+            }
+            slots[index] = firstUid + i;
+            flags.lazySet(index, CAN_TAKE_FLAG);
+        }
+        if (putCount > 0) {
+            tail.set(currentTail + putCount);
+        }
+        return putCount;
+    }
+
+    /**
+     * 取出 uid
+     *
+     * @return uid, 缓冲区为空时返回 {@link #EMPTY}
+     */
+    long take() {
+        for (; ; ) {
+            long currentCursor = cursor.get();
+            if (currentCursor >= tail.get()) {
+                return EMPTY;
+            }
+            long nextCursor = currentCursor + 1;
+            if (cursor.compareAndSet(currentCursor, nextCursor)) {
+                int index = (int) (nextCursor & indexMask);
+                long uid = slots[index];
+                flags.set(index, CAN_PUT_FLAG);
+                return uid;
+            }
+        }
+    }
+
+    /**
+     * 可取出的 uid 数量
+     *
+     * @return 可取出的数量
+     */
+    long size() {
+        return tail.get() - cursor.get();
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,41 @@
+package top.jadeyan.commons.sharding.uid;
+
+/**
+ * 机器id 分配器
+ * <p>
+ * 生成器会借用未来的秒数, 重启后复用同一个机器id 时, 需要记录已经使用到的秒数,
+ * 否则在借用的秒数追上当前时间之前重启会重复发出 uid。每次启动分配新机器id 的实现不需要记录。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface WorkerIdAssigner {
+
+    /**
+     * 分配机器id, 生成器启动时调用一次
+     *
+     * @param maxWorkerId 允许的最大机器id
+     * @return 机器id
+     */
+    long assignWorkerId(long maxWorkerId);
+
+    /**
+     * 读取该机器id 上次运行已经使用到的相对秒数
+     *
+     * @param workerId 机器id
+     * @return 相对秒数, 没有记录时返回 -1
+     */
+    default long loadLastSecond(long workerId) {
+        return -1L;
+    }
+
+    /**
+     * 记录该机器id 已经使用到的相对秒数, 生成器在发出该秒的 uid 之前调用
+     *
+     * @param workerId 机器id
+     * @param second   相对秒数
+     */
+    default void saveLastSecond(long workerId, long second) {
+    }
+}
@@ -0,0 +1,225 @@
+package top.jadeyan.commons.skywalking;
+
+import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 按 {@link SwMapOptions} 限流的并行映射
+ * <p>
+ * 提交任务的线程逐个元素等待许可和令牌后再提交, 线程池线程只执行映射本身; 不并行时在提交线程中逐个执行, 不经过线程池。
+ * 任意元素失败时停止提交, 立即取消其他已提交的任务并抛出异常。
+ * 线程池饱和时任务可能在提交线程中执行(CALLER_RUNS), 此时超时或者失败取消任务产生的中断会在任务结束后清除, 不会传给调用方。
+ *
+ * @param <T> 元素类型
+ * @param <R> 映射结果类型
+ * @author yan
+ * @date 2026/10/18
+ */
+final class LimitedMapper<T, R> {
+
+    private final ExecutorService executorService;
+
+    private final Function<? super T, ? extends R> mapper;
+
+    private final SwMapOptions<? super T, R> options;
+
+    private final boolean parallel;
+
+    /**
+     * 已提交的任务, 失败时由执行失败任务的线程取消
+     */
+    private final Queue<ElementTask> tasks = new ConcurrentLinkedQueue<>();
+
+    private volatile Thread submitter;
+
+    private volatile Throwable error;
+
+    LimitedMapper(ExecutorService executorService, Function<? super T, ? extends R> mapper,
+                  SwMapOptions<? super T, R> options, boolean parallel) {
+        this.executorService = executorService;
+        this.mapper = mapper;
+        this.options = options;
+        this.parallel = parallel;
+    }
+
+    List<R> map(List<T> elements) {
+        submitter = Thread.currentThread();
+        try {
+            for (T element : elements) {
+                if (error != null) {
+                    break;
+                }
+                options.acquire();
+                ElementTask task = new ElementTask(element);
+                tasks.add(task);
+                if (!parallel) {
+                    task.run();
+                    continue;
+                }
+                try {
+                    executorService.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.release();
+                    throw e;
+                }
+            }
+            List<R> result = new ArrayList<>(elements.size());
+            for (ElementTask task : tasks) {
+                result.add(task.result());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ThreadRuntimeException("limited map interrupted", e);
+        } finally {
+            // 失败或者中断时取消剩余的任务, 已完成的任务不受影响
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        for (ElementTask task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    private Callable<R> wrap(Callable<R> callable) {
+        // 在提交线程中执行时链路还在当前线程, 不需要包装
+        return !parallel || SwThreadPoolExecutor.isTraced(executorService) ? callable : new CallableWrapper<>(callable);
+    }
+
+    /**
+     * 单个元素的任务, 开始执行时启动超时计时, 结束时归还许可
+     */
+    private final class ElementTask extends FutureTask<R> {
+
+        private final T element;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private volatile boolean started;
+
+        private volatile boolean timedOut;
+
+        private volatile ScheduledFuture<?> timeoutFuture;
+
+        private ElementTask(T element) {
+            super(wrap(() -> mapper.apply(element)));
+            this.element = element;
+        }
+
+        @Override
+        public void run() {
+            started = true;
+            boolean callerRuns = Thread.currentThread() == submitter;
+            boolean interrupted = callerRuns && Thread.currentThread().isInterrupted();
+            try {
+                long timeoutNanos = options.getTimeoutNanos();
+                if (timeoutNanos > 0 && !isDone()) {
+                    timeoutFuture = TimeoutScheduler.INSTANCE.schedule(this::timeout, timeoutNanos, TimeUnit.NANOSECONDS);
+                }
+                super.run();
+            } finally {
+                cancelTimeout();
+                release();
+                if (callerRuns && !interrupted && isCancelled()) {
+                    // 在提交线程中执行时, 取消任务的中断是发给提交线程的, 清除后再继续提交
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            if (error == null) {
+                error = t;
+            }
+            super.setException(t);
+            // 不等提交线程按顺序取结果, 立即取消其他任务
+            cancelAll();
+        }
+
+        @Override
+        protected void done() {
+            cancelTimeout();
+            if (!started) {
+                // 还没开始就被取消, run 不会再归还许可
+                release();
+            }
+        }
+
+        private void cancelTimeout() {
+            ScheduledFuture<?> future = timeoutFuture;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        private void timeout() {
+            timedOut = true;
+            cancel(true);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                options.release();
+            }
+        }
+
+        private R result() throws InterruptedException {
+            try {
+                return get();
+            } catch (CancellationException e) {
+                if (!timedOut) {
+                    if (error != null) {
+                        // 因为其他元素失败被取消
+                        throw new ThreadRuntimeException("mapToList error", error);
+                    }
+                    throw e;
+                }
+                Function<? super T, ? extends R> fallback = options.getFallback();
+                if (fallback == null) {
+                    throw new ThreadRuntimeException("mapToList element timeout", new TimeoutException());
+                }
+                return fallback.apply(element);
+            } catch (ExecutionException e) {
+                throw new ThreadRuntimeException("mapToList error", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * 超时计时线程, 只负责取消任务
+     */
+    private static final class TimeoutScheduler {
+
+        private static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "sw-map-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
@@ -4,26 +4,42 @@ import top.jadeyan.commons.exception.ThreadRuntimeException;
 import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 /**
  * skywalking 集合封装
+ * <p>
+ * 并行时默认每个元素一个任务, 开启 {@link #chunked()} 后把集合切成 CPU 核数 × k 个连续分片, 每个分片一个任务,
+ * 大集合可以少创建几个数量级的任务和 Future。结果按分片下标写回, 顺序与原集合一致。
  *
  * @param <T> 泛型
  */
 public final class SwCollectionWrapper<T> {
 
-    private final Collection<T> collection;
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
 
-    private ExecutorService executorService = ForkJoinPool.commonPool();
+    private final List<T> collection;
+
+    private ExecutorService executorService = SwExecutors.io();
 
     private boolean parallel;
 
+    /**
+     * 每个 CPU 核的分片数, 0 表示不分片
+     */
+    private int slicesPerCore;
+
     private SwCollectionWrapper(Collection<T> collection) {
         this.collection = new ArrayList<>(collection);
     }
@@ -40,7 +56,7 @@ public final class SwCollectionWrapper<T> {
     }
 
     /**
-     * 开启并行
+     * 开启并行, 使用 {@link SwExecutors#io()} 线程池
      *
      * @return 当前对象
      */
@@ -61,6 +77,29 @@ public final class SwCollectionWrapper<T> {
         return this;
     }
 
+    /**
+     * 并行时按分片执行, 每个 CPU 核 4 个分片
+     *
+     * @return 当前对象
+     */
+    public SwCollectionWrapper<T> chunked() {
+        return chunked(4);
+    }
+
+    /**
+     * 并行时按分片执行, 分片数为 CPU 核数 × slicesPerCore
+     *
+     * @param slicesPerCore 每个 CPU 核的分片数, 任务耗时不均匀时可以调大
+     * @return 当前对象
+     */
+    public SwCollectionWrapper<T> chunked(int slicesPerCore) {
+        if (slicesPerCore <= 0) {
+            throw new IllegalArgumentException("slicesPerCore must be positive");
+        }
+        this.slicesPerCore = slicesPerCore;
+        return this;
+    }
+
     /**
      * 是否开启并行
      *
@@ -76,24 +115,10 @@ public final class SwCollectionWrapper<T> {
      * @param action 操作
      */
     public void forEach(Consumer<? super T> action) {
-        if (!parallel) {
-            collection.forEach(action);
-            return;
-        }
-        try {
-            List<Callable<Void>> taskList = new ArrayList<>();
-            for (T t : collection) {
-                // 多线程需要监控
-                CallableWrapper<Void> callableWrapper = new CallableWrapper<>(() -> {
-                    action.accept(t);
-                    return null;
-                });
-                taskList.add(callableWrapper);
-            }
-            invokeAll(taskList);
-        } catch (Exception e) {
-            throw new ThreadRuntimeException("forEach error", e);
-        }
+        forEachSlice("forEach error", slice -> {
+            slice.forEach(action);
+            return null;
+        });
     }
 
     /**
@@ -103,26 +128,192 @@ public final class SwCollectionWrapper<T> {
      * @param <R>    泛型
      * @return 映射列表
      */
+    @SuppressWarnings("unchecked")
     public <R> List<R> mapToList(Function<? super T, ? extends R> mapper) {
-        if (!parallel) {
-            return collection.stream().map(mapper).collect(Collectors.toList());
+        Object[] result = new Object[collection.size()];
+        forEachSlice("mapToListWithExecutor error", (fromIndex, slice) -> {
+            for (int i = 0; i < slice.size(); i++) {
+                result[fromIndex + i] = mapper.apply(slice.get(i));
+            }
+            return null;
+        });
+        return new ArrayList<>((List<R>) Arrays.asList(result));
+    }
+
+    /**
+     * 限流映射到列表, 每个元素一个任务
+     * <p>
+     * 提交任务的线程等待许可和令牌, 不占用线程池线程。不开启并行时在当前线程逐个执行, 限流和超时同样生效。
+     *
+     * @param mapper  映射
+     * @param options 限流配置
+     * @param <R>     泛型
+     * @return 映射列表, 超时的元素使用降级值
+     */
+    public <R> List<R> mapToList(Function<? super T, ? extends R> mapper, SwMapOptions<? super T, R> options) {
+        if (options == null) {
+            throw new IllegalArgumentException("options cannot be null");
         }
-        try {
-            List<Callable<R>> taskList = new ArrayList<>();
-            for (T t : collection) {
-                // 多线程需要监控
-                CallableWrapper<R> callableWrapper = new CallableWrapper<>(() -> mapper.apply(t));
-                taskList.add(callableWrapper);
+        return new LimitedMapper<T, R>(executorService, mapper, options, parallel).map(collection);
+    }
+
+    /**
+     * 过滤
+     *
+     * @param predicate 条件
+     * @return 满足条件的元素, 顺序与原集合一致
+     */
+    public List<T> filter(Predicate<? super T> predicate) {
+        List<List<T>> sliceResults = forEachSlice("filter error", slice -> {
+            List<T> sliceResult = new ArrayList<>();
+            for (T t : slice) {
+                if (predicate.test(t)) {
+                    sliceResult.add(t);
+                }
+            }
+            return sliceResult;
+        });
+        return concat(sliceResults);
+    }
+
+    /**
+     * 映射并展开
+     *
+     * @param mapper 映射, 每个元素映射成一个集合
+     * @param <R>    泛型
+     * @return 展开后的列表, 顺序与原集合一致
+     */
+    public <R> List<R> flatMap(Function<? super T, ? extends Collection<? extends R>> mapper) {
+        List<List<R>> sliceResults = forEachSlice("flatMap error", slice -> {
+            List<R> sliceResult = new ArrayList<>();
+            for (T t : slice) {
+                Collection<? extends R> mapped = mapper.apply(t);
+                if (mapped != null) {
+                    sliceResult.addAll(mapped);
+                }
+            }
+            return sliceResult;
+        });
+        return concat(sliceResults);
+    }
+
+    /**
+     * 归约
+     *
+     * @param identity 初始值
+     * @param operator 归约操作, 需要满足结合律
+     * @return 归约结果
+     */
+    public T reduce(T identity, BinaryOperator<T> operator) {
+        return reduce(identity, operator, operator);
+    }
+
+    /**
+     * 归约, 每个分片先从初始值开始累加, 再按分片顺序合并
+     *
+     * @param identity    初始值, 需要是合并操作的单位元
+     * @param accumulator 累加操作
+     * @param combiner    合并操作, 需要满足结合律
+     * @param <U>         结果类型
+     * @return 归约结果
+     */
+    public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        List<U> sliceResults = forEachSlice("reduce error", slice -> {
+            U sliceResult = identity;
+            for (T t : slice) {
+                sliceResult = accumulator.apply(sliceResult, t);
+            }
+            return sliceResult;
+        });
+        U result = identity;
+        for (U sliceResult : sliceResults) {
+            result = combiner.apply(result, sliceResult);
+        }
+        return result;
+    }
+
+    /**
+     * 分组
+     *
+     * @param classifier 分组键
+     * @param <K>        分组键类型
+     * @return 分组结果, 按分组键首次出现的顺序, 组内元素顺序与原集合一致
+     */
+    public <K> Map<K, List<T>> groupingBy(Function<? super T, ? extends K> classifier) {
+        List<Map<K, List<T>>> sliceResults = forEachSlice("groupingBy error", slice -> {
+            Map<K, List<T>> sliceResult = new LinkedHashMap<>();
+            for (T t : slice) {
+                sliceResult.computeIfAbsent(classifier.apply(t), key -> new ArrayList<>()).add(t);
             }
+            return sliceResult;
+        });
+        if (sliceResults.size() == 1) {
+            return sliceResults.get(0);
+        }
+        Map<K, List<T>> result = new LinkedHashMap<>();
+        for (Map<K, List<T>> sliceResult : sliceResults) {
+            sliceResult.forEach((key, values) -> result.computeIfAbsent(key, k -> new ArrayList<>()).addAll(values));
+        }
+        return result;
+    }
+
+    private <R> List<R> forEachSlice(String errorMessage, Function<List<T>, R> sliceFunction) {
+        return forEachSlice(errorMessage, (fromIndex, slice) -> sliceFunction.apply(slice));
+    }
+
+    /**
+     * 按分片执行, 不并行时整个集合是一个分片, 在当前线程执行
+     *
+     * @param errorMessage  异常信息
+     * @param sliceFunction 分片操作, 参数为分片在集合中的开始下标和分片
+     * @param <R>           分片结果类型
+     * @return 分片结果, 按分片顺序
+     */
+    private <R> List<R> forEachSlice(String errorMessage, BiFunction<Integer, List<T>, R> sliceFunction) {
+        int size = collection.size();
+        if (!parallel || size <= 1) {
+            return Collections.singletonList(sliceFunction.apply(0, collection));
+        }
+        int sliceCount = slicesPerCore > 0 ? Math.min(size, PROCESSORS * slicesPerCore) : size;
+        List<Callable<R>> taskList = new ArrayList<>(sliceCount);
+        for (int i = 0; i < sliceCount; i++) {
+            // 分片大小最多相差一个元素
+            int fromIndex = (int) ((long) size * i / sliceCount);
+            int toIndex = (int) ((long) size * (i + 1) / sliceCount);
+            List<T> slice = collection.subList(fromIndex, toIndex);
+            taskList.add(wrap(() -> sliceFunction.apply(fromIndex, slice)));
+        }
+        try {
             return invokeAll(taskList);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ThreadRuntimeException(errorMessage, e);
         } catch (Exception e) {
-            throw new ThreadRuntimeException("mapToListWithExecutor error", e);
+            throw new ThreadRuntimeException(errorMessage, e);
+        }
+    }
+
+    private static <R> List<R> concat(List<List<R>> sliceResults) {
+        if (sliceResults.size() == 1) {
+            return sliceResults.get(0);
+        }
+        int size = 0;
+        for (List<R> sliceResult : sliceResults) {
+            size += sliceResult.size();
         }
+        List<R> result = new ArrayList<>(size);
+        sliceResults.forEach(result::addAll);
+        return result;
+    }
+
+    private <R> Callable<R> wrap(Callable<R> callable) {
+        // 多线程需要监控, 线程池已经传递链路时不再包装
+        return SwThreadPoolExecutor.isTraced(executorService) ? callable : new CallableWrapper<>(callable);
     }
 
     private <T> List<T> invokeAll(List<Callable<T>> taskList) throws InterruptedException, ExecutionException {
         List<Future<T>> futures = executorService.invokeAll(taskList);
-        List<T> result = new ArrayList<>();
+        List<T> result = new ArrayList<>(futures.size());
         for (Future<T> future : futures) {
             result.add(future.get());
         }
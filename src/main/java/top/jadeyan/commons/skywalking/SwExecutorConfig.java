@@ -0,0 +1,141 @@
+package top.jadeyan.commons.skywalking;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * skywalking 线程池配置
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class SwExecutorConfig {
+
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private final int corePoolSize;
+
+    private final int maxPoolSize;
+
+    private int queueCapacity = 1024;
+
+    private long keepAliveMillis = TimeUnit.SECONDS.toMillis(60);
+
+    private RejectPolicy rejectPolicy = RejectPolicy.CALLER_RUNS;
+
+    private SwExecutorConfig(int corePoolSize, int maxPoolSize) {
+        if (corePoolSize <= 0 || maxPoolSize < corePoolSize) {
+            throw new IllegalArgumentException("invalid pool size, core: " + corePoolSize + ", max: " + maxPoolSize);
+        }
+        this.corePoolSize = corePoolSize;
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * 创建配置
+     *
+     * @param corePoolSize 核心线程数
+     * @param maxPoolSize  最大线程数, 队列满了之后才会创建核心线程以外的线程
+     * @return 配置
+     */
+    public static SwExecutorConfig of(int corePoolSize, int maxPoolSize) {
+        return new SwExecutorConfig(corePoolSize, maxPoolSize);
+    }
+
+    /**
+     * 计算密集型任务的默认配置, 线程数等于 CPU 核数
+     *
+     * @return 配置
+     */
+    public static SwExecutorConfig cpu() {
+        return new SwExecutorConfig(PROCESSORS, PROCESSORS).queueCapacity(PROCESSORS * 256);
+    }
+
+    /**
+     * 阻塞 IO 任务的默认配置, 线程数为 CPU 核数的 8 倍, 空闲线程超时回收
+     *
+     * @return 配置
+     */
+    public static SwExecutorConfig io() {
+        int poolSize = Math.max(16, PROCESSORS * 8);
+        return new SwExecutorConfig(poolSize, poolSize).queueCapacity(poolSize * 64);
+    }
+
+    /**
+     * 设置队列容量
+     *
+     * @param queueCapacity 队列容量
+     * @return 当前对象
+     */
+    public SwExecutorConfig queueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * 设置空闲线程存活时间, 核心线程也会超时回收
+     *
+     * @param keepAlive 存活时间
+     * @param unit      时间单位
+     * @return 当前对象
+     */
+    public SwExecutorConfig keepAlive(long keepAlive, TimeUnit unit) {
+        if (keepAlive <= 0) {
+            throw new IllegalArgumentException("keepAlive must be positive");
+        }
+        this.keepAliveMillis = unit.toMillis(keepAlive);
+        return this;
+    }
+
+    /**
+     * 设置队列满时的拒绝策略
+     *
+     * @param rejectPolicy 拒绝策略
+     * @return 当前对象
+     */
+    public SwExecutorConfig rejectPolicy(RejectPolicy rejectPolicy) {
+        if (rejectPolicy == null) {
+            throw new IllegalArgumentException("rejectPolicy cannot be null");
+        }
+        this.rejectPolicy = rejectPolicy;
+        return this;
+    }
+
+    public int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public RejectPolicy getRejectPolicy() {
+        return rejectPolicy;
+    }
+
+    /**
+     * 队列满时的拒绝策略
+     */
+    public enum RejectPolicy {
+
+        /**
+         * 由提交任务的线程执行, 起到背压作用
+         */
+        CALLER_RUNS,
+
+        /**
+         * 抛出 {@link java.util.concurrent.RejectedExecutionException}
+         */
+        ABORT
+    }
+}
@@ -0,0 +1,110 @@
+package top.jadeyan.commons.skywalking;
+
+import top.jadeyan.commons.metrics.LatencyHistogram;
+
+/**
+ * skywalking 线程池统计快照
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class SwExecutorMetrics {
+
+    private final String name;
+
+    private final int poolSize;
+
+    private final int activeCount;
+
+    private final int queueSize;
+
+    private final int queueRemainingCapacity;
+
+    private final long completedTaskCount;
+
+    private final long rejectedCount;
+
+    private final LatencyHistogram.Snapshot waitTime;
+
+    private final LatencyHistogram.Snapshot executionTime;
+
+    SwExecutorMetrics(String name, int poolSize, int activeCount, int queueSize, int queueRemainingCapacity,
+                      long completedTaskCount, long rejectedCount,
+                      LatencyHistogram.Snapshot waitTime, LatencyHistogram.Snapshot executionTime) {
+        this.name = name;
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueSize = queueSize;
+        this.queueRemainingCapacity = queueRemainingCapacity;
+        this.completedTaskCount = completedTaskCount;
+        this.rejectedCount = rejectedCount;
+        this.waitTime = waitTime;
+        this.executionTime = executionTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getQueueRemainingCapacity() {
+        return queueRemainingCapacity;
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    /**
+     * 队列满的次数, 包括由调用线程执行的任务
+     *
+     * @return 拒绝次数
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * 任务从提交到开始执行的排队时间
+     *
+     * @return 排队时间直方图
+     */
+    public LatencyHistogram.Snapshot getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * 任务执行时间
+     *
+     * @return 执行时间直方图
+     */
+    public LatencyHistogram.Snapshot getExecutionTime() {
+        return executionTime;
+    }
+
+    @Override
+    public String toString() {
+        return "SwExecutorMetrics{" +
+                "name='" + name + '\'' +
+                ", poolSize=" + poolSize +
+                ", activeCount=" + activeCount +
+                ", queueSize=" + queueSize +
+                ", queueRemainingCapacity=" + queueRemainingCapacity +
+                ", completedTaskCount=" + completedTaskCount +
+                ", rejectedCount=" + rejectedCount +
+                ", waitTime={" + waitTime + '}' +
+                ", executionTime={" + executionTime + '}' +
+                '}';
+    }
+}
@@ -0,0 +1,205 @@
+package top.jadeyan.commons.skywalking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * skywalking 命名线程池注册表
+ * <p>
+ * 默认提供计算密集型的 {@link #cpu()} 和阻塞 IO 的 {@link #io()} 两个线程池, 首次使用时创建,
+ * 阻塞任务不要再放到 {@link java.util.concurrent.ForkJoinPool#commonPool()}, 以免拖慢整个 JVM 的并行流。
+ * Java 21 及以上还提供每个任务一个虚拟线程的 {@link #virtual()}, Java 8 上退回 {@link #io()}。
+ * 注册的线程池是共享的, 使用方不要关闭; 不再使用时通过 {@link #unregister(String)} 取消注册并关闭,
+ * 直接关闭的线程池在终止时也会自动取消注册。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class SwExecutors {
+
+    /**
+     * 计算密集型线程池名称
+     */
+    public static final String CPU = "cpu";
+
+    /**
+     * 阻塞 IO 线程池名称
+     */
+    public static final String IO = "io";
+
+    /**
+     * 设置为 true 时 {@link SwThreadPoolWorker} 默认使用 {@link #virtual()}
+     */
+    public static final String VIRTUAL_WORKER_PROPERTY = "top.jadeyan.commons.sw.virtual";
+
+    private static final Map<String, SwThreadPoolExecutor> EXECUTORS = new ConcurrentHashMap<>();
+
+    private SwExecutors() {
+    }
+
+    /**
+     * 计算密集型线程池
+     *
+     * @return 线程池
+     */
+    public static ExecutorService cpu() {
+        return CpuHolder.EXECUTOR;
+    }
+
+    /**
+     * 阻塞 IO 线程池
+     *
+     * @return 线程池
+     */
+    public static ExecutorService io() {
+        return IoHolder.EXECUTOR;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的执行器, 适合大量阻塞 IO 任务, 不支持虚拟线程时返回 {@link #io()}
+     * <p>
+     * 虚拟线程不需要池化, 任务之间也不排队, 没有线程池统计。
+     *
+     * @return 执行器
+     */
+    public static ExecutorService virtual() {
+        return VirtualHolder.EXECUTOR;
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程, 需要 Java 21 及以上并且使用多版本 jar
+     *
+     * @return true 支持
+     */
+    public static boolean isVirtualSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * {@link SwThreadPoolWorker} 的默认执行器, 开启 {@link #VIRTUAL_WORKER_PROPERTY} 时使用 {@link #virtual()}, 否则使用 {@link #io()}
+     *
+     * @return 执行器
+     */
+    static ExecutorService defaultWorkerExecutor() {
+        return Boolean.getBoolean(VIRTUAL_WORKER_PROPERTY) ? virtual() : io();
+    }
+
+    /**
+     * 注册线程池
+     *
+     * @param name   线程池名称
+     * @param config 配置
+     * @return 线程池
+     */
+    public static ExecutorService register(String name, SwExecutorConfig config) {
+        if (CPU.equals(name) || IO.equals(name) || EXECUTORS.containsKey(name)) {
+            throw new IllegalStateException("executor already registered: " + name);
+        }
+        SwThreadPoolExecutor executor = SwThreadPoolExecutor.of(name, config);
+        if (EXECUTORS.putIfAbsent(name, executor) != null) {
+            // 并发注册同名线程池, 新建的线程池还没有线程, 直接关闭
+            executor.shutdown();
+            throw new IllegalStateException("executor already registered: " + name);
+        }
+        return executor;
+    }
+
+    /**
+     * 取消注册并关闭线程池, 已提交的任务继续执行
+     *
+     * @param name 线程池名称, 不能是 {@link #CPU} 和 {@link #IO}
+     * @return 是否存在该线程池
+     */
+    public static boolean unregister(String name) {
+        if (CPU.equals(name) || IO.equals(name)) {
+            throw new IllegalArgumentException("default executor cannot be unregistered: " + name);
+        }
+        SwThreadPoolExecutor executor = EXECUTORS.remove(name);
+        if (executor == null) {
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+
+    /**
+     * 获取已注册的线程池
+     *
+     * @param name 线程池名称
+     * @return 线程池
+     */
+    public static ExecutorService get(String name) {
+        return getExecutor(name);
+    }
+
+    /**
+     * 获取线程池统计
+     *
+     * @param name 线程池名称
+     * @return 统计
+     */
+    public static SwExecutorMetrics getMetrics(String name) {
+        return getExecutor(name).getMetrics();
+    }
+
+    /**
+     * 获取所有已创建线程池的统计
+     *
+     * @return 统计
+     */
+    public static List<SwExecutorMetrics> getAllMetrics() {
+        List<SwExecutorMetrics> metrics = new ArrayList<>(EXECUTORS.size());
+        for (SwThreadPoolExecutor executor : EXECUTORS.values()) {
+            metrics.add(executor.getMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * 线程池终止时移除, 同名的新线程池不受影响
+     *
+     * @param executor 线程池
+     */
+    static void remove(SwThreadPoolExecutor executor) {
+        EXECUTORS.remove(executor.getName(), executor);
+    }
+
+    private static SwThreadPoolExecutor getExecutor(String name) {
+        if (CPU.equals(name)) {
+            return CpuHolder.EXECUTOR;
+        }
+        if (IO.equals(name)) {
+            return IoHolder.EXECUTOR;
+        }
+        SwThreadPoolExecutor executor = EXECUTORS.get(name);
+        if (executor == null) {
+            throw new IllegalArgumentException("executor not registered: " + name);
+        }
+        return executor;
+    }
+
+    private static SwThreadPoolExecutor createDefault(String name, SwExecutorConfig config) {
+        SwThreadPoolExecutor executor = SwThreadPoolExecutor.of(name, config);
+        EXECUTORS.put(name, executor);
+        return executor;
+    }
+
+    private static final class CpuHolder {
+
+        private static final SwThreadPoolExecutor EXECUTOR = createDefault(CPU, SwExecutorConfig.cpu());
+    }
+
+    private static final class IoHolder {
+
+        private static final SwThreadPoolExecutor EXECUTOR = createDefault(IO, SwExecutorConfig.io());
+    }
+
+    private static final class VirtualHolder {
+
+        private static final ExecutorService EXECUTOR = VirtualThreads.isSupported()
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor() : io();
+    }
+}
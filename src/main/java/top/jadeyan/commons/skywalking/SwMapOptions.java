@@ -0,0 +1,149 @@
+package top.jadeyan.commons.skywalking;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * skywalking 并行映射的限流配置
+ * <p>
+ * 限制同时执行的任务数和每秒提交的任务数, 并给每个元素设置超时时间和降级值。
+ * 许可和令牌都由提交任务的线程等待, 不占用线程池线程。限流状态保存在配置对象中,
+ * 调用同一个下游服务的多次映射可以共用一个配置对象, 共享同一份限流。
+ * <pre>
+ * SwMapOptions&lt;Long, Quote&gt; options = SwMapOptions.&lt;Long, Quote&gt;of()
+ *         .maxInFlight(16)
+ *         .rateLimit(200)
+ *         .timeout(300, TimeUnit.MILLISECONDS, Quote::empty);
+ * List&lt;Quote&gt; quotes = SwCollectionWrapper.of(bondIds).parallel().mapToList(quoteService::getQuote, options);
+ * </pre>
+ *
+ * @param <T> 元素类型
+ * @param <R> 映射结果类型
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class SwMapOptions<T, R> {
+
+    private Semaphore inFlightPermits;
+
+    private TokenBucket tokenBucket;
+
+    private long timeoutNanos;
+
+    private Function<? super T, ? extends R> fallback;
+
+    private SwMapOptions() {
+    }
+
+    /**
+     * 创建配置, 默认不限流, 不超时
+     *
+     * @param <T> 元素类型
+     * @param <R> 映射结果类型
+     * @return 配置
+     */
+    public static <T, R> SwMapOptions<T, R> of() {
+        return new SwMapOptions<>();
+    }
+
+    /**
+     * 设置同时执行的最大任务数
+     *
+     * @param maxInFlight 最大任务数
+     * @return 当前对象
+     */
+    public SwMapOptions<T, R> maxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        return this;
+    }
+
+    /**
+     * 设置每秒最多提交的任务数, 不允许突发
+     *
+     * @param permitsPerSecond 每秒任务数
+     * @return 当前对象
+     */
+    public SwMapOptions<T, R> rateLimit(double permitsPerSecond) {
+        return rateLimit(permitsPerSecond, 1);
+    }
+
+    /**
+     * 设置每秒最多提交的任务数
+     *
+     * @param permitsPerSecond 每秒任务数
+     * @param burst            空闲后最多可以连续提交的任务数
+     * @return 当前对象
+     */
+    public SwMapOptions<T, R> rateLimit(double permitsPerSecond, int burst) {
+        this.tokenBucket = new TokenBucket(permitsPerSecond, burst);
+        return this;
+    }
+
+    /**
+     * 设置每个元素的超时时间, 从任务开始执行时计算, 超时后中断任务并抛出异常
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 当前对象
+     */
+    public SwMapOptions<T, R> timeout(long timeout, TimeUnit unit) {
+        return timeout(timeout, unit, null);
+    }
+
+    /**
+     * 设置每个元素的超时时间, 从任务开始执行时计算, 超时后中断任务并使用降级值
+     *
+     * @param timeout  超时时间
+     * @param unit     时间单位
+     * @param fallback 降级值, 参数为超时的元素
+     * @return 当前对象
+     */
+    public SwMapOptions<T, R> timeout(long timeout, TimeUnit unit, Function<? super T, ? extends R> fallback) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.fallback = fallback;
+        return this;
+    }
+
+    /**
+     * 在当前线程等待许可和令牌
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    void acquire() throws InterruptedException {
+        if (inFlightPermits != null) {
+            inFlightPermits.acquire();
+        }
+        if (tokenBucket != null) {
+            try {
+                tokenBucket.acquire();
+            } catch (InterruptedException e) {
+                release();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 任务结束, 归还许可
+     */
+    void release() {
+        if (inFlightPermits != null) {
+            inFlightPermits.release();
+        }
+    }
+
+    long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    Function<? super T, ? extends R> getFallback() {
+        return fallback;
+    }
+}
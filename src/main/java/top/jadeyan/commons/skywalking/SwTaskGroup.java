@@ -0,0 +1,305 @@
+package top.jadeyan.commons.skywalking;
+
+import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * skywalking 任务组
+ * <p>
+ * 一组任务同生共死: 任意一个任务失败或者超过整体截止时间时, 取消组内其他任务并抛出异常。
+ * 可以限制同时执行的任务数, 超出的任务在组内排队, 在 join 或 forEachCompleted 取走前面任务的结果时才提交到线程池,
+ * 只 fork 不等待时排队的任务不会执行。
+ * 结果可以按完成顺序逐个消费, 不会被最慢的任务阻塞。任务提交时用 {@link CallableWrapper} 包装, 传递链路,
+ * 提交到 {@link SwThreadPoolExecutor} 时由线程池传递链路, 不再包装。
+ * <p>
+ * 任务组不是线程安全的, fork 和 join 都应该在创建任务组的线程中调用。
+ * <pre>
+ * try (SwTaskGroup&lt;Quote&gt; group = SwTaskGroup.&lt;Quote&gt;of(executorService).timeout(500, TimeUnit.MILLISECONDS)) {
+ *     bondIds.forEach(id -&gt; group.fork(id, quoteService::getQuote));
+ *     group.forEachCompleted(quotes::add);
+ * }
+ * </pre>
+ *
+ * @param <T> 任务返回类型
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class SwTaskGroup<T> implements AutoCloseable {
+
+    private final ExecutorService executorService;
+
+    private final List<GroupTask> tasks = new ArrayList<>();
+
+    /**
+     * 超过并发数, 等待提交的任务
+     */
+    private final Deque<GroupTask> waitingTasks = new ArrayDeque<>();
+
+    /**
+     * 已完成的任务, 按完成顺序
+     */
+    private final BlockingQueue<GroupTask> completedTasks = new LinkedBlockingQueue<>();
+
+    private int maxConcurrency = Integer.MAX_VALUE;
+
+    private long deadlineNanos;
+
+    private boolean hasDeadline;
+
+    private int runningSize;
+
+    private int consumedSize;
+
+    private boolean cancelled;
+
+    private SwTaskGroup(ExecutorService executorService) {
+        this.executorService = Objects.requireNonNull(executorService, "executorService cannot be null");
+    }
+
+    /**
+     * 创建任务组, 使用 {@link SwExecutors#io()} 线程池
+     *
+     * @param <T> 任务返回类型
+     * @return 任务组
+     */
+    public static <T> SwTaskGroup<T> of() {
+        return new SwTaskGroup<>(SwExecutors.io());
+    }
+
+    /**
+     * 创建任务组
+     *
+     * @param executorService 线程池
+     * @param <T>             任务返回类型
+     * @return 任务组
+     */
+    public static <T> SwTaskGroup<T> of(ExecutorService executorService) {
+        return new SwTaskGroup<>(executorService);
+    }
+
+    /**
+     * 设置同时执行的最大任务数
+     *
+     * @param maxConcurrency 最大任务数
+     * @return 当前对象
+     */
+    public SwTaskGroup<T> maxConcurrency(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * 设置整体超时时间, 从调用时开始计算
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 当前对象
+     */
+    public SwTaskGroup<T> timeout(long timeout, TimeUnit unit) {
+        this.deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        this.hasDeadline = true;
+        return this;
+    }
+
+    /**
+     * 添加任务
+     *
+     * @param supplier 任务
+     * @return 当前对象
+     * @throws java.util.concurrent.RejectedExecutionException 线程池拒绝执行时抛出, 任务不会加入任务组
+     */
+    public SwTaskGroup<T> fork(Supplier<? extends T> supplier) {
+        checkNotCancelled();
+        Callable<T> callable = supplier::get;
+        if (!SwThreadPoolExecutor.isTraced(executorService)) {
+            callable = new CallableWrapper<>(callable);
+        }
+        GroupTask task = new GroupTask(callable, tasks.size());
+        if (runningSize < maxConcurrency) {
+            // 线程池拒绝时抛出异常, 任务不加入任务组
+            start(task);
+            tasks.add(task);
+        } else {
+            tasks.add(task);
+            waitingTasks.add(task);
+        }
+        return this;
+    }
+
+    /**
+     * 添加任务
+     *
+     * @param runnable 任务
+     * @return 当前对象
+     */
+    public SwTaskGroup<T> fork(Runnable runnable) {
+        return fork(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 添加任务
+     *
+     * @param parameter 参数
+     * @param func      任务
+     * @param <P>       参数类型
+     * @return 当前对象
+     */
+    public <P> SwTaskGroup<T> fork(P parameter, Function<P, ? extends T> func) {
+        return fork(() -> func.apply(parameter));
+    }
+
+    /**
+     * 按完成顺序消费任务结果, 任意任务失败或者超时时取消其他任务并抛出 {@link ThreadRuntimeException}
+     *
+     * @param consumer 结果消费者
+     */
+    public void forEachCompleted(Consumer<? super T> consumer) {
+        awaitAll((index, value) -> consumer.accept(value));
+    }
+
+    /**
+     * 等待所有任务完成, 结果按完成顺序返回
+     *
+     * @return 任务结果
+     */
+    public List<T> joinInCompletionOrder() {
+        List<T> result = new ArrayList<>(tasks.size());
+        forEachCompleted(result::add);
+        return result;
+    }
+
+    /**
+     * 等待所有任务完成, 结果按添加顺序返回
+     *
+     * @return 任务结果, 可以修改
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> join() {
+        Object[] result = new Object[tasks.size()];
+        awaitAll((index, value) -> result[index] = value);
+        return new ArrayList<>((List<T>) Arrays.asList(result));
+    }
+
+    /**
+     * 取消所有未完成的任务
+     */
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void awaitAll(IndexedConsumer<? super T> consumer) {
+        checkNotCancelled();
+        try {
+            while (consumedSize < tasks.size()) {
+                GroupTask task = takeCompleted();
+                consumedSize++;
+                runningSize--;
+                startWaiting();
+                consumer.accept(task.index, task.get());
+            }
+        } catch (ExecutionException e) {
+            cancelAll();
+            throw new ThreadRuntimeException("task group error", e.getCause());
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new ThreadRuntimeException("task group interrupted", e);
+        } catch (RuntimeException e) {
+            cancelAll();
+            throw e;
+        }
+    }
+
+    private GroupTask takeCompleted() throws InterruptedException {
+        if (!hasDeadline) {
+            return completedTasks.take();
+        }
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        GroupTask task = remainingNanos > 0 ? completedTasks.poll(remainingNanos, TimeUnit.NANOSECONDS) : completedTasks.poll();
+        if (task == null) {
+            throw new ThreadRuntimeException("task group deadline exceeded", new TimeoutException());
+        }
+        return task;
+    }
+
+    private void start(GroupTask task) {
+        executorService.execute(task);
+        runningSize++;
+    }
+
+    private void startWaiting() {
+        while (runningSize < maxConcurrency && !waitingTasks.isEmpty()) {
+            start(waitingTasks.poll());
+        }
+    }
+
+    private void cancelAll() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        waitingTasks.clear();
+        for (GroupTask task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    private void checkNotCancelled() {
+        if (cancelled) {
+            throw new CancellationException("task group already cancelled");
+        }
+    }
+
+    /**
+     * 带下标的结果消费者
+     */
+    @FunctionalInterface
+    private interface IndexedConsumer<T> {
+
+        void accept(int index, T value);
+    }
+
+    /**
+     * 完成时放入完成队列的任务
+     */
+    private final class GroupTask extends FutureTask<T> {
+
+        private final int index;
+
+        private GroupTask(Callable<T> callable, int index) {
+            super(callable);
+            this.index = index;
+        }
+
+        @Override
+        protected void done() {
+            completedTasks.add(this);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package top.jadeyan.commons.skywalking;
+
+import org.apache.skywalking.apm.toolkit.trace.TraceCrossThread;
+import top.jadeyan.commons.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带统计和链路传递的 skywalking 线程池
+ * <p>
+ * 有界队列, 队列满时按配置由调用线程执行或者拒绝。链路传递和耗时统计由线程池统一处理, 提交方不需要再逐个用 wrapper 包装。
+ * submit/invokeAll 创建的 {@link FutureTask} 本身就传递链路和统计耗时, 不再额外包装;
+ * 只有直接传给 {@link #execute(Runnable)} 的普通任务才包装一层, 每个任务最多一个包装对象。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class SwThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private final String name;
+
+    private final LongAdder rejectedCount;
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+
+    private SwThreadPoolExecutor(String name, SwExecutorConfig config, LongAdder rejectedCount) {
+        super(config.getCorePoolSize(), config.getMaxPoolSize(), config.getKeepAliveMillis(), TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()), new NamedThreadFactory(name),
+                new CountingRejectedHandler(config.getRejectPolicy(), rejectedCount));
+        this.name = name;
+        this.rejectedCount = rejectedCount;
+        allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 创建线程池
+     *
+     * @param name   线程池名称, 同时作为线程名前缀
+     * @param config 配置
+     * @return 线程池
+     */
+    public static SwThreadPoolExecutor of(String name, SwExecutorConfig config) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name cannot be empty");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("config cannot be null");
+        }
+        return new SwThreadPoolExecutor(name, config, new LongAdder());
+    }
+
+    /**
+     * 是否是已经传递链路的线程池, 提交到这种线程池的任务不需要再包装
+     *
+     * @param executorService 线程池
+     * @return true 已经传递链路
+     */
+    static boolean isTraced(ExecutorService executorService) {
+        return executorService instanceof SwThreadPoolExecutor;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        super.execute(command instanceof TracedFutureTask ? command : new TracedTask(command));
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new TracedFutureTask<>(Executors.callable(runnable, value));
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new TracedFutureTask<>(callable);
+    }
+
+    /**
+     * 立即关闭线程池
+     *
+     * @return 未执行的任务, 返回提交时的原始任务, submit 提交的任务返回 submit 得到的 Future
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = super.shutdownNow();
+        List<Runnable> result = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            result.add(task instanceof TracedTask ? ((TracedTask) task).task : task);
+        }
+        return result;
+    }
+
+    @Override
+    protected void terminated() {
+        super.terminated();
+        SwExecutors.remove(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取线程池统计
+     *
+     * @return 统计
+     */
+    public SwExecutorMetrics getMetrics() {
+        return new SwExecutorMetrics(name, getPoolSize(), getActiveCount(), getQueue().size(),
+                getQueue().remainingCapacity(), getCompletedTaskCount(), rejectedCount.sum(),
+                waitTime.snapshot(), executionTime.snapshot());
+    }
+
+    private void runTimed(long submitNanos, Runnable task) {
+        long startNanos = System.nanoTime();
+        waitTime.record(startNanos - submitNanos);
+        try {
+            task.run();
+        } finally {
+            executionTime.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * 包装 execute 提交的普通任务, skywalking agent 在构造时捕获链路, 在 run 中延续链路
+     */
+    @TraceCrossThread
+    private final class TracedTask implements Runnable {
+
+        private final Runnable task;
+
+        private final long submitNanos = System.nanoTime();
+
+        private TracedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            runTimed(submitNanos, task);
+        }
+    }
+
+    /**
+     * submit 创建的任务, 本身传递链路和统计耗时
+     */
+    @TraceCrossThread
+    private final class TracedFutureTask<T> extends FutureTask<T> {
+
+        private final long submitNanos = System.nanoTime();
+
+        private TracedFutureTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            runTimed(submitNanos, super::run);
+        }
+    }
+
+    /**
+     * 统计拒绝次数, 调用线程执行的也算作拒绝
+     */
+    private static final class CountingRejectedHandler implements RejectedExecutionHandler {
+
+        private final RejectedExecutionHandler delegate;
+
+        private final LongAdder rejectedCount;
+
+        private CountingRejectedHandler(SwExecutorConfig.RejectPolicy rejectPolicy, LongAdder rejectedCount) {
+            this.delegate = rejectPolicy == SwExecutorConfig.RejectPolicy.CALLER_RUNS
+                    ? new CallerRunsPolicy() : new AbortPolicy();
+            this.rejectedCount = rejectedCount;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            rejectedCount.increment();
+            delegate.rejectedExecution(r, executor);
+        }
+    }
+
+    /**
+     * 命名的守护线程工厂
+     */
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private NamedThreadFactory(String name) {
+            this.prefix = "sw-" + name + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package top.jadeyan.commons.skywalking;
 
 import top.jadeyan.commons.exception.ThreadRuntimeException;
-import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
 import org.apache.skywalking.apm.toolkit.trace.SupplierWrapper;
 
 import java.util.ArrayList;
@@ -13,13 +12,16 @@ import java.util.function.Supplier;
 
 /**
  * skywalking 线程池工作者
+ * <p>
+ * 默认使用 {@link SwExecutors#io()} 线程池, 开启 {@link SwExecutors#VIRTUAL_WORKER_PROPERTY} 并且运行在 Java 21 及以上时使用虚拟线程。
+ * 提交到 {@link SwThreadPoolExecutor} 时由线程池传递链路, 其他线程池逐个任务包装。
  *
  * @param <T> 类型
  * @author yan
  */
 public final class SwThreadPoolWorker<T> {
 
-    private ExecutorService executorService = ForkJoinPool.commonPool();
+    private ExecutorService executorService = SwExecutors.defaultWorkerExecutor();
 
     private final List<Supplier<? extends T>> supplierList = new ArrayList<>();
 
@@ -128,8 +130,7 @@ public final class SwThreadPoolWorker<T> {
      */
     public <P, R> CompletableFuture<R> submit(P parameter, Function<P, R> func) {
         Supplier<R> supplier = () -> func.apply(parameter);
-        SupplierWrapper<R> supplierWrapper = new SupplierWrapper<>(supplier);
-        return CompletableFuture.supplyAsync(supplierWrapper, executorService);
+        return CompletableFuture.supplyAsync(wrap(supplier), executorService);
     }
 
     /**
@@ -145,8 +146,7 @@ public final class SwThreadPoolWorker<T> {
             consumer.accept(parameter);
             return null;
         };
-        SupplierWrapper<Void> supplierWrapper = new SupplierWrapper<>(supplier);
-        return CompletableFuture.supplyAsync(supplierWrapper, executorService);
+        return CompletableFuture.supplyAsync(wrap(supplier), executorService);
     }
 
     /**
@@ -157,8 +157,7 @@ public final class SwThreadPoolWorker<T> {
      * @return 工作结果
      */
     public <R> CompletableFuture<R> submit(Supplier<R> supplier) {
-        SupplierWrapper<R> supplierWrapper = new SupplierWrapper<>(supplier);
-        return CompletableFuture.supplyAsync(supplierWrapper, executorService);
+        return CompletableFuture.supplyAsync(wrap(supplier), executorService);
     }
 
     /**
@@ -172,8 +171,7 @@ public final class SwThreadPoolWorker<T> {
             runnable.run();
             return null;
         };
-        SupplierWrapper<Void> supplierWrapper = new SupplierWrapper<>(supplier);
-        return CompletableFuture.supplyAsync(supplierWrapper, executorService);
+        return CompletableFuture.supplyAsync(wrap(supplier), executorService);
     }
 
     /**
@@ -186,25 +184,37 @@ public final class SwThreadPoolWorker<T> {
     }
 
     /**
-     * 执行工作
+     * 执行工作, 任意一个工作失败时取消其他工作
      *
-     * @return 各个工作的返回值
+     * @return 各个工作的返回值, 按添加顺序
+     * @throws ThreadRuntimeException 工作失败时 cause 为 {@link ExecutionException}, 被中断、拒绝或取消时为对应的异常
      */
     public List<T> doWorks() {
-        try {
-            List<Callable<T>> taskList = new ArrayList<>();
-            for (Supplier<? extends T> supplier : supplierList) {
-                CallableWrapper<T> callableWrapper = new CallableWrapper<>(supplier::get);
-                taskList.add(callableWrapper);
-            }
-            List<Future<T>> futures = executorService.invokeAll(taskList);
-            List<T> result = new ArrayList<>();
-            for (Future<T> future : futures) {
-                result.add(future.get());
-            }
-            return result;
-        } catch (Exception ex) {
+        try (SwTaskGroup<T> taskGroup = newTaskGroup()) {
+            supplierList.forEach(taskGroup::fork);
+            return taskGroup.join();
+        } catch (ThreadRuntimeException ex) {
+            // 与 Future.get 一致, 任务抛出的异常包装在 ExecutionException 中
+            Throwable cause = ex.getCause();
+            throw new ThreadRuntimeException("doWorks error",
+                    cause instanceof InterruptedException ? cause : new ExecutionException(cause));
+        } catch (RuntimeException ex) {
+            // 线程池拒绝、任务被取消
             throw new ThreadRuntimeException("doWorks error", ex);
         }
     }
+
+    /**
+     * 创建使用当前线程池的任务组
+     *
+     * @return 任务组
+     */
+    public SwTaskGroup<T> newTaskGroup() {
+        return SwTaskGroup.of(executorService);
+    }
+
+    private <R> Supplier<R> wrap(Supplier<R> supplier) {
+        // 线程池已经传递链路时不再包装
+        return SwThreadPoolExecutor.isTraced(executorService) ? supplier : new SupplierWrapper<>(supplier);
+    }
 }
@@ -0,0 +1,60 @@
+package top.jadeyan.commons.skywalking;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶
+ * <p>
+ * 按固定速率补充令牌, 最多积攒 burst 个。令牌不足时预支, 由调用方睡眠到令牌补齐, 不占用线程池线程。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class TokenBucket {
+
+    private final double nanosPerToken;
+
+    private final double capacity;
+
+    private double tokens;
+
+    private long lastRefillNanos;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取一个令牌, 令牌不足时在当前线程等待
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 预支一个令牌
+     *
+     * @param nowNanos 当前时间
+     * @return 需要等待的纳秒数, 0 表示不需要等待
+     */
+    synchronized long reserve(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) / nanosPerToken);
+        lastRefillNanos = nowNanos;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken);
+    }
+}
@@ -0,0 +1,37 @@
+package top.jadeyan.commons.skywalking;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 虚拟线程支持
+ * <p>
+ * Java 8 版本, 不支持虚拟线程。Java 21 及以上使用 src/main/java21 下的同名类, 打包在多版本 jar 的 META-INF/versions/21 中。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     *
+     * @return false
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     * <p>
+     * 不支持虚拟线程, 返回平台线程的 io 线程池
+     *
+     * @return 执行器
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return SwExecutors.io();
+    }
+}
@@ -0,0 +1,210 @@
+package top.jadeyan.commons.utils;
+
+import java.beans.Introspector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 字段级变更检测
+ * <p>
+ * 按类收集所有 public 的 get/is 方法, 编译成 {@link MethodHandle} 后缓存在 {@link ClassValue} 中, 比较时不再走反射。
+ * 字段值按 equals 比较, {@link BigDecimal} 按数值比较(忽略精度), 数组按内容比较。
+ * <pre>
+ * FieldChangeDetector&lt;User&gt; detector = FieldChangeDetector.of(User.class).ignoring("updateTime");
+ * if (detector.isModified(oldUser, newUser)) {
+ *     userMapper.updateFields(newUser, detector.changedFields(oldUser, newUser));
+ * }
+ * </pre>
+ *
+ * @param <T> 类型
+ * @author yan
+ * @date 2026/10/18
+ */
+public final class FieldChangeDetector<T> {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<FieldChangeDetector<?>> DETECTORS = new ClassValue<FieldChangeDetector<?>>() {
+        @Override
+        protected FieldChangeDetector<?> computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private final Class<T> type;
+
+    private final String[] fieldNames;
+
+    private final MethodHandle[] getters;
+
+    private FieldChangeDetector(Class<T> type, String[] fieldNames, MethodHandle[] getters) {
+        this.type = type;
+        this.fieldNames = fieldNames;
+        this.getters = getters;
+    }
+
+    /**
+     * 获取类的变更检测器, 每个类只编译一次
+     *
+     * @param type 类
+     * @param <T>  类型
+     * @return 变更检测器, 也可以比较子类对象, 只比较 type 上的字段
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> FieldChangeDetector<T> of(Class<T> type) {
+        return (FieldChangeDetector<T>) DETECTORS.get(type);
+    }
+
+    /**
+     * 忽略部分字段, 如更新时间、版本号
+     *
+     * @param ignoredFields 忽略的字段名
+     * @return 新的检测器
+     */
+    public FieldChangeDetector<T> ignoring(String... ignoredFields) {
+        Set<String> ignored = new HashSet<>(Arrays.asList(ignoredFields));
+        List<String> names = new ArrayList<>(fieldNames.length);
+        List<MethodHandle> handles = new ArrayList<>(fieldNames.length);
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (!ignored.contains(fieldNames[i])) {
+                names.add(fieldNames[i]);
+                handles.add(getters[i]);
+            }
+        }
+        return new FieldChangeDetector<>(type, names.toArray(new String[0]), handles.toArray(new MethodHandle[0]));
+    }
+
+    /**
+     * 是否有字段变化, 遇到第一个变化的字段即返回
+     *
+     * @param oldItem 旧对象
+     * @param newItem 新对象
+     * @return true 有变化
+     */
+    public boolean isModified(T oldItem, T newItem) {
+        if (oldItem == newItem) {
+            return false;
+        }
+        if (oldItem == null || newItem == null) {
+            return true;
+        }
+        for (MethodHandle getter : getters) {
+            if (!valueEquals(get(getter, oldItem), get(getter, newItem))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 变化的字段
+     *
+     * @param oldItem 旧对象
+     * @param newItem 新对象
+     * @return 变化的字段名, 按字段名排序; 没有变化时为空集合, 有一个对象为 null 时返回所有字段
+     */
+    public List<String> changedFields(T oldItem, T newItem) {
+        if (oldItem == newItem) {
+            return Collections.emptyList();
+        }
+        if (oldItem == null || newItem == null) {
+            return getFieldNames();
+        }
+        List<String> changed = null;
+        for (int i = 0; i < getters.length; i++) {
+            if (!valueEquals(get(getters[i], oldItem), get(getters[i], newItem))) {
+                if (changed == null) {
+                    changed = new ArrayList<>(getters.length - i);
+                }
+                changed.add(fieldNames[i]);
+            }
+        }
+        return changed == null ? Collections.emptyList() : changed;
+    }
+
+    /**
+     * 参与比较的字段
+     *
+     * @return 字段名, 按字段名排序
+     */
+    public List<String> getFieldNames() {
+        return Collections.unmodifiableList(Arrays.asList(fieldNames));
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    private static boolean valueEquals(Object value1, Object value2) {
+        if (value1 == value2) {
+            return true;
+        }
+        if (value1 == null || value2 == null) {
+            return false;
+        }
+        if (value1 instanceof BigDecimal && value2 instanceof BigDecimal) {
+            return ((BigDecimal) value1).compareTo((BigDecimal) value2) == 0;
+        }
+        if (value1.getClass().isArray()) {
+            return Objects.deepEquals(value1, value2);
+        }
+        return value1.equals(value2);
+    }
+
+    private static Object get(MethodHandle getter, Object obj) {
+        try {
+            return getter.invokeExact(obj);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> FieldChangeDetector<T> compile(Class<T> type) {
+        // 按字段名排序, 输出稳定
+        TreeMap<String, MethodHandle> properties = new TreeMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Method method : type.getMethods()) {
+            String fieldName = fieldName(method);
+            if (fieldName == null || properties.containsKey(fieldName)) {
+                continue;
+            }
+            try {
+                method.setAccessible(true);
+                properties.put(fieldName, lookup.unreflect(method).asType(GETTER_TYPE));
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException("cannot access " + method + " of " + type.getName(), e);
+            }
+        }
+        return new FieldChangeDetector<>(type, properties.keySet().toArray(new String[0]),
+                properties.values().toArray(new MethodHandle[0]));
+    }
+
+    private static String fieldName(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3 && method.getReturnType() != void.class) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return null;
+    }
+}
@@ -8,10 +8,13 @@ import org.springframework.util.Assert;
 import top.jadeyan.commons.exception.BusinessException;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.text.NumberFormat;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import static java.lang.String.format;
 
@@ -25,6 +28,7 @@ public class ListUtils {
 
     private static final Log logger = LogFactory.getLog(ListUtils.class);
     private static final String MESSAGE = "comparator cannot be null";
+    private static final String KEY_MESSAGE = "keyExtractor cannot be null";
     private static final List EMPTY_LIST = Collections.emptyList();
 
     /**
@@ -40,6 +44,23 @@ public class ListUtils {
      */
     public static <T> ListDiffResult<T> diff(List<T> oldList, List<T> newList,
                                              Comparator<T> comparator) {
+        return diff(oldList, newList, comparator, null);
+    }
+
+    /**
+     * diff 并按字段区分修改和未修改的元素
+     * <p>
+     * 匹配上的元素中只有字段有变化的放入 updatedList, 其余放入 unchangedList, 变化的字段见 {@link ListDiffResult#getChanges()}
+     *
+     * @param <T>        类型
+     * @param oldList    旧集合数据
+     * @param newList    新集合数据
+     * @param comparator 比较器，判断新旧集合中的两个元素是否属于同一元素。
+     * @param detector   字段变更检测器, 为 null 时匹配上的元素都视为更新
+     * @return 类型
+     */
+    public static <T> ListDiffResult<T> diff(List<T> oldList, List<T> newList,
+                                             Comparator<T> comparator, FieldChangeDetector<? super T> detector) {
 
         // 如果oldList为空，则所有元素是新增的，没有删除和更新的
         if (CollectionUtils.isEmpty(oldList)) {
@@ -52,11 +73,9 @@ public class ListUtils {
 
         Assert.notNull(comparator, MESSAGE);
 
-        List<T> updatedList = new ArrayList<>(oldList.size());
+        DiffCollector<T> collector = new DiffCollector<>(oldList.size(), newList.size(), detector);
         // 方便快速查询
         Set<T> updateSet = new HashSet<>(oldList.size());
-        List<T> deletedList = new ArrayList<>(oldList.size());
-        List<T> addedList = new ArrayList<>(oldList.size());
 
         // 获取更新元素
         for (T v : oldList) {
@@ -64,7 +83,7 @@ public class ListUtils {
             boolean flag = false;
             for (T k : newList) {
                 if (comparator.isSame(v, k)) {
-                    updatedList.add(k);
+                    collector.onUpdated(v, k);
                     updateSet.add(v);
                     updateSet.add(k);
                     flag = true;
@@ -72,16 +91,16 @@ public class ListUtils {
                 }
             }
             if (!flag) {
-                deletedList.add(v);
+                collector.onDeleted(v);
             }
         }
         // 过滤新增元素
         newList.forEach(v -> {
             if (!updateSet.contains(v)) {
-                addedList.add(v);
+                collector.onAdded(v);
             }
         });
-        return new ListDiffResult<>(addedList, updatedList, deletedList);
+        return collector.toResult();
     }
 
 
@@ -153,6 +172,401 @@ public class ListUtils {
         return result;
     }
 
+    /**
+     * 按键 diff, 用哈希索引代替两两比较, 复杂度 O(n+m)
+     * <p>
+     * 键相同的新旧元素按出现顺序一一配对, 旧集合中多出的重复键视为删除, 新集合中多出的重复键视为新增。
+     *
+     * @param oldList      旧集合数据
+     * @param newList      新集合数据
+     * @param keyExtractor 键提取, 如 {@code User::getId}, 多个字段用 {@link #compositeKey(Function[])}
+     * @param <T>          类型
+     * @param <K>          键类型
+     * @return 新增、更新(新集合中的元素, 按新集合的顺序)和删除的集合
+     */
+    public static <T, K> ListDiffResult<T> diffByKey(List<T> oldList, List<T> newList,
+                                                     Function<? super T, K> keyExtractor) {
+        return diffByKey(oldList, newList, keyExtractor, (FieldChangeDetector<? super T>) null);
+    }
+
+    /**
+     * 按键 diff 并按字段区分修改和未修改的元素
+     *
+     * @param oldList      旧集合数据
+     * @param newList      新集合数据
+     * @param keyExtractor 键提取
+     * @param detector     字段变更检测器, 为 null 时匹配上的元素都视为更新
+     * @param <T>          类型
+     * @param <K>          键类型
+     * @return 新增、修改、未修改和删除的集合
+     * @see #diff(List, List, Comparator, FieldChangeDetector)
+     */
+    public static <T, K> ListDiffResult<T> diffByKey(List<T> oldList, List<T> newList,
+                                                     Function<? super T, K> keyExtractor,
+                                                     FieldChangeDetector<? super T> detector) {
+        if (CollectionUtils.isEmpty(oldList)) {
+            return new ListDiffResult<>(newList, EMPTY_LIST, EMPTY_LIST);
+        }
+        if (CollectionUtils.isEmpty(newList)) {
+            return new ListDiffResult<>(EMPTY_LIST, EMPTY_LIST, oldList);
+        }
+        Assert.notNull(keyExtractor, KEY_MESSAGE);
+        DiffCollector<T> collector = new DiffCollector<>(oldList.size(), newList.size(), detector);
+        diffByKey(oldList, newList, keyExtractor, collector);
+        return collector.toResult();
+    }
+
+    /**
+     * 按键流式 diff, 结果直接回调处理器, 不生成中间集合
+     * <p>
+     * 只为旧集合建索引, 新数据可以来自数据库游标等只能遍历一次的来源。
+     * 新数据遍历过程中回调新增和更新, 遍历结束后按旧集合顺序回调删除。
+     *
+     * @param oldList      旧集合数据
+     * @param newItems     新数据
+     * @param keyExtractor 键提取
+     * @param handler      结果处理器
+     * @param <T>          类型
+     * @param <K>          键类型
+     */
+    public static <T, K> void diffByKey(List<T> oldList, Iterable<? extends T> newItems,
+                                        Function<? super T, K> keyExtractor, DiffHandler<? super T> handler) {
+        Assert.notNull(keyExtractor, KEY_MESSAGE);
+        Object[] olds = oldList.toArray();
+        // 索引指向每个键未配对的第一个旧下标, next 把同一个键的旧下标按顺序串成队列
+        Map<K, Integer> index = new HashMap<>(Math.max(16, (int) (olds.length / 0.75f) + 1));
+        int[] next = new int[olds.length];
+        for (int i = olds.length - 1; i >= 0; i--) {
+            Integer head = index.put(keyExtractor.apply(element(olds, i)), i);
+            next[i] = head == null ? -1 : head;
+        }
+        diffIndexed(olds, newItems, item -> {
+            K key = keyExtractor.apply(item);
+            Integer i = index.get(key);
+            if (i == null) {
+                return -1;
+            }
+            if (next[i] >= 0) {
+                index.put(key, next[i]);
+            }
+            return i;
+        }, handler);
+    }
+
+    /**
+     * 按 long 键 diff, 建索引和查找都不装箱, 适合按数字主键比较的大集合
+     *
+     * @param oldList      旧集合数据
+     * @param newList      新集合数据
+     * @param keyExtractor 键提取, 如 {@code User::getId}
+     * @param <T>          类型
+     * @return 新增、更新(新集合中的元素, 按新集合的顺序)和删除的集合
+     * @see #diffByKey(List, List, Function)
+     */
+    public static <T> ListDiffResult<T> diffByLong(List<T> oldList, List<T> newList,
+                                                   ToLongFunction<? super T> keyExtractor) {
+        return diffByLong(oldList, newList, keyExtractor, (FieldChangeDetector<? super T>) null);
+    }
+
+    /**
+     * 按 long 键 diff 并按字段区分修改和未修改的元素
+     *
+     * @param oldList      旧集合数据
+     * @param newList      新集合数据
+     * @param keyExtractor 键提取
+     * @param detector     字段变更检测器, 为 null 时匹配上的元素都视为更新
+     * @param <T>          类型
+     * @return 新增、修改、未修改和删除的集合
+     * @see #diff(List, List, Comparator, FieldChangeDetector)
+     */
+    public static <T> ListDiffResult<T> diffByLong(List<T> oldList, List<T> newList,
+                                                   ToLongFunction<? super T> keyExtractor,
+                                                   FieldChangeDetector<? super T> detector) {
+        if (CollectionUtils.isEmpty(oldList)) {
+            return new ListDiffResult<>(newList, EMPTY_LIST, EMPTY_LIST);
+        }
+        if (CollectionUtils.isEmpty(newList)) {
+            return new ListDiffResult<>(EMPTY_LIST, EMPTY_LIST, oldList);
+        }
+        Assert.notNull(keyExtractor, KEY_MESSAGE);
+        DiffCollector<T> collector = new DiffCollector<>(oldList.size(), newList.size(), detector);
+        diffByLong(oldList, newList, keyExtractor, collector);
+        return collector.toResult();
+    }
+
+    /**
+     * 按 long 键流式 diff
+     *
+     * @param oldList      旧集合数据
+     * @param newItems     新数据
+     * @param keyExtractor 键提取
+     * @param handler      结果处理器
+     * @param <T>          类型
+     * @see #diffByKey(List, Iterable, Function, DiffHandler)
+     */
+    public static <T> void diffByLong(List<T> oldList, Iterable<? extends T> newItems,
+                                      ToLongFunction<? super T> keyExtractor, DiffHandler<? super T> handler) {
+        Assert.notNull(keyExtractor, KEY_MESSAGE);
+        Object[] olds = oldList.toArray();
+        LongIndex index = new LongIndex(olds.length);
+        int[] next = new int[olds.length];
+        for (int i = olds.length - 1; i >= 0; i--) {
+            next[i] = index.put(keyExtractor.applyAsLong(element(olds, i)), i);
+        }
+        diffIndexed(olds, newItems, item -> {
+            long key = keyExtractor.applyAsLong(item);
+            int i = index.get(key);
+            if (i >= 0 && next[i] >= 0) {
+                index.put(key, next[i]);
+            }
+            return i;
+        }, handler);
+    }
+
+    /**
+     * 对已按键排序的两个集合做归并 diff, 不建索引, 额外内存 O(1)
+     *
+     * @param oldList       旧集合数据, 按 keyComparator 升序
+     * @param newList       新集合数据, 按 keyComparator 升序
+     * @param keyComparator 键的比较器, 返回 0 表示同一元素
+     * @param <T>           类型
+     * @return 新增、更新(新集合中的元素)和删除的集合
+     */
+    public static <T> ListDiffResult<T> diffSorted(List<T> oldList, List<T> newList,
+                                                   java.util.Comparator<? super T> keyComparator) {
+        return diffSorted(oldList, newList, keyComparator, (FieldChangeDetector<? super T>) null);
+    }
+
+    /**
+     * 对已按键排序的两个集合做归并 diff, 并按字段区分修改和未修改的元素
+     *
+     * @param oldList       旧集合数据, 按 keyComparator 升序
+     * @param newList       新集合数据, 按 keyComparator 升序
+     * @param keyComparator 键的比较器, 返回 0 表示同一元素
+     * @param detector      字段变更检测器, 为 null 时匹配上的元素都视为更新
+     * @param <T>           类型
+     * @return 新增、修改、未修改和删除的集合
+     * @see #diff(List, List, Comparator, FieldChangeDetector)
+     */
+    public static <T> ListDiffResult<T> diffSorted(List<T> oldList, List<T> newList,
+                                                   java.util.Comparator<? super T> keyComparator,
+                                                   FieldChangeDetector<? super T> detector) {
+        if (CollectionUtils.isEmpty(oldList)) {
+            return new ListDiffResult<>(newList, EMPTY_LIST, EMPTY_LIST);
+        }
+        if (CollectionUtils.isEmpty(newList)) {
+            return new ListDiffResult<>(EMPTY_LIST, EMPTY_LIST, oldList);
+        }
+        DiffCollector<T> collector = new DiffCollector<>(oldList.size(), newList.size(), detector);
+        diffSorted(oldList, newList, keyComparator, collector);
+        return collector.toResult();
+    }
+
+    /**
+     * 对已按键排序的两个数据源做流式归并 diff, 两边都可以是数据库游标
+     *
+     * @param oldItems      旧数据, 按 keyComparator 升序
+     * @param newItems      新数据, 按 keyComparator 升序
+     * @param keyComparator 键的比较器, 返回 0 表示同一元素
+     * @param handler       结果处理器
+     * @param <T>           类型
+     * @throws IllegalArgumentException 数据没有按 keyComparator 升序
+     */
+    public static <T> void diffSorted(Iterable<? extends T> oldItems, Iterable<? extends T> newItems,
+                                      java.util.Comparator<? super T> keyComparator, DiffHandler<? super T> handler) {
+        Assert.notNull(keyComparator, MESSAGE);
+        SortedCursor<T> olds = new SortedCursor<>(oldItems.iterator(), keyComparator);
+        SortedCursor<T> news = new SortedCursor<>(newItems.iterator(), keyComparator);
+        while (olds.present && news.present) {
+            int ret = keyComparator.compare(olds.value, news.value);
+            if (ret < 0) {
+                handler.onDeleted(olds.value);
+                olds.advance();
+            } else if (ret > 0) {
+                handler.onAdded(news.value);
+                news.advance();
+            } else {
+                handler.onUpdated(olds.value, news.value);
+                olds.advance();
+                news.advance();
+            }
+        }
+        for (; olds.present; olds.advance()) {
+            handler.onDeleted(olds.value);
+        }
+        for (; news.present; news.advance()) {
+            handler.onAdded(news.value);
+        }
+    }
+
+    /**
+     * 按键获取集合src不在集合target中的元素, 复杂度 O(n+m)
+     *
+     * @param source       源集合
+     * @param target       目标集合（被比较对象）
+     * @param keyExtractor 键提取
+     * @param <T>          类型
+     * @param <K>          键类型
+     * @return 类型
+     */
+    public static <T, K> List<T> notInByKey(List<T> source, List<T> target, Function<? super T, K> keyExtractor) {
+        if (CollectionUtils.isEmpty(target)) {
+            return source;
+        }
+        if (CollectionUtils.isEmpty(source)) {
+            return Collections.emptyList();
+        }
+        Assert.notNull(keyExtractor, KEY_MESSAGE);
+        Set<K> keys = keySet(target, keyExtractor);
+        List<T> result = new ArrayList<>(source.size());
+        for (T v : source) {
+            if (!keys.contains(keyExtractor.apply(v))) {
+                result.add(v);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按 long 键获取集合src不在集合target中的元素, 不装箱
+     *
+     * @param source       源集合
+     * @param target       目标集合（被比较对象）
+     * @param keyExtractor 键提取
+     * @param <T>          类型
+     * @return 类型
+     */
+    public static <T> List<T> notInByLong(List<T> source, List<T> target, ToLongFunction<? super T> keyExtractor) {
+        if (CollectionUtils.isEmpty(target)) {
+            return source;
+        }
+        if (CollectionUtils.isEmpty(source)) {
+            return Collections.emptyList();
+        }
+        Assert.notNull(keyExtractor, KEY_MESSAGE);
+        LongIndex keys = longKeySet(target, keyExtractor);
+        List<T> result = new ArrayList<>(source.size());
+        for (T v : source) {
+            if (keys.get(keyExtractor.applyAsLong(v)) < 0) {
+                result.add(v);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按键获取集合src和集合target交集, 复杂度 O(n+m)
+     *
+     * @param source       源集合
+     * @param target       目标集合（被比较对象）
+     * @param keyExtractor 键提取
+     * @param <T>          类型
+     * @param <K>          键类型
+     * @return 类型
+     */
+    public static <T, K> List<T> intersectionByKey(List<T> source, List<T> target,
+                                                   Function<? super T, K> keyExtractor) {
+        if (CollectionUtils.isEmpty(target) || CollectionUtils.isEmpty(source)) {
+            return Collections.emptyList();
+        }
+        Assert.notNull(keyExtractor, KEY_MESSAGE);
+        Set<K> keys = keySet(target, keyExtractor);
+        List<T> result = new ArrayList<>(Math.min(source.size(), target.size()));
+        for (T v : source) {
+            if (keys.contains(keyExtractor.apply(v))) {
+                result.add(v);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按 long 键获取集合src和集合target交集, 不装箱
+     *
+     * @param source       源集合
+     * @param target       目标集合（被比较对象）
+     * @param keyExtractor 键提取
+     * @param <T>          类型
+     * @return 类型
+     */
+    public static <T> List<T> intersectionByLong(List<T> source, List<T> target,
+                                                 ToLongFunction<? super T> keyExtractor) {
+        if (CollectionUtils.isEmpty(target) || CollectionUtils.isEmpty(source)) {
+            return Collections.emptyList();
+        }
+        Assert.notNull(keyExtractor, KEY_MESSAGE);
+        LongIndex keys = longKeySet(target, keyExtractor);
+        List<T> result = new ArrayList<>(Math.min(source.size(), target.size()));
+        for (T v : source) {
+            if (keys.get(keyExtractor.applyAsLong(v)) >= 0) {
+                result.add(v);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 多个字段组成的键, 各字段按 equals 比较
+     *
+     * @param extractors 字段提取
+     * @param <T>        类型
+     * @return 键提取
+     */
+    @SafeVarargs
+    public static <T> Function<T, Object> compositeKey(Function<? super T, ?>... extractors) {
+        Function<? super T, ?>[] copy = extractors.clone();
+        return item -> {
+            Object[] values = new Object[copy.length];
+            for (int i = 0; i < copy.length; i++) {
+                values[i] = copy[i].apply(item);
+            }
+            return new CompositeKey(values);
+        };
+    }
+
+    /**
+     * indexOf 返回与新元素配对的旧下标并出队, 同一个键的旧下标用完后一直返回最后一个, 由 matched 判定为新增
+     */
+    private static <T> void diffIndexed(Object[] olds, Iterable<? extends T> newItems,
+                                        ToIntFunction<T> indexOf, DiffHandler<? super T> handler) {
+        boolean[] matched = new boolean[olds.length];
+        for (T item : newItems) {
+            int i = indexOf.applyAsInt(item);
+            if (i >= 0 && !matched[i]) {
+                matched[i] = true;
+                handler.onUpdated(element(olds, i), item);
+            } else {
+                handler.onAdded(item);
+            }
+        }
+        for (int i = 0; i < olds.length; i++) {
+            if (!matched[i]) {
+                handler.onDeleted(element(olds, i));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T element(Object[] elements, int index) {
+        return (T) elements[index];
+    }
+
+    private static <T, K> Set<K> keySet(List<T> list, Function<? super T, K> keyExtractor) {
+        Set<K> keys = new HashSet<>(Math.max(16, (int) (list.size() / 0.75f) + 1));
+        for (T v : list) {
+            keys.add(keyExtractor.apply(v));
+        }
+        return keys;
+    }
+
+    private static <T> LongIndex longKeySet(List<T> list, ToLongFunction<? super T> keyExtractor) {
+        LongIndex keys = new LongIndex(list.size());
+        for (T v : list) {
+            keys.putIfAbsent(keyExtractor.applyAsLong(v), 0);
+        }
+        return keys;
+    }
+
     /**
      * 返回结果集格式
      *
@@ -162,6 +576,8 @@ public class ListUtils {
         private List<T> addedList;
         private List<T> updatedList;
         private List<T> deletedList;
+        private List<T> unchangedList;
+        private List<FieldChange<T>> changes;
 
         /**
          * ListDiffResult
@@ -171,9 +587,25 @@ public class ListUtils {
          * @param deletedList 删除集合
          */
         public ListDiffResult(List<T> addedList, List<T> updatedList, List<T> deletedList) {
+            this(addedList, updatedList, deletedList, Collections.emptyList(), Collections.emptyList());
+        }
+
+        /**
+         * ListDiffResult
+         *
+         * @param addedList     新增集合
+         * @param updatedList   有字段变化的集合
+         * @param deletedList   删除集合
+         * @param unchangedList 没有字段变化的集合
+         * @param changes       有字段变化的元素及变化的字段, 与 updatedList 一一对应
+         */
+        public ListDiffResult(List<T> addedList, List<T> updatedList, List<T> deletedList,
+                              List<T> unchangedList, List<FieldChange<T>> changes) {
             this.addedList = Collections.unmodifiableList(addedList);
             this.updatedList = Collections.unmodifiableList(updatedList);
             this.deletedList = Collections.unmodifiableList(deletedList);
+            this.unchangedList = Collections.unmodifiableList(unchangedList);
+            this.changes = Collections.unmodifiableList(changes);
         }
 
         public List<T> getAddedList() {
@@ -187,6 +619,65 @@ public class ListUtils {
         public List<T> getDeletedList() {
             return Collections.unmodifiableList(deletedList);
         }
+
+        /**
+         * 没有字段变化的集合, 只有 diff 时传入 {@link FieldChangeDetector} 才会有值
+         *
+         * @return 新集合中的元素
+         */
+        public List<T> getUnchangedList() {
+            return unchangedList;
+        }
+
+        /**
+         * 有字段变化的元素及变化的字段, 只有 diff 时传入 {@link FieldChangeDetector} 才会有值
+         *
+         * @return 字段变化
+         */
+        public List<FieldChange<T>> getChanges() {
+            return changes;
+        }
+    }
+
+    /**
+     * 一个元素的字段变化
+     *
+     * @param <T> 类型
+     */
+    public static class FieldChange<T> {
+        private final T oldItem;
+        private final T newItem;
+        private final List<String> changedFields;
+
+        /**
+         * FieldChange
+         *
+         * @param oldItem       旧元素
+         * @param newItem       新元素
+         * @param changedFields 变化的字段名
+         */
+        public FieldChange(T oldItem, T newItem, List<String> changedFields) {
+            this.oldItem = oldItem;
+            this.newItem = newItem;
+            this.changedFields = Collections.unmodifiableList(changedFields);
+        }
+
+        public T getOldItem() {
+            return oldItem;
+        }
+
+        public T getNewItem() {
+            return newItem;
+        }
+
+        public List<String> getChangedFields() {
+            return changedFields;
+        }
+
+        @Override
+        public String toString() {
+            return "FieldChange{newItem=" + newItem + ", changedFields=" + changedFields + '}';
+        }
     }
 
     /**
@@ -205,8 +696,235 @@ public class ListUtils {
         boolean isSame(T t1, T t2);
     }
 
+    /**
+     * 流式 diff 的结果处理器, 只需要实现关心的回调
+     *
+     * @param <T> 类型
+     */
+    public interface DiffHandler<T> {
+
+        /**
+         * 新增的元素
+         *
+         * @param item 新集合中的元素
+         */
+        default void onAdded(T item) {
+        }
+
+        /**
+         * 新旧集合都存在的元素
+         *
+         * @param oldItem 旧集合中的元素
+         * @param newItem 新集合中的元素
+         */
+        default void onUpdated(T oldItem, T newItem) {
+        }
+
+        /**
+         * 删除的元素
+         *
+         * @param item 旧集合中的元素
+         */
+        default void onDeleted(T item) {
+        }
+
+        /**
+         * 新旧集合都存在且没有字段变化的元素, 只有经过 {@link #skipUnchanged(FieldChangeDetector, DiffHandler)} 包装才会回调
+         *
+         * @param oldItem 旧集合中的元素
+         * @param newItem 新集合中的元素
+         */
+        default void onUnchanged(T oldItem, T newItem) {
+        }
+
+        /**
+         * 过滤没有字段变化的元素, 这些元素回调 {@link #onUnchanged(Object, Object)} 而不是 {@link #onUpdated(Object, Object)}
+         * <p>
+         * 判断时遇到第一个变化的字段即停止, 需要知道具体字段时在 onUpdated 中调用 {@link FieldChangeDetector#changedFields(Object, Object)}
+         *
+         * @param detector 字段变更检测器
+         * @param handler  结果处理器
+         * @param <T>      类型
+         * @return 处理器
+         */
+        static <T> DiffHandler<T> skipUnchanged(FieldChangeDetector<? super T> detector, DiffHandler<T> handler) {
+            Assert.notNull(detector, "detector cannot be null");
+            return new DiffHandler<T>() {
+                @Override
+                public void onAdded(T item) {
+                    handler.onAdded(item);
+                }
+
+                @Override
+                public void onUpdated(T oldItem, T newItem) {
+                    if (detector.isModified(oldItem, newItem)) {
+                        handler.onUpdated(oldItem, newItem);
+                    } else {
+                        handler.onUnchanged(oldItem, newItem);
+                    }
+                }
+
+                @Override
+                public void onDeleted(T item) {
+                    handler.onDeleted(item);
+                }
+
+                @Override
+                public void onUnchanged(T oldItem, T newItem) {
+                    handler.onUnchanged(oldItem, newItem);
+                }
+            };
+        }
+
+        /**
+         * 由三个回调创建处理器
+         *
+         * @param added   新增回调
+         * @param updated 更新回调, 参数为旧元素和新元素
+         * @param deleted 删除回调
+         * @param <T>     类型
+         * @return 处理器
+         */
+        static <T> DiffHandler<T> of(Consumer<? super T> added, BiConsumer<? super T, ? super T> updated,
+                                     Consumer<? super T> deleted) {
+            return new DiffHandler<T>() {
+                @Override
+                public void onAdded(T item) {
+                    added.accept(item);
+                }
+
+                @Override
+                public void onUpdated(T oldItem, T newItem) {
+                    updated.accept(oldItem, newItem);
+                }
+
+                @Override
+                public void onDeleted(T item) {
+                    deleted.accept(item);
+                }
+            };
+        }
+    }
+
+    /**
+     * 把流式 diff 的结果收集成 {@link ListDiffResult}
+     */
+    private static final class DiffCollector<T> implements DiffHandler<T> {
+
+        private final FieldChangeDetector<? super T> detector;
+        private final List<T> addedList;
+        private final List<T> updatedList;
+        private final List<T> deletedList;
+        private final List<T> unchangedList;
+        private final List<FieldChange<T>> changes;
+
+        private DiffCollector(int oldSize, int newSize, FieldChangeDetector<? super T> detector) {
+            this.detector = detector;
+            this.addedList = new ArrayList<>(newSize);
+            this.updatedList = new ArrayList<>(Math.min(oldSize, newSize));
+            this.deletedList = new ArrayList<>(oldSize);
+            this.unchangedList = detector == null ? Collections.emptyList() : new ArrayList<>();
+            this.changes = detector == null ? Collections.emptyList() : new ArrayList<>();
+        }
+
+        @Override
+        public void onAdded(T item) {
+            addedList.add(item);
+        }
+
+        @Override
+        public void onUpdated(T oldItem, T newItem) {
+            if (detector == null) {
+                updatedList.add(newItem);
+                return;
+            }
+            List<String> changedFields = detector.changedFields(oldItem, newItem);
+            if (changedFields.isEmpty()) {
+                unchangedList.add(newItem);
+            } else {
+                updatedList.add(newItem);
+                changes.add(new FieldChange<>(oldItem, newItem, changedFields));
+            }
+        }
+
+        @Override
+        public void onDeleted(T item) {
+            deletedList.add(item);
+        }
+
+        private ListDiffResult<T> toResult() {
+            return new ListDiffResult<>(addedList, updatedList, deletedList, unchangedList, changes);
+        }
+    }
+
+    /**
+     * 归并 diff 时的游标, 同时检查数据是否有序
+     */
+    private static final class SortedCursor<T> {
+
+        private final Iterator<? extends T> iterator;
+        private final java.util.Comparator<? super T> comparator;
+        /**
+         * 是否还有当前元素, 单独记录以支持 null 元素
+         */
+        private boolean present;
+        private T value;
+
+        private SortedCursor(Iterator<? extends T> iterator, java.util.Comparator<? super T> comparator) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            this.present = iterator.hasNext();
+            this.value = present ? iterator.next() : null;
+        }
+
+        private void advance() {
+            if (!iterator.hasNext()) {
+                present = false;
+                value = null;
+                return;
+            }
+            T next = iterator.next();
+            if (comparator.compare(value, next) > 0) {
+                throw new IllegalArgumentException("input is not sorted by the key comparator");
+            }
+            value = next;
+        }
+    }
+
+    /**
+     * 多字段组合键
+     */
+    private static final class CompositeKey {
+
+        private final Object[] values;
+        private final int hash;
+
+        private CompositeKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof CompositeKey && hash == ((CompositeKey) o).hash
+                    && Arrays.equals(values, ((CompositeKey) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(values);
+        }
+    }
+
     /**
      * 对list的元素按照多个属性名称排序
+     * <p>
+     * 每个元素的排序字段只读取一次, getter 按类缓存, 排序是稳定的, 空值排在最后
      *
      * @param list        排序列表
      * @param isAsc       是否升序 true:升序 false:降序
@@ -214,16 +932,9 @@ public class ListUtils {
      * @param <E>         列表对象
      */
     public static <E> void sort(List<E> list, final Boolean isAsc, final String... sortnameArr) {
-        list.sort((a, b) -> {
-            int ret = 0;
-            for (String s : sortnameArr) {
-                ret = ListUtils.compareObject(s, isAsc, a, b);
-                if (0 != ret) {
-                    break;
-                }
-            }
-            return ret;
-        });
+        boolean[] ascending = new boolean[sortnameArr.length];
+        Arrays.fill(ascending, isAsc);
+        PropertySorter.sort(list, sortnameArr, ascending);
     }
 
 
@@ -236,49 +947,30 @@ public class ListUtils {
      * @param <E>         列表对象
      */
     public static <E> void sort(List<E> list, final String[] sortnameArr, final Boolean[] typeArr) {
-        if (sortnameArr.length != typeArr.length) {
-            throw new BusinessException("属性数组元素个数和升降序数组元素个数不相等");
-        }
-        list.sort((a, b) -> {
-            int ret = 0;
-            for (int i = 0; i < sortnameArr.length; i++) {
-                ret = ListUtils.compareObject(sortnameArr[i], typeArr[i], a, b);
-                if (0 != ret) {
-                    break;
-                }
-            }
-            return ret;
-        });
+        PropertySorter.sort(list, sortnameArr, toAscending(sortnameArr, typeArr));
     }
 
     /**
-     * 对2个对象按照指定属性名称进行排序
+     * 按多个属性比较的比较器, 可以用于 TreeMap、优先队列等需要逐对比较的场景
      *
-     * @param sortname 排序字段名
-     * @param isAsc    是否升序
-     * @param a        类型a
-     * @param b        类型b
-     * @param <E>      比较对象
-     * @return 是否大于
+     * @param sortnameArr 排序字段名
+     * @param typeArr     升序类型
+     * @param <E>         列表对象
+     * @return 比较器, 空值排在最后
      */
-    private static <E> int compareObject(final String sortname, final Boolean isAsc, E a, E b) {
-        int ret;
-        Comparable value1 = ListUtils.getFieldValueByFieldName(a, sortname);
-        Comparable value2 = ListUtils.getFieldValueByFieldName(b, sortname);
-        if (value1 == null && value2 == null) {
-            return 0;
-        }
-        if (value1 == null) {
-            return 1;
-        }
-        if (value2 == null) {
-            return -1;
+    public static <E> java.util.Comparator<E> propertyComparator(final String[] sortnameArr, final Boolean[] typeArr) {
+        return PropertySorter.comparator(sortnameArr, toAscending(sortnameArr, typeArr));
+    }
+
+    private static boolean[] toAscending(String[] sortnameArr, Boolean[] typeArr) {
+        if (sortnameArr.length != typeArr.length) {
+            throw new BusinessException("属性数组元素个数和升降序数组元素个数不相等");
         }
-        if (isAsc) { //负值比较
-            return value1.compareTo(value2);
-        } else {
-            return value2.compareTo(value1);
+        boolean[] ascending = new boolean[typeArr.length];
+        for (int i = 0; i < typeArr.length; i++) {
+            ascending[i] = typeArr[i];
         }
+        return ascending;
     }
 
     /**
@@ -329,37 +1021,14 @@ public class ListUtils {
         return object;
     }
 
+    /**
+     * 获取属性值, 从当前类开始逐级向父类查找 get 方法
+     *
+     * @param obj       对象
+     * @param fieldName 字段名
+     * @return 属性值, 找不到 get 方法时返回 null
+     */
     public static Comparable getFieldValueByFieldName(Object obj, String fieldName) {
-        Comparable object = null;
-        Class<?> aClass = obj.getClass();
-        while (aClass != null) {
-            Method method = getMethod(aClass, fieldName);
-            if (Objects.nonNull(method)) {
-                try {
-                    object = (Comparable) method.invoke(obj);
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
-                } catch (InvocationTargetException e) {
-                    e.printStackTrace();
-                }
-                break;
-            } else {
-                aClass = aClass.getSuperclass();
-            }
-        }
-        return object;
-    }
-
-    private static Method getMethod(Class<?> clazz, String fieldName) {
-        Method method = null;
-        if (clazz != null) {
-            Method[] methods = clazz.getDeclaredMethods();
-            for (Method m : methods) {
-                if (("get" + fieldName).toLowerCase().equals(m.getName().toLowerCase())) {
-                    return m;
-                }
-            }
-        }
-        return method;
+        return (Comparable) PropertySorter.getValue(obj, fieldName);
     }
 }
@@ -0,0 +1,106 @@
+package top.jadeyan.commons.utils;
+
+import java.util.Arrays;
+
+/**
+ * long 键到下标的哈希索引
+ * <p>
+ * 开放寻址 + 线性探测, 键和下标存在两个基本类型数组里, 建索引和查找都不会装箱。
+ * 只支持插入、覆盖和查找, 容量在构造时按预期大小确定, 不扩容。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class LongIndex {
+
+    private static final int EMPTY = -1;
+
+    private final long[] keys;
+
+    private final int[] values;
+
+    private final int mask;
+
+    /**
+     * 创建索引
+     *
+     * @param expectedSize 最多插入的键个数
+     */
+    LongIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(values, EMPTY);
+    }
+
+    /**
+     * 键不存在时插入
+     *
+     * @param key   键
+     * @param value 下标, 不能为负数
+     * @return 已存在的下标, 插入成功时返回 -1
+     */
+    int putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        return EMPTY;
+    }
+
+    /**
+     * 插入或覆盖
+     *
+     * @param key   键
+     * @param value 下标, 不能为负数
+     * @return 原来的下标, 不存在时返回 -1
+     */
+    int put(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int old = values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        return EMPTY;
+    }
+
+    /**
+     * 查找下标
+     *
+     * @param key 键
+     * @return 下标, 不存在时返回 -1
+     */
+    int get(long key) {
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    private int slot(long key) {
+        // murmur3 的 64 位混淆, 连续 id 也能均匀分布
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,236 @@
+package top.jadeyan.commons.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按属性名排序
+ * <p>
+ * 每个 (类, 属性, 升降序) 组合只解析一次 getter, 编译成 {@link MethodHandle} 缓存在 {@link ClassValue} 中, 之后不再走反射查找。
+ * 排序时先为每个元素取一次排序键, 再对排序键排序后写回列表, getter 只调用 n 次而不是 n·log(n) 次。
+ * 空值总是排在最后, 与升降序无关。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class PropertySorter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PropertySorter.class);
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * 找不到 getter 时返回 null
+     */
+    private static final MethodHandle NULL_GETTER = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Object.class);
+
+    private static final ClassValue<Map<String, MethodHandle>> GETTERS = new ClassValue<Map<String, MethodHandle>>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final ClassValue<Map<String, SortPlan>> PLANS = new ClassValue<Map<String, SortPlan>>() {
+        @Override
+        protected Map<String, SortPlan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private PropertySorter() {
+    }
+
+    /**
+     * 按属性排序, 排序是稳定的
+     *
+     * @param list       列表
+     * @param fieldNames 属性名
+     * @param ascending  每个属性是否升序
+     * @param <E>        元素类型
+     */
+    static <E> void sort(List<E> list, String[] fieldNames, boolean[] ascending) {
+        int size = list.size();
+        if (size < 2 || fieldNames.length == 0) {
+            return;
+        }
+        String planKey = planKey(fieldNames, ascending);
+        SortEntry[] entries = new SortEntry[size];
+        SortPlan plan = null;
+        int index = 0;
+        for (E element : list) {
+            if (element != null && (plan == null || plan.type != element.getClass())) {
+                plan = plan(element.getClass(), planKey, fieldNames, ascending);
+            }
+            Comparable<?>[] keys = element == null ? new Comparable<?>[fieldNames.length] : plan.extract(element);
+            entries[index++] = new SortEntry(element, keys);
+        }
+        Arrays.sort(entries, (a, b) -> compareKeys(a.keys, b.keys, ascending));
+        ListIterator<E> iterator = list.listIterator();
+        for (SortEntry entry : entries) {
+            iterator.next();
+            @SuppressWarnings("unchecked")
+            E element = (E) entry.element;
+            iterator.set(element);
+        }
+    }
+
+    /**
+     * 按属性比较的比较器, 适合需要逐对比较的场景, 排序整个列表时用 {@link #sort(List, String[], boolean[])} 更快
+     *
+     * @param fieldNames 属性名
+     * @param ascending  每个属性是否升序
+     * @param <E>        元素类型
+     * @return 比较器
+     */
+    static <E> Comparator<E> comparator(String[] fieldNames, boolean[] ascending) {
+        String[] names = fieldNames.clone();
+        boolean[] directions = ascending.clone();
+        String planKey = planKey(names, directions);
+        return (a, b) -> compareKeys(keys(a, planKey, names, directions), keys(b, planKey, names, directions), directions);
+    }
+
+    /**
+     * 读取属性值, 从当前类开始逐级向父类查找 get 方法, 方法名不区分大小写
+     *
+     * @param obj       对象
+     * @param fieldName 属性名
+     * @return 属性值, 找不到 get 方法或者调用失败时返回 null
+     */
+    static Object getValue(Object obj, String fieldName) {
+        return invoke(getter(obj.getClass(), fieldName), obj, fieldName);
+    }
+
+    private static Comparable<?>[] keys(Object element, String planKey, String[] fieldNames, boolean[] ascending) {
+        if (element == null) {
+            return new Comparable<?>[fieldNames.length];
+        }
+        return plan(element.getClass(), planKey, fieldNames, ascending).extract(element);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(Comparable[] keys1, Comparable[] keys2, boolean[] ascending) {
+        for (int i = 0; i < keys1.length; i++) {
+            Comparable value1 = keys1[i];
+            Comparable value2 = keys2[i];
+            int ret;
+            if (value1 == null) {
+                ret = value2 == null ? 0 : 1;
+            } else if (value2 == null) {
+                ret = -1;
+            } else {
+                ret = ascending[i] ? value1.compareTo(value2) : value2.compareTo(value1);
+            }
+            if (ret != 0) {
+                return ret;
+            }
+        }
+        return 0;
+    }
+
+    private static SortPlan plan(Class<?> type, String planKey, String[] fieldNames, boolean[] ascending) {
+        Map<String, SortPlan> plans = PLANS.get(type);
+        SortPlan plan = plans.get(planKey);
+        if (plan != null) {
+            return plan;
+        }
+        return plans.computeIfAbsent(planKey, key -> {
+            MethodHandle[] getters = new MethodHandle[fieldNames.length];
+            for (int i = 0; i < fieldNames.length; i++) {
+                getters[i] = getter(type, fieldNames[i]);
+            }
+            return new SortPlan(type, fieldNames.clone(), getters);
+        });
+    }
+
+    private static String planKey(String[] fieldNames, boolean[] ascending) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < fieldNames.length; i++) {
+            builder.append(fieldNames[i]).append(ascending[i] ? '+' : '-').append(',');
+        }
+        return builder.toString();
+    }
+
+    private static MethodHandle getter(Class<?> type, String fieldName) {
+        Map<String, MethodHandle> getters = GETTERS.get(type);
+        MethodHandle getter = getters.get(fieldName);
+        return getter != null ? getter : getters.computeIfAbsent(fieldName, name -> resolveGetter(type, name));
+    }
+
+    private static MethodHandle resolveGetter(Class<?> type, String fieldName) {
+        String getterName = "get" + fieldName;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.getParameterCount() == 0 && getterName.equalsIgnoreCase(method.getName())) {
+                    try {
+                        method.setAccessible(true);
+                        return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+                    } catch (IllegalAccessException | RuntimeException e) {
+                        LOGGER.warn("cannot access getter {} of {}", method.getName(), type.getName(), e);
+                        return NULL_GETTER;
+                    }
+                }
+            }
+        }
+        return NULL_GETTER;
+    }
+
+    private static Object invoke(MethodHandle getter, Object obj, String fieldName) {
+        try {
+            return getter.invokeExact(obj);
+        } catch (Throwable e) {
+            LOGGER.warn("get property {} of {} failed", fieldName, obj.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 一个类按一组属性排序时的 getter
+     */
+    private static final class SortPlan {
+
+        private final Class<?> type;
+
+        private final String[] fieldNames;
+
+        private final MethodHandle[] getters;
+
+        private SortPlan(Class<?> type, String[] fieldNames, MethodHandle[] getters) {
+            this.type = type;
+            this.fieldNames = fieldNames;
+            this.getters = getters;
+        }
+
+        private Comparable<?>[] extract(Object element) {
+            Comparable<?>[] keys = new Comparable<?>[getters.length];
+            for (int i = 0; i < getters.length; i++) {
+                keys[i] = (Comparable<?>) invoke(getters[i], element, fieldNames[i]);
+            }
+            return keys;
+        }
+    }
+
+    private static final class SortEntry {
+
+        private final Object element;
+
+        private final Comparable<?>[] keys;
+
+        private SortEntry(Object element, Comparable<?>[] keys) {
+            this.element = element;
+            this.keys = keys;
+        }
+    }
+}
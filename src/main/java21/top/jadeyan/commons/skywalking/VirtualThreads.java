@@ -0,0 +1,36 @@
+package top.jadeyan.commons.skywalking;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 虚拟线程支持
+ * <p>
+ * Java 21 版本, 打包在多版本 jar 的 META-INF/versions/21 中。
+ *
+ * @author yan
+ * @date 2026/10/18
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     *
+     * @return true
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     *
+     * @return 执行器
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sw-virtual-", 1).factory());
+    }
+}
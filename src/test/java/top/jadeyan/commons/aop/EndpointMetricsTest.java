@@ -0,0 +1,63 @@
+package top.jadeyan.commons.aop;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EndpointMetricsTest {
+
+    @After
+    public void tearDown() {
+        EndpointMetrics.reset();
+    }
+
+    @Test
+    public void testRecord() {
+        EndpointMetrics.Endpoint list = EndpointMetrics.endpoint("QuoteController.list(..)");
+        assertSame(list, EndpointMetrics.endpoint("QuoteController.list(..)"));
+        list.record(TimeUnit.MILLISECONDS.toNanos(5), false);
+        list.record(TimeUnit.MILLISECONDS.toNanos(15), true);
+        EndpointMetrics.endpoint("QuoteController.get(..)").record(TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        Map<String, EndpointMetrics.Snapshot> snapshots = EndpointMetrics.snapshot().stream()
+                .collect(Collectors.toMap(EndpointMetrics.Snapshot::getName, Function.identity()));
+        assertEquals(2, snapshots.size());
+        EndpointMetrics.Snapshot snapshot = snapshots.get("QuoteController.list(..)");
+        assertEquals(2, snapshot.getCount());
+        assertEquals(1, snapshot.getErrorCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(15), snapshot.getLatency().getMaxNanos());
+        assertEquals(0, snapshots.get("QuoteController.get(..)").getErrorCount());
+    }
+
+    @Test
+    public void testConcurrentRecord() throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executorService.execute(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    EndpointMetrics.endpoint("endpoint" + (j & 1)).record(j, j % 10 == 0);
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        List<EndpointMetrics.Snapshot> snapshots = EndpointMetrics.snapshot();
+        assertEquals(2, snapshots.size());
+        for (EndpointMetrics.Snapshot snapshot : snapshots) {
+            assertEquals(20_000, snapshot.getCount());
+        }
+        long errorCount = snapshots.stream().mapToLong(EndpointMetrics.Snapshot::getErrorCount).sum();
+        assertEquals(4_000, errorCount);
+    }
+}
@@ -0,0 +1,51 @@
+package top.jadeyan.commons.http;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HostAddressCacheTest {
+
+    @Test
+    public void testCachedSnapshot() {
+        HostAddressCache.Snapshot snapshot = HostAddressCache.getSnapshot();
+        assertSame(snapshot, HostAddressCache.getSnapshot());
+        assertEquals(snapshot.getLanAddress(), HostIpUtil.getLocalHostLANAddress());
+        assertEquals(HostIpUtil.selectLanAddress(HostIpUtil.resolveAddresses()), snapshot.getLanAddress());
+    }
+
+    @Test
+    public void testUpdateOnlyWhenChanged() {
+        List<String> original = HostAddressCache.getSnapshot().getAddresses();
+        List<HostAddressCache.Snapshot> changes = new ArrayList<>();
+        Consumer<HostAddressCache.Snapshot> listener = changes::add;
+        HostAddressCache.addListener(listener);
+        try {
+            assertFalse(HostAddressCache.update(original));
+            assertTrue(changes.isEmpty());
+
+            assertTrue(HostAddressCache.update(Arrays.asList("127.0.0.1", "192.168.3.7")));
+            assertEquals("192.168.3.7", HostIpUtil.getLocalHostLANAddress());
+            assertEquals(1, changes.size());
+            assertSame(changes.get(0), HostAddressCache.getSnapshot());
+        } finally {
+            HostAddressCache.removeListener(listener);
+            HostAddressCache.update(original);
+        }
+    }
+
+    @Test
+    public void testInvalidRefreshSeconds() {
+        assertEquals(60L, HostAddressCache.refreshSeconds(0L));
+        assertEquals(60L, HostAddressCache.refreshSeconds(-5L));
+        assertEquals(10L, HostAddressCache.refreshSeconds(10L));
+    }
+}
@@ -0,0 +1,371 @@
+package top.jadeyan.commons.job;
+
+import com.github.pagehelper.PageInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AbstractSyncJobTemplateTest {
+
+    private static final long START_TIME = 1642585506000L;
+
+    private final AbstractSyncJobTemplate template = new AbstractSyncJobTemplate() {
+    };
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+
+    private final List<Row> rows = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        // 每个时间点 3 条数据, 共 100 条
+        for (int i = 0; i < 100; i++) {
+            rows.add(new Row(new Timestamp(START_TIME + 1000L * (i / 3 + 1)), i + 1));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private BiFunction<Timestamp, Long, List<Row>> searchFunction(int pageSize) {
+        return (updateTime, id) -> rows.stream()
+                .filter(x -> x.updateTime.compareTo(updateTime) > 0 || (x.updateTime.equals(updateTime) && x.id > id))
+                .limit(pageSize)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPipelinedMatchesSerial() {
+        List<Long> serial = Collections.synchronizedList(new ArrayList<>());
+        int serialRows = template.syncIncrementTemplate("mark", 7, searchFunction(7), Row::getUpdateTime, Row::getId,
+                dataList -> {
+                    dataList.forEach(x -> serial.add(x.id));
+                    return dataList.size();
+                });
+        List<Long> pipelined = Collections.synchronizedList(new ArrayList<>());
+        int pipelinedRows = template.syncIncrementTemplatePipelined("pipelinedMark", 7, searchFunction(7), Row::getUpdateTime, Row::getId,
+                dataList -> {
+                    dataList.forEach(x -> pipelined.add(x.id));
+                    return dataList.size();
+                }, true);
+        assertEquals(100, serialRows);
+        assertEquals(serialRows, pipelinedRows);
+        assertEquals(serial, pipelined);
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() {
+        InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+        template.setCheckpointStore(checkpointStore);
+        int effectRows = template.syncIncrementTemplate("mark", 10, searchFunction(10), Row::getUpdateTime, Row::getId, List::size);
+        assertEquals(100, effectRows);
+        assertEquals(String.valueOf(rows.get(99).updateTime.getTime()), checkpointStore.getValue("mark"));
+
+        rows.add(new Row(new Timestamp(START_TIME + 1000L * 100), 101));
+        effectRows = template.syncIncrementTemplate("mark", 10, searchFunction(10), Row::getUpdateTime, Row::getId, List::size);
+        // 刻度只记录时间, 最后一个时间点的数据会再处理一次
+        assertEquals(2, effectRows);
+    }
+
+    @Test
+    public void testInitialUpdateTime() {
+        template.setInitialUpdateTime(rows.get(49).updateTime);
+        int effectRows = template.syncIncrementTemplate("initialMark", 10, searchFunction(10), Row::getUpdateTime, Row::getId,
+                List::size);
+        // 只处理起始时间点及之后的数据
+        assertEquals((int) rows.stream().filter(x -> !x.updateTime.before(rows.get(49).updateTime)).count(), effectRows);
+    }
+
+    @Test
+    public void testCoalesceCheckpoint() {
+        List<String> savedValues = new ArrayList<>();
+        template.setCheckpointStore(new InMemoryCheckpointStore() {
+            @Override
+            public void saveValue(String key, String value) {
+                savedValues.add(value);
+                super.saveValue(key, value);
+            }
+        });
+        template.setCheckpointEveryPages(4);
+        template.setCheckpointIntervalMillis(Long.MAX_VALUE);
+        template.syncIncrementTemplate("mark", 10, searchFunction(10), Row::getUpdateTime, Row::getId, List::size, true);
+        // 初始化 1 次, 11 页中每 4 页 2 次, 结束 1 次
+        assertEquals(4, savedValues.size());
+    }
+
+    @Test
+    public void testPipelinedParallel() {
+        List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+        int effectRows = template.syncIncrementTemplatePipelined("mark", 10, searchFunction(10), Row::getUpdateTime, Row::getId,
+                dataList -> {
+                    dataList.forEach(x -> processed.add(x.id));
+                    return dataList.size();
+                }, true, 4, executorService);
+        assertEquals(100, effectRows);
+        List<Long> sorted = new ArrayList<>(processed);
+        Collections.sort(sorted);
+        assertEquals(100, sorted.size());
+        assertEquals(Long.valueOf(1L), sorted.get(0));
+        assertEquals(Long.valueOf(100L), sorted.get(99));
+    }
+
+    @Test(timeout = 10_000)
+    public void testPipelinedOnSaturatedCallerRunsPool() {
+        // 没有空闲线程, 处理任务被退回当前线程执行
+        ExecutorService saturated = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        saturated.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            int effectRows = template.syncIncrementTemplatePipelined("mark", 10, searchFunction(10), Row::getUpdateTime, Row::getId,
+                    List::size, true, 1, saturated);
+            assertEquals(100, effectRows);
+        } finally {
+            release.countDown();
+            saturated.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testPipelinedParallelOnSingleThreadPool() {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            int effectRows = template.syncIncrementTemplatePipelined("mark", 10, searchFunction(10), Row::getUpdateTime, Row::getId,
+                    List::size, true, 2, single);
+            assertEquals(100, effectRows);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPipelinedDealingError() {
+        try {
+            template.syncIncrementTemplatePipelined("mark", 10, searchFunction(10), Row::getUpdateTime, Row::getId,
+                    dataList -> {
+                        throw new IllegalStateException("dealing error");
+                    }, false, 2, executorService);
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testPipelinedFetchError() {
+        try {
+            template.syncIncrementTemplatePipelined("mark", 10, (updateTime, id) -> {
+                throw new IllegalStateException("fetch error");
+            }, Row::getUpdateTime, Row::getId, List::size, false, 1, executorService);
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testPipelinedFetchFatalError() {
+        // 第二页查询抛出 Error, 消费端不能一直等待
+        BiFunction<Timestamp, Long, List<Row>> search = searchFunction(10);
+        try {
+            template.syncIncrementTemplatePipelined("mark", 10, (updateTime, id) -> {
+                if (id > 0) {
+                    throw new AssertionError("fetch error");
+                }
+                return search.apply(updateTime, id);
+            }, Row::getUpdateTime, Row::getId, dataList -> {
+                sleep(100);
+                return dataList.size();
+            }, false, 1, executorService);
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Function<SyncIncrementTemplateParamBO, PageInfo<Row>> pageSearchFunction(List<SyncIncrementTemplateParamBO> params) {
+        return param -> {
+            params.add(param);
+            Timestamp updateTime = param.getUpdateTime();
+            List<Row> matched;
+            if (param.getUpdateTimeAsc()) {
+                matched = rows.stream()
+                        .filter(x -> x.updateTime.compareTo(updateTime) > 0
+                                || (x.updateTime.equals(updateTime) && x.id > param.getStartId()))
+                        .collect(Collectors.toList());
+            } else {
+                matched = rows.stream()
+                        .filter(x -> x.updateTime.compareTo(updateTime) >= 0)
+                        .sorted(Comparator.comparing(Row::getUpdateTime).reversed())
+                        .collect(Collectors.toList());
+            }
+            PageInfo<Row> pageInfo = new PageInfo<>(matched.stream().limit(param.getPageSize()).collect(Collectors.toList()));
+            pageInfo.setTotal(param.getCount() ? matched.size() : -1);
+            return pageInfo;
+        };
+    }
+
+    @Test
+    public void testByPageSkipUnchangedWithoutCount() {
+        List<SyncIncrementTemplateParamBO> params = new ArrayList<>();
+        // 最后一个时间点有 2 条数据
+        rows.add(new Row(rows.get(99).updateTime, 101));
+        int effectRows = template.syncIncrementTemplateByPage("page", 30, pageSearchFunction(params),
+                Row::getUpdateTime, Row::getId, List::size, false);
+        assertEquals(101, effectRows);
+        SyncRunMetrics metrics = template.getLastRunMetrics("page");
+        assertEquals(4, metrics.getPages());
+        assertEquals(101, metrics.getRows());
+
+        params.clear();
+        effectRows = template.syncIncrementTemplateByPage("page", 30, pageSearchFunction(params),
+                Row::getUpdateTime, Row::getId, List::size, false);
+        assertEquals(0, effectRows);
+        assertEquals(1, params.size());
+        assertFalse(params.get(0).getCount());
+        assertEquals(Integer.valueOf(3), params.get(0).getPageSize());
+
+        rows.add(new Row(rows.get(99).updateTime, 102));
+        effectRows = template.syncIncrementTemplateByPage("page", 30, pageSearchFunction(params),
+                Row::getUpdateTime, Row::getId, List::size, false);
+        // 最后一个时间点的 3 条数据重新处理
+        assertEquals(3, effectRows);
+    }
+
+    @Test
+    public void testByPageAdaptive() {
+        List<SyncIncrementTemplateParamBO> params = new ArrayList<>();
+        int effectRows = template.syncIncrementTemplateByPage("page", 4, 2, 64, 1000L, pageSearchFunction(params),
+                Row::getUpdateTime, Row::getId, List::size, false);
+        assertEquals(100, effectRows);
+        List<Integer> pageSizes = params.stream().filter(x -> x.getUpdateTimeAsc()).map(SyncIncrementTemplateParamBO::getPageSize)
+                .collect(Collectors.toList());
+        assertEquals(Integer.valueOf(4), pageSizes.get(0));
+        // 处理很快, 分页逐步扩大
+        assertTrue(pageSizes.get(pageSizes.size() - 1) > 4);
+    }
+
+    private static BiFunction<Long, Long, List<Long>> idSearchFunction(List<Long> ids, int pageSize) {
+        return (afterId, endId) -> ids.stream()
+                .filter(x -> x > afterId && x <= endId)
+                .limit(pageSize)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> skewedIds() {
+        // 数据集中在第一个分区
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= 2000; i++) {
+            ids.add(i);
+        }
+        for (long i = 2001; i <= 100_000; i += 997) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    @Test
+    public void testPartitionedSync() {
+        List<Long> ids = skewedIds();
+        List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+        int effectRows = template.syncTemplatePartitioned("full", 50, 1L, 100_000L, 4, idSearchFunction(ids, 50), Long::longValue,
+                dataList -> {
+                    processed.addAll(dataList);
+                    return dataList.size();
+                }, 4, executorService);
+        assertEquals(ids.size(), effectRows);
+        List<Long> sorted = new ArrayList<>(processed);
+        Collections.sort(sorted);
+        assertEquals(ids, sorted);
+    }
+
+    @Test
+    public void testPartitionedSyncResume() {
+        InMemoryCheckpointStore checkpointStore = new InMemoryCheckpointStore();
+        template.setCheckpointStore(checkpointStore);
+        template.setCheckpointEveryPages(1);
+        List<Long> ids = skewedIds();
+        List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+        try {
+            template.syncTemplatePartitioned("full", 50, 1L, 100_000L, 4, idSearchFunction(ids, 50), Long::longValue,
+                    dataList -> {
+                        if (dataList.contains(1001L)) {
+                            throw new IllegalStateException("dealing error");
+                        }
+                        processed.addAll(dataList);
+                        return dataList.size();
+                    }, 2, executorService);
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertFalse(checkpointStore.getValue("full").isEmpty());
+        template.syncTemplatePartitioned("full", 50, 1L, 100_000L, 4, idSearchFunction(ids, 50), Long::longValue,
+                dataList -> {
+                    processed.addAll(dataList);
+                    return dataList.size();
+                }, 2, executorService);
+        assertEquals("", checkpointStore.getValue("full"));
+        List<Long> distinct = processed.stream().distinct().sorted().collect(Collectors.toList());
+        assertEquals(ids, distinct);
+        // 只有失败的那一页前后可能重复处理
+        assertTrue(processed.size() < ids.size() + 200);
+    }
+
+    private static final class Row {
+
+        private final Timestamp updateTime;
+
+        private final long id;
+
+        private Row(Timestamp updateTime, long id) {
+            this.updateTime = updateTime;
+            this.id = id;
+        }
+
+        Timestamp getUpdateTime() {
+            return updateTime;
+        }
+
+        long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package top.jadeyan.commons.job;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptivePageSizerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testGrowTowardTarget() {
+        AdaptivePageSizer pageSizer = new AdaptivePageSizer(100, 10, 1000, 100L);
+        // 每条 0.1ms, 目标 100ms 对应 1000 条, 每次最多扩大一倍
+        pageSizer.record(100, MILLIS, 9 * MILLIS);
+        assertEquals(200, pageSizer.getPageSize());
+        pageSizer.record(200, 2 * MILLIS, 18 * MILLIS);
+        assertEquals(400, pageSizer.getPageSize());
+        pageSizer.record(400, 4 * MILLIS, 36 * MILLIS);
+        assertEquals(800, pageSizer.getPageSize());
+        pageSizer.record(800, 8 * MILLIS, 72 * MILLIS);
+        assertEquals(1000, pageSizer.getPageSize());
+    }
+
+    @Test
+    public void testShrinkWhenDealingSlowsDown() {
+        AdaptivePageSizer pageSizer = new AdaptivePageSizer(1000, 10, 1000, 100L);
+        // 每条 1ms, 目标 100ms 对应 100 条
+        pageSizer.record(1000, 100 * MILLIS, 900 * MILLIS);
+        assertEquals(500, pageSizer.getPageSize());
+        pageSizer.record(500, 50 * MILLIS, 450 * MILLIS);
+        assertEquals(250, pageSizer.getPageSize());
+        pageSizer.record(250, 25 * MILLIS, 225 * MILLIS);
+        assertEquals(125, pageSizer.getPageSize());
+        pageSizer.record(125, 13 * MILLIS, 112 * MILLIS);
+        assertEquals(100, pageSizer.getPageSize());
+    }
+
+    @Test
+    public void testFixedPageSize() {
+        AdaptivePageSizer pageSizer = new AdaptivePageSizer(100, 100, 100, 0L);
+        pageSizer.record(100, MILLIS, MILLIS);
+        assertEquals(100, pageSizer.getPageSize());
+    }
+}
@@ -0,0 +1,65 @@
+package top.jadeyan.commons.job;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileCheckpointStoreTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("checkpoint");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(x -> x.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testSaveAndReload() {
+        Path path = dir.resolve("sync/checkpoint.properties");
+        FileCheckpointStore store = new FileCheckpointStore(path, 0L);
+        assertNull(store.getValue("quote"));
+        store.saveValue("quote", "1642585506000-3");
+        store.saveValue("bond:sync", "1642585507000");
+        assertTrue(Files.exists(path));
+
+        FileCheckpointStore reloaded = new FileCheckpointStore(path);
+        assertEquals("1642585506000-3", reloaded.getValue("quote"));
+        assertEquals("1642585507000", reloaded.getValue("bond:sync"));
+    }
+
+    @Test
+    public void testCoalesceWrites() throws IOException {
+        Path path = dir.resolve("checkpoint.properties");
+        FileCheckpointStore store = new FileCheckpointStore(path, Long.MAX_VALUE);
+        store.saveValue("quote", "1");
+        assertFalse(Files.exists(path));
+        store.flush();
+        assertEquals("1", new FileCheckpointStore(path).getValue("quote"));
+        store.saveValue("quote", "2");
+        store.saveValue("quote", "3");
+        assertEquals("1", new FileCheckpointStore(path).getValue("quote"));
+        store.close();
+        assertEquals("3", new FileCheckpointStore(path).getValue("quote"));
+        try (Stream<Path> paths = Files.list(dir)) {
+            assertFalse(paths.anyMatch(x -> x.toString().endsWith(".tmp")));
+        }
+    }
+}
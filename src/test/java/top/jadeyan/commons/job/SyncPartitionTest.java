@@ -0,0 +1,40 @@
+package top.jadeyan.commons.job;
+
+import org.junit.Test;
+import top.jadeyan.commons.sharding.ShardingUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SyncPartitionTest {
+
+    @Test
+    public void testSplit() {
+        List<SyncPartition> partitions = SyncPartition.split(1L, 10L, 3);
+        assertEquals(3, partitions.size());
+        assertEquals(0L, partitions.get(0).getStartId());
+        assertEquals(4L, partitions.get(0).getEndId());
+        assertEquals(4L, partitions.get(1).getStartId());
+        assertEquals(8L, partitions.get(1).getEndId());
+        assertEquals(8L, partitions.get(2).getStartId());
+        assertEquals(10L, partitions.get(2).getEndId());
+
+        assertEquals(2, SyncPartition.split(5L, 6L, 4).size());
+        assertEquals(0, SyncPartition.split(6L, 5L, 4).size());
+    }
+
+    @Test
+    public void testSplitByMonth() {
+        long minPk = ShardingUtils.getPageId(Timestamp.valueOf(LocalDateTime.of(2021, 11, 15, 8, 0)), 1);
+        long maxPk = ShardingUtils.getPageId(Timestamp.valueOf(LocalDateTime.of(2022, 2, 3, 8, 0)), 1);
+        List<SyncPartition> partitions = SyncPartition.splitByMonth(minPk, maxPk);
+        assertEquals(4, partitions.size());
+        assertEquals(minPk - 1, partitions.get(0).getStartId());
+        assertEquals(ShardingUtils.getCurrentMonthMaxPkFast(minPk), partitions.get(0).getEndId());
+        assertEquals(ShardingUtils.getNextMonthMinPkFast(minPk) - 1, partitions.get(1).getStartId());
+        assertEquals(maxPk, partitions.get(3).getEndId());
+    }
+}
@@ -0,0 +1,133 @@
+package top.jadeyan.commons.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 缓存 reader/writer、直接解析字节的路径与原来直接调用 ObjectMapper 的路径对比
+ * <p>
+ * legacy* 方法按改动前 JSON 的写法调用 ObjectMapper, 其余方法调用现在的 JSON
+ *
+ * @author yan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class JSONBenchmark {
+
+    private static final TypeReference<List<ObjectInfo<Student>>> TYPE = new TypeReference<List<ObjectInfo<Student>>>() {
+    };
+
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper();
+
+    static {
+        LEGACY_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        LEGACY_MAPPER.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
+    }
+
+    /**
+     * 每个 ObjectInfo 中的学生数
+     */
+    @Param({"10", "200"})
+    private int size;
+
+    private List<ObjectInfo<Student>> payload;
+
+    private List<Student> students;
+
+    private String studentsJson;
+
+    private byte[] payloadBytes;
+
+    private ByteBuffer outBuffer;
+
+    @Setup
+    public void setup() {
+        students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Student student = new Student();
+            student.setName("student-" + i);
+            student.setAge(i % 60);
+            students.add(student);
+        }
+        payload = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ObjectInfo<Student> info = new ObjectInfo<>();
+            info.setDataType("type-" + i);
+            info.setDataList(students);
+            payload.add(info);
+        }
+        studentsJson = JSON.toJSONString(students);
+        payloadBytes = JSON.toJSONString(payload).getBytes(StandardCharsets.UTF_8);
+        outBuffer = ByteBuffer.allocate(payloadBytes.length * 2);
+    }
+
+    @Benchmark
+    public Object legacyParseBytesViaString() throws Exception {
+        return LEGACY_MAPPER.readValue(new String(payloadBytes, StandardCharsets.UTF_8), TYPE);
+    }
+
+    @Benchmark
+    public Object parseBytes() {
+        return JSON.parseObject(payloadBytes, StandardCharsets.UTF_8, TYPE);
+    }
+
+    @Benchmark
+    public Object legacyParseArray() throws Exception {
+        return LEGACY_MAPPER.readValue(studentsJson, LEGACY_MAPPER.getTypeFactory().constructCollectionType(List.class, Student.class));
+    }
+
+    @Benchmark
+    public Object parseArray() {
+        return JSON.parseArray(studentsJson, Student.class);
+    }
+
+    @Benchmark
+    public Object legacyToBytes() throws Exception {
+        return LEGACY_MAPPER.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public Object toBytes() {
+        return JSON.toJSONBytes(payload, false);
+    }
+
+    @Benchmark
+    public int writeToReusedBuffer() {
+        outBuffer.clear();
+        return JSON.writeTo(payload, outBuffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JSONBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -4,6 +4,11 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -125,4 +130,78 @@ public class JSONTest {
         JsonNode jsonNode = JSON.readTree(expectedValue);
         assertTrue(jsonNode.get("name").asText().equals("jack"));
     }
+
+    @Test
+    public void testParseBytesBufferAndStream() {
+        String json = "{\"name\":\"杰克\",\"age\":20}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals("杰克", JSON.parseObject(bytes, Student.class).getName());
+        assertEquals("杰克", JSON.parseObject(json.getBytes(Charset.forName("GBK")), Charset.forName("GBK"),
+                new TypeReference<Student>() {
+                }).getName());
+
+        ByteBuffer heap = ByteBuffer.allocate(bytes.length + 4);
+        heap.put(new byte[]{' ', ' '}).put(bytes).flip();
+        heap.position(2);
+        assertEquals(Integer.valueOf(20), JSON.parseObject(heap, Student.class).getAge());
+        assertEquals(2, heap.position());
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals("杰克", JSON.parseObject(direct, Student.class).getName());
+
+        assertEquals("杰克", JSON.parseObject(new ByteArrayInputStream(bytes), Student.class).getName());
+        List<Student> students = JSON.parseArray(new ByteArrayInputStream(("[" + json + "]").getBytes(StandardCharsets.UTF_8)),
+                Student.class);
+        assertEquals(1, students.size());
+        Map<String, Integer> map = JSON.parseObject(new ByteArrayInputStream("{\"a\":1}".getBytes(StandardCharsets.UTF_8)),
+                new TypeReference<Map<String, Integer>>() {
+                });
+        assertEquals(Integer.valueOf(1), map.get("a"));
+    }
+
+    @Test
+    public void testTypeReferenceOverridingGetType() {
+        Type studentType = new TypeReference<Student>() {
+        }.getType();
+        Type mapType = new TypeReference<Map<String, Integer>>() {
+        }.getType();
+        String json = "{\"name\":\"jack\",\"age\":20}";
+        Student student = JSON.parseObject(json, new DynamicTypeReference<Student>(studentType));
+        assertEquals("jack", student.getName());
+        Map<String, Integer> map = JSON.parseObject(json.replace("\"jack\"", "1"), new DynamicTypeReference<Map<String, Integer>>(mapType));
+        assertEquals(Integer.valueOf(1), map.get("name"));
+    }
+
+    @Test
+    public void testWriteTo() {
+        Student student = new Student();
+        student.setName("jack");
+        student.setAge(20);
+        String expectedValue = "{\"name\":\"jack\",\"age\":20}";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSON.writeTo(student, out);
+        assertEquals(expectedValue, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        int length = JSON.writeTo(student, buffer);
+        assertEquals(expectedValue.length(), length);
+        buffer.flip();
+        assertEquals(expectedValue, StandardCharsets.UTF_8.decode(buffer).toString());
+        assertEquals("null", JSON.toJSONString(null));
+    }
+
+    private static class DynamicTypeReference<T> extends TypeReference<T> {
+
+        private final Type type;
+
+        DynamicTypeReference(Type type) {
+            this.type = type;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package top.jadeyan.commons.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), snapshot.getMaxNanos());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(50500), snapshot.getMeanNanos());
+        long p50 = snapshot.getPercentileNanos(50);
+        // 子桶上界相对误差不超过 1/8
+        assertTrue(p50 >= TimeUnit.MILLISECONDS.toNanos(50) && p50 <= TimeUnit.MICROSECONDS.toNanos(56250));
+        long p99 = snapshot.getPercentileNanos(99);
+        assertTrue(p99 >= TimeUnit.MILLISECONDS.toNanos(99) && p99 <= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(snapshot.getMaxNanos(), snapshot.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testRelativeError() {
+        for (long micros = 1; micros < TimeUnit.DAYS.toMicros(1); micros = micros * 3 / 2 + 1) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+            histogram.record(TimeUnit.DAYS.toNanos(1));
+            long p50 = histogram.snapshot().getPercentileNanos(50);
+            assertTrue(p50 > TimeUnit.MICROSECONDS.toNanos(micros));
+            assertTrue(p50 <= TimeUnit.MICROSECONDS.toNanos(micros + micros / 8 + 1));
+        }
+    }
+
+    @Test
+    public void testEmptyAndZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getPercentileNanos(99));
+        histogram.record(0);
+        histogram.record(-1);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getPercentileNanos(99));
+    }
+}
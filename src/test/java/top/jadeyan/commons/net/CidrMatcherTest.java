@@ -0,0 +1,81 @@
+package top.jadeyan.commons.net;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CidrMatcherTest {
+
+    @Test
+    public void testMatches() {
+        CidrMatcher matcher = CidrMatcher.of("10.0.0.0/8", "192.168.1.0/24", "172.16.0.1");
+        assertTrue(matcher.matches("10.0.0.0"));
+        assertTrue(matcher.matches("10.255.255.255"));
+        assertFalse(matcher.matches("11.0.0.0"));
+        assertFalse(matcher.matches("9.255.255.255"));
+        assertTrue(matcher.matches("192.168.1.200"));
+        assertFalse(matcher.matches("192.168.2.1"));
+        assertTrue(matcher.matches("172.16.0.1"));
+        assertFalse(matcher.matches("172.16.0.2"));
+        assertFalse(matcher.matches("1.1.1.1"));
+    }
+
+    @Test
+    public void testMergeRanges() {
+        CidrMatcher matcher = CidrMatcher.of("10.0.1.0/24", "10.0.0.0/24", "10.0.0.128/25", "10.0.3.0/24", "0.0.0.0/32");
+        assertEquals(Arrays.asList("0.0.0.0-0.0.0.0", "10.0.0.0-10.0.1.255", "10.0.3.0-10.0.3.255"), matcher.getRanges());
+        assertTrue(matcher.matches("0.0.0.0"));
+        assertFalse(matcher.matches("10.0.2.0"));
+        assertTrue(CidrMatcher.of("0.0.0.0/0").matches("255.255.255.255"));
+        assertFalse(CidrMatcher.of().matches("1.2.3.4"));
+    }
+
+    @Test
+    public void testNotMatchInvalidIp() {
+        CidrMatcher matcher = CidrMatcher.of("0.0.0.0/0");
+        for (String ip : Arrays.asList(null, "", "::1", "fe80::1%eth0", "10.0.0", "10.0.0.256", "unknown")) {
+            assertFalse(String.valueOf(ip), matcher.matches(ip));
+        }
+        assertTrue(matcher.matches(" 10.0.0.1 "));
+    }
+
+    @Test
+    public void testInvalidCidr() {
+        for (String cidr : Arrays.asList("10.0.0/8", "10.0.0.256", "10.0.0.0/33", "10.0.0.0/a", "a.b.c.d", "")) {
+            try {
+                CidrMatcher.of(cidr);
+                fail(cidr);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().startsWith("invalid cidr"));
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsLinearScan() {
+        Random random = new Random(1L);
+        List<String> cidrs = new ArrayList<>();
+        List<long[]> ranges = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            long ip = random.nextInt() & 0xFFFFFFFFL;
+            int prefixLength = 8 + random.nextInt(25);
+            long mask = (0xFFFFFFFFL << (32 - prefixLength)) & 0xFFFFFFFFL;
+            cidrs.add(IpUtils.longToIp(ip) + "/" + prefixLength);
+            ranges.add(new long[]{ip & mask, (ip & mask) | (~mask & 0xFFFFFFFFL)});
+        }
+        CidrMatcher matcher = CidrMatcher.of(cidrs);
+        for (int i = 0; i < 100_000; i++) {
+            long ip = random.nextInt() & 0xFFFFFFFFL;
+            boolean expected = ranges.stream().anyMatch(range -> range[0] <= ip && ip <= range[1]);
+            assertEquals(expected, matcher.matches(ip));
+        }
+    }
+}
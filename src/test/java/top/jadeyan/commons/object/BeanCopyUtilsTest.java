@@ -5,7 +5,21 @@ import top.jadeyan.commons.model.GenericWrapper;
 import top.jadeyan.commons.model.Student;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * BeanCopy 工具测试
@@ -40,4 +54,99 @@ public class BeanCopyUtilsTest {
         assertEquals(studentGenericWrapper.getId(), studentGenericWrapperCopy.getId());
         assertEquals(studentGenericWrapper.getObject(), studentGenericWrapperCopy.getObject());
     }
+
+    @Test
+    public void testCopyListParallel() throws InterruptedException {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            students.add(student("s" + i, i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Student> copies = BeanCopyUtils.copyList(students, Student.class, executor, 1000);
+            assertEquals(students.size(), copies.size());
+            for (int i = 0; i < students.size(); i++) {
+                assertEquals(students.get(i).getName(), copies.get(i).getName());
+                assertEquals(i, copies.get(i).getAge());
+            }
+            // 不超过一个分片时直接拷贝
+            assertEquals(1, BeanCopyUtils.copyList(students.subList(0, 1), Student.class, executor).size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCopyListParallelCancelsChunksOnFailure() throws InterruptedException {
+        List<Student> students = new ArrayList<>();
+        students.add(new Student() {
+            @Override
+            public String getName() {
+                throw new IllegalStateException("copy error");
+            }
+        });
+        AtomicInteger copied = new AtomicInteger();
+        for (int i = 1; i < 100; i++) {
+            CountingStudent student = new CountingStudent(copied);
+            student.setName("s" + i);
+            students.add(student);
+        }
+        // 唯一的线程被占用, 其他分片都在排队
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            BeanCopyUtils.copyList(students, Student.class, executor, 10);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("copy error", e.getMessage());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        // 第一个分片失败后, 排队的分片不再拷贝
+        assertEquals(0, copied.get());
+    }
+
+    @Test
+    public void testCopyStreamAndIterator() {
+        List<Student> students = Arrays.asList(student("a", 1), student("b", 2));
+        List<String> names = BeanCopyUtils.copyStream(students.stream(), Student.class)
+                .map(Student::getName).collect(Collectors.toList());
+        assertEquals(Arrays.asList("a", "b"), names);
+
+        Iterator<Student> iterator = BeanCopyUtils.copyIterator(students.iterator(), Student.class);
+        assertEquals(1, iterator.next().getAge());
+        assertEquals(2, iterator.next().getAge());
+        assertFalse(iterator.hasNext());
+    }
+
+    public static class CountingStudent extends Student {
+
+        private final AtomicInteger copied;
+
+        public CountingStudent(AtomicInteger copied) {
+            this.copied = copied;
+        }
+
+        @Override
+        public String getName() {
+            copied.incrementAndGet();
+            return super.getName();
+        }
+    }
+
+    private static Student student(String name, int age) {
+        Student student = new Student();
+        student.setName(name);
+        student.setAge(age);
+        return student;
+    }
 }
@@ -0,0 +1,279 @@
+package top.jadeyan.commons.object;
+
+import org.junit.Test;
+import top.jadeyan.commons.enums.DeletedEnum;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class BeanMapperTest {
+
+    @Test
+    public void testMapperIsCachedPerPair() {
+        BeanMapper<OrderDO, OrderDTO> mapper = BeanMapper.of(OrderDO.class, OrderDTO.class);
+        assertSame(mapper, BeanMapper.of(OrderDO.class, OrderDTO.class));
+        assertSame(OrderDTO.class, BeanMapper.of(OrderDTO.class, OrderDO.class).getSourceType());
+    }
+
+    @Test
+    public void testConversions() {
+        OrderDO order = new OrderDO();
+        order.setId(7);
+        order.setAmount(12.5);
+        order.setQuantity(3);
+        order.setCreateTime(Timestamp.valueOf(LocalDateTime.of(2026, 10, 18, 9, 30)));
+        order.setBizDate(LocalDate.of(2026, 10, 18));
+        order.setDeleted(DeletedEnum.DELETE);
+        order.setRemark("r");
+
+        OrderDTO dto = BeanMapper.of(OrderDO.class, OrderDTO.class).map(order);
+        assertEquals(Long.valueOf(7), dto.getId());
+        assertEquals(new BigDecimal("12.5"), dto.getAmount());
+        assertEquals(3L, dto.getQuantity());
+        assertEquals(LocalDateTime.of(2026, 10, 18, 9, 30), dto.getCreateTime());
+        assertEquals(LocalDate.of(2026, 10, 18), new java.sql.Date(dto.getBizDate().getTime()).toLocalDate());
+        assertEquals(Integer.valueOf(1), dto.getDeleted());
+        assertEquals("r", dto.getRemark());
+
+        OrderDO back = BeanMapper.of(OrderDTO.class, OrderDO.class).map(dto);
+        assertEquals(order.getId(), back.getId());
+        assertEquals(order.getAmount(), back.getAmount(), 0);
+        assertEquals(order.getCreateTime(), back.getCreateTime());
+        assertEquals(order.getBizDate(), back.getBizDate());
+        assertSame(DeletedEnum.DELETE, back.getDeleted());
+    }
+
+    @Test
+    public void testNullsAndCopyIntoExisting() {
+        OrderDTO dto = new OrderDTO();
+        dto.setQuantity(5);
+        dto.setRemark("old");
+        OrderDO order = new OrderDO();
+        order.setQuantity(9);
+        BeanMapper.of(OrderDO.class, OrderDTO.class).copy(order, dto);
+        // 引用类型的 null 会覆盖目标值
+        assertNull(dto.getRemark());
+        assertEquals(9L, dto.getQuantity());
+
+        OrderDO target = new OrderDO();
+        target.setId(3);
+        BeanMapper.of(OrderDTO.class, OrderDO.class).copy(new OrderDTO(), target);
+        // 基本类型目标遇到 null 保持原值
+        assertEquals(3, target.getId());
+        assertNull(BeanMapper.of(OrderDO.class, OrderDTO.class).map(null));
+    }
+
+    @Test
+    public void testLossyNumbersAreSkipped() {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(1L << 40);
+        dto.setAmount(new BigDecimal("1e400"));
+        dto.setQuantity(5_000_000_000L);
+        OrderDO target = new OrderDO();
+        target.setId(3);
+        target.setAmount(1.5);
+        target.setQuantity(9);
+        BeanMapper.of(OrderDTO.class, OrderDO.class).copy(dto, target);
+        // 溢出时保持原值
+        assertEquals(3, target.getId());
+        assertEquals(1.5, target.getAmount(), 0);
+        assertEquals(Integer.valueOf(9), target.getQuantity());
+
+        dto.setId(8L);
+        dto.setAmount(new BigDecimal("0.1"));
+        dto.setQuantity(2L);
+        BeanMapper.of(OrderDTO.class, OrderDO.class).copy(dto, target);
+        assertEquals(8, target.getId());
+        assertEquals(0.1, target.getAmount(), 0);
+        assertEquals(Integer.valueOf(2), target.getQuantity());
+    }
+
+    @Test
+    public void testNumberConversionIsLossless() {
+        assertSame(TypeConverters.SKIP, TypeConverters.find(double.class, int.class).apply(12.5));
+        assertEquals(12, TypeConverters.find(double.class, int.class).apply(12.0));
+        assertSame(TypeConverters.SKIP, TypeConverters.find(Double.class, Long.class).apply(Double.NaN));
+        assertSame(TypeConverters.SKIP, TypeConverters.find(BigDecimal.class, Long.class).apply(new BigDecimal("1.5")));
+        assertSame(TypeConverters.SKIP, TypeConverters.find(BigDecimal.class, int.class).apply(new BigDecimal("3000000000")));
+        assertEquals(3000000000L, TypeConverters.find(BigDecimal.class, long.class).apply(new BigDecimal("3000000000.00")));
+        assertSame(TypeConverters.SKIP, TypeConverters.find(long.class, int.class).apply(Long.MAX_VALUE));
+        assertSame(TypeConverters.SKIP, TypeConverters.find(int.class, byte.class).apply(128));
+        assertEquals((byte) -128, TypeConverters.find(int.class, byte.class).apply(-128));
+        assertSame(TypeConverters.SKIP, TypeConverters.find(long.class, double.class).apply((1L << 53) + 1));
+        assertSame(TypeConverters.SKIP, TypeConverters.find(double.class, float.class).apply(1e300));
+        assertEquals(0.1f, TypeConverters.find(double.class, float.class).apply(0.1));
+        assertEquals(new BigInteger("7"), TypeConverters.find(BigDecimal.class, BigInteger.class).apply(new BigDecimal("7.0")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoDefaultConstructor() {
+        BeanMapper.of(OrderDO.class, Immutable.class).map(new OrderDO());
+    }
+
+    public static class OrderDO {
+
+        private int id;
+
+        private double amount;
+
+        private Integer quantity;
+
+        private Timestamp createTime;
+
+        private LocalDate bizDate;
+
+        private DeletedEnum deleted;
+
+        private String remark;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public Timestamp getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Timestamp createTime) {
+            this.createTime = createTime;
+        }
+
+        public LocalDate getBizDate() {
+            return bizDate;
+        }
+
+        public void setBizDate(LocalDate bizDate) {
+            this.bizDate = bizDate;
+        }
+
+        public DeletedEnum getDeleted() {
+            return deleted;
+        }
+
+        public void setDeleted(DeletedEnum deleted) {
+            this.deleted = deleted;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+    }
+
+    public static class OrderDTO {
+
+        private Long id;
+
+        private BigDecimal amount;
+
+        private long quantity;
+
+        private LocalDateTime createTime;
+
+        private Date bizDate;
+
+        private Integer deleted;
+
+        private String remark;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(long quantity) {
+            this.quantity = quantity;
+        }
+
+        public LocalDateTime getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(LocalDateTime createTime) {
+            this.createTime = createTime;
+        }
+
+        public Date getBizDate() {
+            return bizDate;
+        }
+
+        public void setBizDate(Date bizDate) {
+            this.bizDate = bizDate;
+        }
+
+        public Integer getDeleted() {
+            return deleted;
+        }
+
+        public void setDeleted(Integer deleted) {
+            this.deleted = deleted;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+    }
+
+    public static class Immutable {
+
+        private final int id;
+
+        public Immutable(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package top.jadeyan.commons.object;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TraceIdGenerator 与 RandomNumberUtil.randomNumber 的性能对比, 所有核心一起生成
+ *
+ * @author yan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class TraceIdGeneratorBenchmark {
+
+    private final char[] buffer = new char[TraceIdGenerator.ID_LENGTH];
+
+    @Benchmark
+    public String randomNumber() {
+        return RandomNumberUtil.randomNumber();
+    }
+
+    @Benchmark
+    public String traceId() {
+        return TraceIdGenerator.nextId();
+    }
+
+    @Benchmark
+    public char[] traceIdToBuffer() {
+        TraceIdGenerator.nextId(buffer, 0);
+        return buffer;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TraceIdGeneratorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,63 @@
+package top.jadeyan.commons.object;
+
+import org.junit.Test;
+import top.jadeyan.commons.http.HostAddressCache;
+import top.jadeyan.commons.net.IpUtils;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TraceIdGeneratorTest {
+
+    @Test
+    public void testFormat() {
+        String id = TraceIdGenerator.nextId();
+        assertEquals(TraceIdGenerator.ID_LENGTH, id.length());
+        assertTrue(id.matches("[0-9a-f]{32}"));
+        // 时间戳部分在第 8 到 19 位
+        long millis = Long.parseLong(id.substring(8, 19), 16);
+        assertTrue(Math.abs(System.currentTimeMillis() - millis) < TimeUnit.MINUTES.toMillis(1));
+        // 前 8 位是 HostAddressCache 当前的局域网地址
+        String lanAddress = HostAddressCache.getLanAddress();
+        long host = lanAddress.isEmpty() ? 0 : IpUtils.ipToLong(lanAddress);
+        assertEquals(String.format("%08x", host), id.substring(0, 8));
+    }
+
+    @Test
+    public void testWriteToBuffer() {
+        char[] buffer = new char[TraceIdGenerator.ID_LENGTH + 2];
+        buffer[0] = '[';
+        buffer[buffer.length - 1] = ']';
+        TraceIdGenerator.nextId(buffer, 1);
+        assertTrue(new String(buffer).matches("\\[[0-9a-f]{32}]"));
+        try {
+            TraceIdGenerator.nextId(buffer, 3);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("buffer too small", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testUniqueAcrossThreads() throws InterruptedException {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executorService.execute(() -> {
+                for (int j = 0; j < 50_000; j++) {
+                    ids.add(TraceIdGenerator.nextId());
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(400_000, ids.size());
+    }
+}
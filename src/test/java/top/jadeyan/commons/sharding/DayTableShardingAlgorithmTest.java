@@ -0,0 +1,68 @@
+package top.jadeyan.commons.sharding;
+
+import com.google.common.collect.Range;
+import org.apache.shardingsphere.api.sharding.standard.PreciseShardingValue;
+import org.apache.shardingsphere.api.sharding.standard.RangeShardingValue;
+import org.junit.Test;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class DayTableShardingAlgorithmTest {
+
+    @Test
+    public void testPreciseSharding() {
+        long pk = ShardingUtils.getPageId(Timestamp.valueOf(LocalDateTime.of(2020, 2, 29, 23, 59, 59)), 1);
+        String tableName = new DayTablePreciseShardingAlgorithm()
+                .doSharding(new ArrayList<>(), new PreciseShardingValue<>("quote", "id", pk));
+        assertEquals("quote_2020_02_29", tableName);
+    }
+
+    @Test
+    public void testRangeShardingMatchesShardingUtils() {
+        LocalDate start = LocalDate.of(2019, 12, 25);
+        LocalDate end = LocalDate.of(2020, 1, 6);
+        List<String> expected = ShardingUtils.getDayShardingTableNames("quote", Date.valueOf(start), Date.valueOf(end));
+        long minPk = ShardingUtils.getMinPkOfDate(Date.valueOf(start));
+        long maxPk = ShardingUtils.getMaxPkOfDate(Date.valueOf(end));
+        Collection<String> tables = new DayTableRangeShardingAlgorithm()
+                .doSharding(null, new RangeShardingValue<>("quote", "id", Range.closed(minPk, maxPk)));
+        assertEquals(expected, new ArrayList<>(tables));
+    }
+
+    @Test
+    public void testRangeShardingRetainAvailableTables() {
+        long minPk = ShardingUtils.getPageId(Timestamp.valueOf(LocalDateTime.of(2021, 3, 1, 8, 0)), 0);
+        long maxPk = ShardingUtils.getPageId(Timestamp.valueOf(LocalDateTime.of(2021, 3, 5, 8, 0)), 0);
+        List<String> available = Arrays.asList("quote_2021_02_28", "quote_2021_03_01", "quote_2021_03_03", "quote_2021_03_05");
+        DayTableRangeShardingAlgorithm algorithm = new DayTableRangeShardingAlgorithm();
+        RangeShardingValue<Long> value = new RangeShardingValue<>("quote", "id", Range.closed(minPk, maxPk));
+        assertEquals(Arrays.asList("quote_2021_03_01", "quote_2021_03_03", "quote_2021_03_05"),
+                new ArrayList<>(algorithm.doSharding(available, value)));
+        // 复用可用表索引
+        assertEquals(Arrays.asList("quote_2021_03_01", "quote_2021_03_03", "quote_2021_03_05"),
+                new ArrayList<>(algorithm.doSharding(available, value)));
+
+        List<String> allAvailable = ShardingUtils.getDayShardingTableNames("quote",
+                Date.valueOf(LocalDate.of(2021, 3, 1)), Date.valueOf(LocalDate.of(2021, 3, 5)));
+        assertEquals(allAvailable, new ArrayList<>(algorithm.doSharding(allAvailable, value)));
+    }
+
+    @Test
+    public void testUidRangeSharding() {
+        BitPackedPrimaryKeyLayout layout = BitPackedPrimaryKeyLayout.BAIDU_UID;
+        long minUid = layout.getMinPk(Timestamp.valueOf(LocalDateTime.of(2022, 3, 7, 19, 35, 33)).getTime());
+        long maxUid = layout.getMinPk(Timestamp.valueOf(LocalDateTime.of(2022, 3, 8, 1, 0)).getTime());
+        Collection<String> tables = new UidDayTableRangeShardingAlgorithm()
+                .doSharding(null, new RangeShardingValue<>("quote", "id", Range.closed(minUid, maxUid)));
+        assertEquals(Arrays.asList("quote_2022_03_07", "quote_2022_03_08"), new ArrayList<>(tables));
+    }
+}
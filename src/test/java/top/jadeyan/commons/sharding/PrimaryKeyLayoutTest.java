@@ -0,0 +1,77 @@
+package top.jadeyan.commons.sharding;
+
+import com.google.common.collect.Range;
+import org.apache.shardingsphere.api.sharding.standard.PreciseShardingValue;
+import org.apache.shardingsphere.api.sharding.standard.RangeShardingValue;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class PrimaryKeyLayoutTest {
+
+    @Test
+    public void testBitPackedLayout() {
+        long uid = 6287122008631205888L;
+        BitPackedPrimaryKeyLayout layout = BitPackedPrimaryKeyLayout.BAIDU_UID;
+        assertEquals(UidGeneratorUtils.getTimestamp(uid).getTime(), layout.getEpochMillis(uid));
+        assertEquals(7L, layout.getWorkerId(uid));
+        assertEquals(0L, layout.getSequence(uid));
+
+        long composed = layout.compose(layout.getDeltaSeconds(uid), 123, 45);
+        assertEquals(layout.getEpochMillis(uid), layout.getEpochMillis(composed));
+        assertEquals(123L, layout.getWorkerId(composed));
+        assertEquals(45L, layout.getSequence(composed));
+        assertEquals(layout.compose(layout.getDeltaSeconds(uid), 0, 0), layout.getMinPk(layout.getEpochMillis(uid)));
+    }
+
+    @Test
+    public void testDecimalWeightedLayout() {
+        Timestamp time = Timestamp.valueOf(LocalDateTime.of(2020, 1, 1, 1, 1, 1));
+        long pk = ShardingUtils.getPageId(time, 123);
+        DecimalWeightedPrimaryKeyLayout layout = DecimalWeightedPrimaryKeyLayout.PAGE_ID;
+        assertEquals(time.getTime(), layout.getEpochMillis(pk));
+        assertEquals(123L, layout.getFlowId(pk));
+        assertEquals((long) ShardingUtils.getPkValue(time), layout.getMinPk(time.getTime()));
+        assertEquals(layout.getMinPk(time.getTime()) - 1, layout.getMaxPkBefore(time.getTime()));
+    }
+
+    @Test
+    public void testUidMonthSharding() {
+        long startMillis = Timestamp.valueOf(LocalDateTime.of(2021, 11, 3, 10, 0)).getTime();
+        long endMillis = Timestamp.valueOf(LocalDateTime.of(2022, 2, 3, 10, 0)).getTime();
+        BitPackedPrimaryKeyLayout layout = BitPackedPrimaryKeyLayout.BAIDU_UID;
+        long startUid = layout.compose(layout.getDeltaSeconds(layout.getMinPk(startMillis)), 3, 5);
+        long endUid = layout.getMinPk(endMillis);
+        Collection<String> names = Collections.emptyList();
+
+        String precise = new UidMonthTablePreciseShardingAlgorithm()
+                .doSharding(names, new PreciseShardingValue<>("quote", "id", startUid));
+        assertEquals("quote_2021_11", precise);
+
+        Collection<String> range = new UidMonthTableRangeShardingAlgorithm()
+                .doSharding(names, new RangeShardingValue<>("quote", "id", Range.closed(startUid, endUid)));
+        assertEquals(Arrays.asList("quote_2021_11", "quote_2021_12", "quote_2022_01", "quote_2022_02"), new ArrayList<>(range));
+
+        Collection<String> yearRange = new UidYearTableRangeShardingAlgorithm()
+                .doSharding(names, new RangeShardingValue<>("quote", "id", Range.closed(startUid, endUid)));
+        assertEquals(Arrays.asList("quote_2021", "quote_2022"), new ArrayList<>(yearRange));
+    }
+
+    @Test
+    public void testPageIdMonthSharding() {
+        long pk = ShardingUtils.getPageId(Timestamp.valueOf(LocalDateTime.of(2021, 7, 31, 23, 59, 59)), 999_999);
+        String precise = new MonthTablePreciseShardingAlgorithm()
+                .doSharding(Collections.emptyList(), new PreciseShardingValue<>("quote", "id", pk));
+        assertEquals("quote_2021_07", precise);
+        String yearPrecise = new YearTablePreciseShardingAlgorithm()
+                .doSharding(Collections.emptyList(), new PreciseShardingValue<>("quote", "id", pk));
+        assertEquals("quote_2021", yearPrecise);
+    }
+}
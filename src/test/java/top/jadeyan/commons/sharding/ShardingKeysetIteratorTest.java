@@ -0,0 +1,115 @@
+package top.jadeyan.commons.sharding;
+
+import org.junit.Test;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ShardingKeysetIteratorTest {
+
+    private static long pkOf(LocalDateTime dateTime, long flowId) {
+        return ShardingUtils.getPageId(Timestamp.valueOf(dateTime).getTime(), flowId);
+    }
+
+    private static NavigableSet<Long> buildPks() {
+        NavigableSet<Long> pks = new TreeSet<>();
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1).minusMonths(14);
+        for (int month = 0; month <= 14; month++) {
+            // 留几个空的月份
+            if (month % 4 == 1) {
+                continue;
+            }
+            LocalDateTime dateTime = firstMonth.plusMonths(month).atStartOfDay();
+            for (int i = 0; i < 7; i++) {
+                pks.add(pkOf(dateTime.plusHours(i), i));
+            }
+        }
+        return pks;
+    }
+
+    private static ShardingKeysetIterator.PageFetcher<Long> fetcher(NavigableSet<Long> pks, ShardingTableUnit unit, List<String> calls) {
+        return (afterPk, maxPk, pageSize) -> {
+            long minPk = afterPk + 1;
+            int minOrdinal = unit.ordinalOf(ShardingUtils.getPkMillis(minPk));
+            assertEquals("query must stay in one table", minOrdinal, unit.ordinalOf(ShardingUtils.getPkMillis(maxPk)));
+            calls.add(afterPk + "-" + maxPk);
+            return pks.subSet(afterPk, false, maxPk, true).stream().limit(pageSize).collect(Collectors.toList());
+        };
+    }
+
+    @Test
+    public void testIterateMonthTables() {
+        NavigableSet<Long> pks = buildPks();
+        List<String> calls = new ArrayList<>();
+        long startPk = pks.first() - 1;
+        List<Long> result;
+        try (Stream<Long> stream = ShardingKeysetIterator.of(startPk, 3, fetcher(pks, ShardingTableUnit.MONTH, calls), Long::longValue).stream()) {
+            result = stream.collect(Collectors.toList());
+        }
+        assertEquals(new ArrayList<>(pks), result);
+        // 15 个月, 每个有数据的月份 3 页
+        assertEquals(15 + 11 * 2, calls.size());
+    }
+
+    @Test
+    public void testStartPkExclusiveAndEndPk() {
+        NavigableSet<Long> pks = buildPks();
+        List<String> calls = new ArrayList<>();
+        List<Long> all = new ArrayList<>(pks);
+        long startPk = all.get(5);
+        long endPk = all.get(30);
+        List<Long> result = new ArrayList<>();
+        ShardingKeysetIterator.of(startPk, 4, fetcher(pks, ShardingTableUnit.MONTH, calls), Long::longValue)
+                .endPk(endPk)
+                .forEachRemaining(result::add);
+        assertEquals(all.subList(6, 31), result);
+    }
+
+    @Test
+    public void testIterateYearTables() {
+        NavigableSet<Long> pks = buildPks();
+        List<String> calls = new ArrayList<>();
+        List<Long> result = ShardingKeysetIterator.of(pks.first() - 1, 10, fetcher(pks, ShardingTableUnit.YEAR, calls), Long::longValue)
+                .unit(ShardingTableUnit.YEAR)
+                .stream()
+                .collect(Collectors.toList());
+        assertEquals(new ArrayList<>(pks), result);
+    }
+
+    @Test
+    public void testStartFromFuture() {
+        long startPk = pkOf(LocalDate.now().withDayOfMonth(1).plusMonths(1).atStartOfDay(), 0);
+        ShardingKeysetIterator<Long> iterator = ShardingKeysetIterator.of(startPk, 10,
+                (afterPk, maxPk, pageSize) -> {
+                    throw new IllegalStateException("should not fetch");
+                }, Long::longValue);
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testFetchError() {
+        ShardingKeysetIterator<Long> iterator = ShardingKeysetIterator.of(pkOf(LocalDateTime.now(), 0), 10,
+                (afterPk, maxPk, pageSize) -> {
+                    throw new IllegalStateException("db error");
+                }, Long::longValue);
+        try {
+            iterator.hasNext();
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package top.jadeyan.commons.sharding;
+
+import org.junit.After;
+import org.junit.Test;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ShardingScatterGatherTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    private final List<String> tableNames = Arrays.asList("quote_2020_01", "quote_2020_02", "quote_2020_03", "quote_2020_04");
+
+    private final Map<String, List<Long>> tableRows = new HashMap<>();
+
+    private final Set<String> queriedTables = ConcurrentHashMap.newKeySet();
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private Function<String, List<Long>> queryFunction() {
+        tableRows.put("quote_2020_01", Arrays.asList(1L, 2L, 3L));
+        tableRows.put("quote_2020_02", Arrays.asList(10L, 11L));
+        tableRows.put("quote_2020_03", Collections.emptyList());
+        tableRows.put("quote_2020_04", Arrays.asList(30L, 31L, 32L));
+        return tableName -> {
+            queriedTables.add(tableName);
+            return tableRows.get(tableName);
+        };
+    }
+
+    @Test
+    public void testMergeAllTables() {
+        List<Long> result = ShardingScatterGather.of(tableNames, queryFunction())
+                .executor(executorService)
+                .orderBy(Long::longValue, true)
+                .execute();
+        assertEquals(Arrays.asList(1L, 2L, 3L, 10L, 11L, 30L, 31L, 32L), result);
+    }
+
+    @Test
+    public void testMergeOverlappingPk() {
+        List<List<Long>> rows = Arrays.asList(Arrays.asList(1L, 4L, 7L), Arrays.asList(2L, 5L), Arrays.asList(3L, 6L, 8L));
+        List<Long> result = ShardingScatterGather.of(Arrays.asList("0", "1", "2"), (String table) -> rows.get(Integer.parseInt(table)))
+                .executor(executorService)
+                .orderBy(Long::longValue, true)
+                .limit(6)
+                .execute();
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L), result);
+    }
+
+    @Test
+    public void testMergeDesc() {
+        List<String> descTableNames = new ArrayList<>(tableNames);
+        Collections.reverse(descTableNames);
+        Function<String, List<Long>> query = queryFunction();
+        List<Long> result = ShardingScatterGather.of(descTableNames, (String table) -> {
+            List<Long> rows = new ArrayList<>(query.apply(table));
+            Collections.reverse(rows);
+            return rows;
+        }).executor(executorService).orderBy(Long::longValue, false).limit(4).execute();
+        assertEquals(Arrays.asList(32L, 31L, 30L, 11L), result);
+    }
+
+    @Test
+    public void testStopWhenLimitSatisfied() {
+        List<Long> result = ShardingScatterGather.of(tableNames, queryFunction())
+                .executor(executorService)
+                .maxConcurrency(1)
+                .orderBy(Long::longValue, true)
+                .limit(4)
+                .execute();
+        assertEquals(Arrays.asList(1L, 2L, 3L, 10L), result);
+        assertTrue(queriedTables.contains("quote_2020_02"));
+        assertFalse(queriedTables.contains("quote_2020_03"));
+        assertFalse(queriedTables.contains("quote_2020_04"));
+    }
+
+    @Test
+    public void testQueryError() {
+        try {
+            ShardingScatterGather.of(tableNames, (String table) -> {
+                throw new IllegalStateException(table);
+            }).executor(executorService).execute();
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
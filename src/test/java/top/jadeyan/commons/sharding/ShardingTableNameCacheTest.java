@@ -0,0 +1,63 @@
+package top.jadeyan.commons.sharding;
+
+import org.junit.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ShardingTableNameCacheTest {
+
+    @Test
+    public void testMonthTableNames() {
+        LocalDate start = LocalDate.of(2019, 11, 20);
+        LocalDate end = LocalDate.of(2021, 2, 5);
+        ShardingTableUnit unit = ShardingTableUnit.MONTH;
+        List<String> results = ShardingTableNameCache.month().getTableNames("test_month",
+                unit.ordinalOf(start), unit.ordinalOf(end));
+        List<String> expected = ShardingUtils.getMonthShardingTableNames("test_month", Date.valueOf(start), Date.valueOf(end));
+        assertEquals(expected, new ArrayList<>(results));
+        assertEquals("test_month_2019_11", results.get(0));
+        assertEquals("test_month_2021_02", results.get(results.size() - 1));
+    }
+
+    @Test
+    public void testYearTableNames() {
+        LocalDate start = LocalDate.of(2018, 11, 20);
+        LocalDate end = LocalDate.of(2021, 2, 5);
+        ShardingTableUnit unit = ShardingTableUnit.YEAR;
+        List<String> results = ShardingTableNameCache.year().getTableNames("test_year",
+                unit.ordinalOf(start), unit.ordinalOf(end));
+        List<String> expected = new ArrayList<>(
+                ShardingUtils.getYearShardingTableNames("test_year", Date.valueOf(start), Date.valueOf(end)));
+        assertEquals(expected, new ArrayList<>(results));
+    }
+
+    @Test
+    public void testCachedTableNamesAreReused() {
+        ShardingTableUnit unit = ShardingTableUnit.MONTH;
+        int ordinal = unit.ordinalOf(LocalDate.of(2020, 3, 1));
+        List<String> first = ShardingTableNameCache.month().getTableNames("test_reuse", ordinal, ordinal + 2);
+        List<String> second = ShardingTableNameCache.month().getTableNames("test_reuse", ordinal + 1, ordinal + 2);
+        assertSame(first.get(1), second.get(0));
+        assertSame(first.get(2), ShardingTableNameCache.month().getTableName("test_reuse", ordinal + 2));
+    }
+
+    @Test
+    public void testStartAfterEnd() {
+        assertTrue(ShardingTableNameCache.month().getTableNames("test_empty", 10, 9).isEmpty());
+    }
+
+    @Test
+    public void testExceedMaxCachedSize() {
+        ShardingTableUnit unit = ShardingTableUnit.YEAR;
+        List<String> results = ShardingTableNameCache.year().getTableNames("test_large", 1000, 1000 + unit.getMaxCachedSize());
+        assertEquals(unit.getMaxCachedSize() + 1, results.size());
+        assertEquals("test_large_1000", results.get(0));
+    }
+}
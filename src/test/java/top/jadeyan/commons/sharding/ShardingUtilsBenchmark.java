@@ -0,0 +1,125 @@
+package top.jadeyan.commons.sharding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShardingUtils 装箱版本与原始类型版本的性能对比
+ * <p>
+ * 运行: 直接执行 main 方法, 或者 mvn test-compile 之后用 jmh Runner 指定 include
+ *
+ * @author yan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardingUtilsBenchmark {
+
+    private static final int PK_SIZE = 1024;
+
+    private final long[] pks = new long[PK_SIZE];
+
+    private final Long[] boxedPks = new Long[PK_SIZE];
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1L);
+        long minMillis = Timestamp.valueOf(LocalDateTime.of(2015, 1, 1, 0, 0)).getTime();
+        long maxMillis = Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 0, 0)).getTime();
+        for (int i = 0; i < PK_SIZE; i++) {
+            long millis = minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+            pks[i] = ShardingUtils.getPageId(millis, random.nextInt(1_000_000));
+            boxedPks[i] = pks[i];
+        }
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (PK_SIZE - 1);
+        return index;
+    }
+
+    @Benchmark
+    public Long boxedCurrentMonthMaxPk() {
+        return ShardingUtils.getCurrentMonthMaxPk(boxedPks[nextIndex()]);
+    }
+
+    @Benchmark
+    public long primitiveCurrentMonthMaxPk() {
+        return ShardingUtils.getCurrentMonthMaxPkFast(pks[nextIndex()]);
+    }
+
+    @Benchmark
+    public Long boxedNextMonthMinPk() {
+        return ShardingUtils.getNextMonthMinPk(boxedPks[nextIndex()]);
+    }
+
+    @Benchmark
+    public long primitiveNextMonthMinPk() {
+        return ShardingUtils.getNextMonthMinPkFast(pks[nextIndex()]);
+    }
+
+    @Benchmark
+    public void boxedDayRange(Blackhole blackhole) {
+        Date pkDate = ShardingUtils.getPkDate(boxedPks[nextIndex()]);
+        blackhole.consume(ShardingUtils.getMinPkOfDate(pkDate));
+        blackhole.consume(ShardingUtils.getMaxPkOfDate(pkDate));
+    }
+
+    @Benchmark
+    public void primitiveDayRange(Blackhole blackhole) {
+        long millis = ShardingUtils.getPkMillis(pks[nextIndex()]);
+        blackhole.consume(ShardingUtils.getMinPkOfDate(millis));
+        blackhole.consume(ShardingUtils.getMaxPkOfDate(millis));
+    }
+
+    @Benchmark
+    public boolean boxedIsMaxMonth() {
+        return ShardingUtils.isMaxMonth(boxedPks[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean primitiveIsMaxMonth() {
+        return ShardingUtils.isMaxMonthFast(pks[nextIndex()]);
+    }
+
+    @Benchmark
+    public long boxedFlowId() {
+        return ShardingUtils.getFlowId(boxedPks[nextIndex()]);
+    }
+
+    @Benchmark
+    public long primitiveFlowId() {
+        return ShardingUtils.getFlowIdFast(pks[nextIndex()]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ShardingUtilsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
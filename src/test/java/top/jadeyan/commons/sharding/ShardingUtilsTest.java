@@ -7,6 +7,8 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
 
 import static org.junit.Assert.assertEquals;
 
@@ -53,4 +55,59 @@ public class ShardingUtilsTest {
         final Timestamp timestamp1 = Timestamp.valueOf(addedTime);
         assertEquals(ShardingUtils.getPkValue(timestamp1) - 1, maxPkOfSecond);
     }
+
+    @Test
+    public void testPrimitivePkMatchesBoxedPk() {
+        Random random = new Random(20231010L);
+        long minMillis = Timestamp.valueOf(LocalDateTime.of(1990, 1, 1, 0, 0)).getTime();
+        long maxMillis = Timestamp.valueOf(LocalDateTime.of(2060, 1, 1, 0, 0)).getTime();
+        for (int i = 0; i < 20000; i++) {
+            long millis = minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+            long pk = ShardingUtils.getPageId(new Timestamp(millis), random.nextInt(1_000_000));
+            Long boxedPk = pk;
+            Date pkDate = ShardingUtils.getPkDate(boxedPk);
+            assertEquals(pk, ShardingUtils.getPageId(millis, ShardingUtils.getFlowIdFast(pk)));
+            assertEquals(ShardingUtils.getFlowId(boxedPk), ShardingUtils.getFlowIdFast(pk));
+            assertEquals(pkDate.getTime(), ShardingUtils.getPkMillis(pk));
+            assertEquals((long) ShardingUtils.getCurrentMonthMaxPk(boxedPk), ShardingUtils.getCurrentMonthMaxPkFast(pk));
+            assertEquals((long) ShardingUtils.getNextMonthMinPk(boxedPk), ShardingUtils.getNextMonthMinPkFast(pk));
+            assertEquals((long) ShardingUtils.getCurrentMonthMinPk(pkDate), ShardingUtils.getCurrentMonthMinPkFast(pk));
+            assertEquals((long) ShardingUtils.getCurrentYearMaxPk(boxedPk), ShardingUtils.getCurrentYearMaxPkFast(pk));
+            assertEquals((long) ShardingUtils.getNextYearMinPk(boxedPk), ShardingUtils.getNextYearMinPkFast(pk));
+            assertEquals((long) ShardingUtils.getMinPkOfDate(pkDate), ShardingUtils.getMinPkOfDate(millis));
+            assertEquals((long) ShardingUtils.getMaxPkOfDate(pkDate), ShardingUtils.getMaxPkOfDate(millis));
+            assertEquals((long) ShardingUtils.getMaxPkOfSecond(pkDate), ShardingUtils.getMaxPkOfSecond(millis));
+            assertEquals(ShardingUtils.isMaxMonth(boxedPk).booleanValue(), ShardingUtils.isMaxMonthFast(pk));
+            assertEquals(ShardingUtils.isMaxYear(boxedPk).booleanValue(), ShardingUtils.isMaxYearFast(pk));
+            assertEquals((long) ShardingUtils.getMaxPk(pkDate, pk - 1), ShardingUtils.getMaxPk(millis, pk - 1));
+            LocalDate localDate = pkDate.toLocalDate();
+            assertEquals(localDate.getYear() * 12 + localDate.getMonthValue() - 1, ShardingUtils.getMonthOrdinal(pk));
+            assertEquals(localDate.getYear(), ShardingUtils.getYear(pk));
+        }
+    }
+
+    @Test
+    public void testPrimitivePkAtMonthBoundary() {
+        long monthStart = Timestamp.valueOf(LocalDateTime.of(2020, 3, 1, 0, 0)).getTime();
+        long pk = ShardingUtils.getPageId(monthStart, 0);
+        assertEquals(pk, ShardingUtils.getCurrentMonthMinPkFast(pk));
+        assertEquals(pk - 1, ShardingUtils.getCurrentMonthMaxPkFast(pk - 1));
+        assertEquals(pk, ShardingUtils.getNextMonthMinPkFast(pk - 1));
+        assertEquals(2020 * 12 + 2, ShardingUtils.getMonthOrdinal(pk));
+        assertEquals(2020 * 12 + 1, ShardingUtils.getMonthOrdinal(pk - 1));
+    }
+
+    @Test
+    public void testPrimitivePkFollowsDefaultTimeZone() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            long pk = ShardingUtils.getPageId(Timestamp.valueOf(LocalDateTime.of(2020, 3, 15, 0, 0)).getTime(), 0);
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            assertEquals((long) ShardingUtils.getNextMonthMinPk((Long) pk), ShardingUtils.getNextMonthMinPkFast(pk));
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            assertEquals((long) ShardingUtils.getNextMonthMinPk((Long) pk), ShardingUtils.getNextMonthMinPkFast(pk));
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
 }
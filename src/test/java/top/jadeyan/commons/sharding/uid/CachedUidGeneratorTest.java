@@ -0,0 +1,131 @@
+package top.jadeyan.commons.sharding.uid;
+
+import org.junit.Test;
+import top.jadeyan.commons.sharding.BitPackedPrimaryKeyLayout;
+import top.jadeyan.commons.sharding.UidGeneratorUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class CachedUidGeneratorTest {
+
+    @Test
+    public void testUidLayout() {
+        try (CachedUidGenerator generator = new CachedUidGenerator(maxWorkerId -> 7L)) {
+            long start = System.currentTimeMillis();
+            long uid = generator.getUid();
+            BitPackedPrimaryKeyLayout layout = generator.getLayout();
+            assertEquals(7L, layout.getWorkerId(uid));
+            long uidMillis = UidGeneratorUtils.getTimestamp(uid).getTime();
+            assertEquals(layout.getEpochMillis(uid), uidMillis);
+            assertTrue(uidMillis >= start - TimeUnit.SECONDS.toMillis(1));
+            // 2024-11-20 之后符号位为 1
+            assertTrue(uid < 0);
+        }
+    }
+
+    @Test
+    public void testUnsignedOrderAcrossSignBit() {
+        BitPackedPrimaryKeyLayout layout = BitPackedPrimaryKeyLayout.BAIDU_UID;
+        long signBitSecond = (layout.getMaxDeltaSeconds() + 1) / 2;
+        long before = layout.compose(signBitSecond - 1, 1L, layout.getMaxSequence());
+        long after = layout.compose(signBitSecond, 1L, 0L);
+        assertTrue(before > 0 && after < 0);
+        assertTrue(Long.compareUnsigned(before, after) < 0);
+        assertEquals(signBitSecond, layout.getDeltaSeconds(after));
+    }
+
+    @Test
+    public void testUniqueAndIncreasingInSingleThread() {
+        try (CachedUidGenerator generator = new CachedUidGenerator(maxWorkerId -> 1L)) {
+            long last = 0L;
+            // 多于缓冲区大小, 覆盖同步填充和借用未来秒数
+            for (int i = 0; i < 500_000; i++) {
+                long uid = generator.getUid();
+                assertTrue(Long.compareUnsigned(uid, last) > 0);
+                last = uid;
+            }
+        }
+    }
+
+    @Test
+    public void testUniqueInMultiThread() throws Exception {
+        int threadSize = 8;
+        int countPerThread = 100_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadSize);
+        Set<Long> uidSet = ConcurrentHashMap.newKeySet();
+        try (CachedUidGenerator generator = new CachedUidGenerator(new LocalWorkerIdAssigner("test"))) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadSize; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < countPerThread; j++) {
+                        uidSet.add(generator.getUid());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertEquals(threadSize * countPerThread, uidSet.size());
+    }
+
+    @Test
+    public void testRestartWithSameWorkerIdContinuesAfterBorrowedSeconds() throws IOException {
+        Path file = Files.createTempDirectory("uid").resolve("worker.id");
+        Files.write(file, "3".getBytes(StandardCharsets.UTF_8));
+        long last = 0L;
+        try (CachedUidGenerator generator = new CachedUidGenerator(new FileWorkerIdAssigner(file))) {
+            // 多于缓冲区大小, 借用未来的秒数
+            for (int i = 0; i < 200_000; i++) {
+                last = generator.getUid();
+            }
+        }
+        long borrowedSecond = BitPackedPrimaryKeyLayout.BAIDU_UID.getDeltaSeconds(last);
+        assertTrue(new FileWorkerIdAssigner(file).loadLastSecond(3L) >= borrowedSecond);
+        try (CachedUidGenerator generator = new CachedUidGenerator(new FileWorkerIdAssigner(file))) {
+            long uid = generator.getUid();
+            assertEquals(3L, generator.getLayout().getWorkerId(uid));
+            assertTrue(generator.getLayout().getDeltaSeconds(uid) > borrowedSecond);
+        }
+    }
+
+    @Test
+    public void testWorkerIdAssigner() throws IOException {
+        Path dir = Files.createTempDirectory("uid");
+        Path file = dir.resolve("worker.id");
+        assertThrows(IllegalStateException.class, () -> new FileWorkerIdAssigner(file).assignWorkerId(1023));
+        Files.write(file, "2000".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, () -> new FileWorkerIdAssigner(file).assignWorkerId(1023));
+        Files.write(file, "abc".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, () -> new FileWorkerIdAssigner(file).assignWorkerId(1023));
+        Files.write(file, "5\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(5L, new FileWorkerIdAssigner(file).assignWorkerId(1023));
+
+        System.setProperty("TEST_UID_WORKER_ID", "12");
+        assertEquals(12L, new EnvironmentWorkerIdAssigner("TEST_UID_WORKER_ID").assignWorkerId(1023));
+
+        Set<Long> workerIds = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            workerIds.add(new LocalWorkerIdAssigner("test_assigner").assignWorkerId(1023));
+        }
+        assertEquals(10, workerIds.size());
+    }
+}
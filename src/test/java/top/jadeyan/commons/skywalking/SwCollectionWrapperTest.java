@@ -2,11 +2,17 @@ package top.jadeyan.commons.skywalking;
 
 import org.junit.Test;
 
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -131,4 +137,238 @@ public class SwCollectionWrapperTest {
         }));
     }
 
+    private static List<Integer> range(int size) {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    public void testChunkedMap() throws InterruptedException {
+        List<Integer> list = range(100_000);
+        ExecutorService executorService = SwExecutors.register("testChunkedMap", SwExecutorConfig.of(4, 4));
+        List<Integer> result = SwCollectionWrapper.of(list).parallel(executorService).chunked().mapToList(x -> x * 2);
+        assertEquals(list.size(), result.size());
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(i * 2, result.get(i).intValue());
+        }
+        // 返回的列表可以修改
+        result.add(-1);
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(1, TimeUnit.SECONDS));
+        // 每个分片一个任务, 任务数远小于元素数
+        long taskCount = ((SwThreadPoolExecutor) executorService).getMetrics().getExecutionTime().getCount();
+        assertEquals(Runtime.getRuntime().availableProcessors() * 4, taskCount);
+    }
+
+    @Test
+    public void testChunkedForEach() {
+        List<Integer> list = range(1000);
+        ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+        SwCollectionWrapper.of(list).parallel().chunked(1).forEach(queue::add);
+        assertEquals(new HashSet<>(list), new HashSet<>(queue));
+        assertEquals(list.size(), queue.size());
+    }
+
+    @Test
+    public void testFilterAndFlatMap() {
+        List<Integer> list = range(1000);
+        List<Integer> expectedFilter = list.stream().filter(x -> x % 3 == 0).collect(Collectors.toList());
+        assertEquals(expectedFilter, SwCollectionWrapper.of(list).filter(x -> x % 3 == 0));
+        assertEquals(expectedFilter, SwCollectionWrapper.of(list).parallel().chunked().filter(x -> x % 3 == 0));
+        assertEquals(expectedFilter, SwCollectionWrapper.of(list).parallel().filter(x -> x % 3 == 0));
+
+        List<Integer> expectedFlatMap = list.stream().flatMap(x -> Stream.of(x, -x)).collect(Collectors.toList());
+        assertEquals(expectedFlatMap, SwCollectionWrapper.of(list).parallel().chunked().flatMap(x -> Arrays.asList(x, -x)));
+    }
+
+    @Test
+    public void testReduce() {
+        List<Integer> list = range(1000);
+        assertEquals(Integer.valueOf(499500), SwCollectionWrapper.of(list).parallel().chunked().reduce(0, Integer::sum));
+        String joined = SwCollectionWrapper.of(range(20)).parallel().chunked()
+                .reduce("", (text, x) -> text + x + ",", String::concat);
+        assertEquals(range(20).stream().map(x -> x + ",").collect(Collectors.joining()), joined);
+        assertEquals(Integer.valueOf(0), SwCollectionWrapper.of(new ArrayList<Integer>()).parallel().chunked().reduce(0, Integer::sum));
+    }
+
+    @Test
+    public void testGroupingBy() {
+        List<Integer> list = range(1000);
+        Map<Integer, List<Integer>> expected = list.stream().collect(Collectors.groupingBy(x -> x % 7));
+        Map<Integer, List<Integer>> result = SwCollectionWrapper.of(list).parallel().chunked().groupingBy(x -> x % 7);
+        assertEquals(expected, result);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6), new ArrayList<>(result.keySet()));
+    }
+
+    @Test
+    public void testChunkedException() {
+        try {
+            SwCollectionWrapper.of(range(1000)).parallel().chunked().filter(x -> {
+                if (x == 999) {
+                    throw new IllegalStateException("throw");
+                }
+                return true;
+            });
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testLimitedMaxInFlight() {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        SwMapOptions<Integer, Integer> options = SwMapOptions.<Integer, Integer>of().maxInFlight(3);
+        List<Integer> result = SwCollectionWrapper.of(range(20)).parallel(executorService).mapToList(x -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            return x + 1;
+        }, options);
+        executorService.shutdown();
+        assertEquals(range(20).stream().map(x -> x + 1).collect(Collectors.toList()), result);
+        assertTrue(maxRunning.get() > 1);
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void testLimitedRate() {
+        SwMapOptions<Integer, Integer> options = SwMapOptions.<Integer, Integer>of().rateLimit(50);
+        long start = System.nanoTime();
+        List<Integer> result = SwCollectionWrapper.of(range(11)).parallel().mapToList(x -> x, options);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(range(11), result);
+        // 第一个令牌不用等待, 后面 10 个每个 20 毫秒
+        assertTrue("elapsed " + elapsedMillis, elapsedMillis >= 190);
+    }
+
+    @Test
+    public void testLimitedTimeoutFallback() {
+        SwMapOptions<Integer, Integer> options = SwMapOptions.<Integer, Integer>of()
+                .maxInFlight(2)
+                .timeout(100, TimeUnit.MILLISECONDS, x -> -x);
+        long start = System.nanoTime();
+        List<Integer> result = SwCollectionWrapper.of(range(6)).parallel().mapToList(x -> {
+            if (x == 2 || x == 3) {
+                sleep(5000);
+            }
+            return x;
+        }, options);
+        assertEquals(Arrays.asList(0, 1, -2, -3, 4, 5), result);
+        // 超时的任务被中断, 许可及时归还
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+
+    @Test
+    public void testLimitedNotParallelRunsInCallerThread() {
+        Thread caller = Thread.currentThread();
+        SwMapOptions<Integer, Integer> options = SwMapOptions.<Integer, Integer>of()
+                .timeout(50, TimeUnit.MILLISECONDS, x -> -x);
+        List<Integer> result = SwCollectionWrapper.of(range(3)).mapToList(x -> {
+            assertSame(caller, Thread.currentThread());
+            sleep(x == 1 ? 5000 : 0);
+            return x;
+        }, options);
+        assertEquals(Arrays.asList(0, -1, 2), result);
+        // 超时取消产生的中断不会留给调用方
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testLimitedTimeoutWithoutFallback() {
+        SwMapOptions<Integer, Integer> options = SwMapOptions.<Integer, Integer>of().timeout(50, TimeUnit.MILLISECONDS);
+        try {
+            SwCollectionWrapper.of(range(3)).mapToList(x -> {
+                sleep(x == 1 ? 5000 : 0);
+                return x;
+            }, options);
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void testLimitedError() {
+        AtomicInteger called = new AtomicInteger();
+        SwMapOptions<Integer, Integer> options = SwMapOptions.<Integer, Integer>of().maxInFlight(1);
+        try {
+            SwCollectionWrapper.of(range(100)).parallel().mapToList(x -> {
+                called.incrementAndGet();
+                if (x == 3) {
+                    throw new IllegalStateException("throw");
+                }
+                return x;
+            }, options);
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // 失败后停止提交
+        assertTrue(called.get() < 100);
+    }
+
+    @Test
+    public void testLimitedErrorCancelsRunning() {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        long start = System.nanoTime();
+        try {
+            SwCollectionWrapper.of(range(2)).parallel(executorService).mapToList(x -> {
+                if (x == 1) {
+                    throw new IllegalStateException("throw");
+                }
+                sleep(5000);
+                return x;
+            }, SwMapOptions.<Integer, Integer>of().maxInFlight(2));
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        } finally {
+            executorService.shutdownNow();
+        }
+        // 不等待前面的元素执行完
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+
+    @Test
+    public void testLimitedTimeoutOnCallerRunsPool() throws InterruptedException {
+        // 唯一的线程被占用, 任务都在提交线程中执行
+        ThreadPoolExecutor executorService = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy());
+        CountDownLatch release = new CountDownLatch(1);
+        executorService.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        SwMapOptions<Integer, Integer> options = SwMapOptions.<Integer, Integer>of()
+                .timeout(50, TimeUnit.MILLISECONDS, x -> -x);
+        try {
+            List<Integer> result = SwCollectionWrapper.of(range(3)).parallel(executorService).mapToList(x -> {
+                sleep(x == 1 ? 5000 : 0);
+                return x;
+            }, options);
+            assertEquals(Arrays.asList(0, -1, 2), result);
+            // 超时取消的中断不会留给调用方
+            assertFalse(Thread.interrupted());
+        } finally {
+            release.countDown();
+            executorService.shutdown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
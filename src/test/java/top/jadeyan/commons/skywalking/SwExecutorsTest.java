@@ -0,0 +1,167 @@
+package top.jadeyan.commons.skywalking;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SwExecutorsTest {
+
+    @Test
+    public void testDefaultExecutors() throws Exception {
+        assertSame(SwExecutors.io(), SwExecutors.get(SwExecutors.IO));
+        assertSame(SwExecutors.cpu(), SwExecutors.get(SwExecutors.CPU));
+        assertNotSame(SwExecutors.io(), SwExecutors.cpu());
+        String threadName = SwExecutors.io().submit(() -> Thread.currentThread().getName()).get();
+        assertTrue(threadName.startsWith("sw-io-"));
+        List<String> names = SwExecutors.getAllMetrics().stream().map(SwExecutorMetrics::getName).collect(Collectors.toList());
+        assertTrue(names.contains(SwExecutors.IO));
+        assertTrue(names.contains(SwExecutors.CPU));
+    }
+
+    @Test
+    public void testRegister() {
+        ExecutorService executor = SwExecutors.register("testRegister", SwExecutorConfig.of(1, 1));
+        assertSame(executor, SwExecutors.get("testRegister"));
+        try {
+            SwExecutors.register("testRegister", SwExecutorConfig.of(1, 1));
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("testRegister"));
+        }
+        try {
+            SwExecutors.get("notRegistered");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("notRegistered"));
+        }
+        assertTrue(SwExecutors.unregister("testRegister"));
+        assertTrue(executor.isShutdown());
+        assertFalse(SwExecutors.unregister("testRegister"));
+        // 取消注册后可以重新注册
+        SwExecutors.register("testRegister", SwExecutorConfig.of(1, 1));
+        assertTrue(SwExecutors.unregister("testRegister"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnregisterDefault() {
+        SwExecutors.unregister(SwExecutors.IO);
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        ExecutorService executor = SwExecutors.register("testMetrics", SwExecutorConfig.of(2, 2));
+        List<Future<?>> futures = IntStream.range(0, 10)
+                .mapToObj(i -> executor.submit(() -> sleep(20)))
+                .collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        // 任务完成后才记录执行时间, 等线程池结束再取统计
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        // 终止后自动取消注册
+        assertFalse(SwExecutors.unregister("testMetrics"));
+        SwExecutorMetrics metrics = ((SwThreadPoolExecutor) executor).getMetrics();
+        assertEquals(10, metrics.getExecutionTime().getCount());
+        assertEquals(10, metrics.getWaitTime().getCount());
+        assertTrue(metrics.getExecutionTime().getPercentileNanos(50) >= TimeUnit.MILLISECONDS.toNanos(20));
+        // 2 个线程执行 10 个任务, 后面的任务至少排队 4 轮
+        assertTrue(metrics.getWaitTime().getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(80));
+        assertEquals(0, metrics.getRejectedCount());
+    }
+
+    @Test
+    public void testCallerRunsWhenQueueFull() throws Exception {
+        ExecutorService executor = SwExecutors.register("testCallerRuns", SwExecutorConfig.of(1, 1).queueCapacity(1));
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.submit(() -> await(latch));
+        executor.submit(() -> await(latch));
+        SwExecutorMetrics metrics = SwExecutors.getMetrics("testCallerRuns");
+        assertEquals(1, metrics.getQueueSize());
+        assertEquals(0, metrics.getQueueRemainingCapacity());
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get();
+        assertEquals(Thread.currentThread().getName(), threadName);
+        latch.countDown();
+        assertEquals(1, SwExecutors.getMetrics("testCallerRuns").getRejectedCount());
+        SwExecutors.unregister("testCallerRuns");
+    }
+
+    @Test
+    public void testAbortWhenQueueFull() {
+        ExecutorService executor = SwExecutors.register("testAbort",
+                SwExecutorConfig.of(1, 1).queueCapacity(1).rejectPolicy(SwExecutorConfig.RejectPolicy.ABORT));
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> await(latch));
+        executor.execute(() -> await(latch));
+        try {
+            executor.execute(() -> await(latch));
+            fail();
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, SwExecutors.getMetrics("testAbort").getRejectedCount());
+        } finally {
+            latch.countDown();
+            SwExecutors.unregister("testAbort");
+        }
+    }
+
+    @Test
+    public void testShutdownNowReturnsOriginalTasks() {
+        ExecutorService executor = SwThreadPoolExecutor.of("testShutdownNow", SwExecutorConfig.of(1, 1).queueCapacity(2));
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> await(latch));
+        Runnable queued = () -> {
+        };
+        executor.execute(queued);
+        Future<?> submitted = executor.submit(() -> 1);
+        List<Runnable> tasks = executor.shutdownNow();
+        assertEquals(2, tasks.size());
+        assertSame(queued, tasks.get(0));
+        assertSame(submitted, tasks.get(1));
+    }
+
+    @Test
+    public void testWorkerUsesIoExecutor() {
+        String threadName = SwThreadPoolWorker.<String>of().addWork(() -> Thread.currentThread().getName()).doWorks().get(0);
+        assertTrue(threadName.startsWith("sw-io-"));
+    }
+
+    @Test
+    public void testVirtual() throws Exception {
+        if (!SwExecutors.isVirtualSupported()) {
+            assertSame(SwExecutors.io(), SwExecutors.virtual());
+            return;
+        }
+        String threadName = SwExecutors.virtual().submit(() -> Thread.currentThread().getName()).get();
+        assertTrue(threadName.startsWith("sw-virtual-"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package top.jadeyan.commons.skywalking;
+
+import org.junit.After;
+import org.junit.Test;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SwTaskGroupTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private static <T> T sleepAndReturn(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        }
+        return value;
+    }
+
+    @Test
+    public void testCompletionOrder() {
+        try (SwTaskGroup<String> group = SwTaskGroup.of(executorService)) {
+            group.fork(() -> sleepAndReturn(300, "slow"))
+                    .fork(() -> sleepAndReturn(10, "fast"))
+                    .fork(() -> sleepAndReturn(100, "middle"));
+            assertEquals(Arrays.asList("fast", "middle", "slow"), group.joinInCompletionOrder());
+        }
+    }
+
+    @Test
+    public void testJoinInForkOrder() {
+        try (SwTaskGroup<Integer> group = SwTaskGroup.of(executorService)) {
+            group.fork(() -> sleepAndReturn(100, 1))
+                    .fork(2, x -> x)
+                    .fork(() -> {
+                    });
+            assertEquals(Arrays.asList(1, 2, null), group.join());
+        }
+    }
+
+    @Test
+    public void testFailFast() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        long startTime = System.currentTimeMillis();
+        try (SwTaskGroup<String> group = SwTaskGroup.of(executorService)) {
+            group.fork(() -> {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return "slow";
+            }).fork(() -> {
+                throw new IllegalStateException("failed");
+            });
+            group.join();
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+        sleepAndReturn(100, null);
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    public void testDeadline() {
+        long startTime = System.currentTimeMillis();
+        try (SwTaskGroup<String> group = SwTaskGroup.<String>of(executorService).timeout(200, TimeUnit.MILLISECONDS)) {
+            group.fork(() -> sleepAndReturn(10, "fast"))
+                    .fork(() -> sleepAndReturn(5000, "slow"));
+            group.join();
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+    }
+
+    @Test
+    public void testMaxConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (SwTaskGroup<Integer> group = SwTaskGroup.<Integer>of(executorService).maxConcurrency(2)) {
+            for (int i = 0; i < 10; i++) {
+                group.fork(i, x -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleepAndReturn(20, null);
+                    running.decrementAndGet();
+                    return x;
+                });
+            }
+            List<Integer> result = group.join();
+            assertEquals(10, result.size());
+            assertEquals(Integer.valueOf(9), result.get(9));
+        }
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void testRejectedTaskNotAdded() {
+        ExecutorService rejecting = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        try (SwTaskGroup<Integer> group = SwTaskGroup.of(rejecting)) {
+            group.fork(() -> sleepAndReturn(100, 1));
+            try {
+                group.fork(() -> 2);
+                fail();
+            } catch (RejectedExecutionException e) {
+                // 线程池已满
+            }
+            List<Integer> result = group.join();
+            assertEquals(Collections.singletonList(1), result);
+            // 结果可以修改
+            result.add(3);
+        } finally {
+            rejecting.shutdownNow();
+        }
+    }
+}
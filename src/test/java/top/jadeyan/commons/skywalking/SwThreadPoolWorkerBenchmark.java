@@ -0,0 +1,83 @@
+package top.jadeyan.commons.skywalking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * SwThreadPoolWorker 平台线程池与虚拟线程的吞吐量对比, 每次提交 1 万个阻塞 10 毫秒的任务
+ * <p>
+ * 虚拟线程需要用 jdk 21 打包后, 以多版本 jar 运行; Java 8 上 virtual 退回 io 线程池, 两组结果相同
+ *
+ * @author yan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SwThreadPoolWorkerBenchmark {
+
+    private static final int TASK_SIZE = 10_000;
+
+    private static final long BLOCKING_MILLIS = 10;
+
+    @Param({"io", "virtual"})
+    private String executor;
+
+    private SwThreadPoolWorker<Integer> worker;
+
+    @Setup
+    public void setup() {
+        ExecutorService executorService = "virtual".equals(executor) ? SwExecutors.virtual() : SwExecutors.io();
+        worker = SwThreadPoolWorker.of(executorService);
+    }
+
+    private static Integer blockingCall(int value) {
+        try {
+            Thread.sleep(BLOCKING_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASK_SIZE)
+    public long blockingSuppliers() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[TASK_SIZE];
+        for (int i = 0; i < TASK_SIZE; i++) {
+            int value = i;
+            Supplier<Integer> supplier = () -> blockingCall(value);
+            futures[i] = worker.submit(supplier);
+        }
+        worker.doWorks(futures);
+        return futures.length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SwThreadPoolWorkerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
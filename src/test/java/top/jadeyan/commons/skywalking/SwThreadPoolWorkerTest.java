@@ -2,6 +2,7 @@ package top.jadeyan.commons.skywalking;
 
 import org.junit.Assert;
 import org.junit.Test;
+import top.jadeyan.commons.exception.ThreadRuntimeException;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -226,4 +227,29 @@ public class SwThreadPoolWorkerTest {
                 .collect(Collectors.toList());
         Assert.assertEquals(5, result.size());
     }
+
+    @Test
+    public void testDoWorksWrapsErrors() {
+        IllegalStateException error = new IllegalStateException("boom");
+        try {
+            SwThreadPoolWorker.<Integer>of().addWork(() -> 1).addWork(() -> {
+                throw error;
+            }).doWorks();
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertEquals("doWorks error", e.getMessage());
+            assertTrue(e.getCause() instanceof ExecutionException);
+            assertSame(error, e.getCause().getCause());
+        }
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.shutdown();
+        try {
+            SwThreadPoolWorker.<Integer>of(executorService).addWork(() -> 1).doWorks();
+            fail();
+        } catch (ThreadRuntimeException e) {
+            assertEquals("doWorks error", e.getMessage());
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
 }
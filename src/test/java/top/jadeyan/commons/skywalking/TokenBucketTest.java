@@ -0,0 +1,40 @@
+package top.jadeyan.commons.skywalking;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testReserve() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = System.nanoTime();
+        assertEquals(0, bucket.reserve(now));
+        // 令牌用完后预支, 依次等待 100 毫秒、200 毫秒
+        assertEquals(SECOND / 10, bucket.reserve(now));
+        assertEquals(SECOND / 5, bucket.reserve(now));
+        // 补充的令牌先还清欠账
+        assertEquals(SECOND / 10, bucket.reserve(now + SECOND / 5));
+    }
+
+    @Test
+    public void testBurst() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(SECOND / 10, bucket.reserve(now));
+        // 空闲很久也最多积攒 burst 个令牌
+        long later = now + 10 * SECOND;
+        assertEquals(0, bucket.reserve(later));
+        assertEquals(0, bucket.reserve(later));
+        assertEquals(0, bucket.reserve(later));
+        assertEquals(SECOND / 10, bucket.reserve(later));
+    }
+}
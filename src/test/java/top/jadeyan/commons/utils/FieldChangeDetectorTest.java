@@ -0,0 +1,120 @@
+package top.jadeyan.commons.utils;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FieldChangeDetectorTest {
+
+    @Test
+    public void testChangedFields() {
+        FieldChangeDetector<Account> detector = FieldChangeDetector.of(Account.class);
+        assertSame(detector, FieldChangeDetector.of(Account.class));
+        assertEquals(Arrays.asList("active", "amount", "id", "name", "tags"), detector.getFieldNames());
+
+        Account account = new Account(1, "a", new BigDecimal("1.0"), true, new int[]{1, 2});
+        Account same = new Account(1, "a", new BigDecimal("1.00"), true, new int[]{1, 2});
+        assertFalse(detector.isModified(account, same));
+        assertTrue(detector.changedFields(account, same).isEmpty());
+
+        Account changed = new Account(1, null, new BigDecimal("2"), true, new int[]{1, 3});
+        assertTrue(detector.isModified(account, changed));
+        assertEquals(Arrays.asList("amount", "name", "tags"), detector.changedFields(account, changed));
+        assertEquals(Arrays.asList("amount", "tags"), detector.ignoring("name").changedFields(account, changed));
+        assertEquals(detector.getFieldNames(), detector.changedFields(account, null));
+    }
+
+    @Test
+    public void testDiffSeparatesUnchangedRows() {
+        List<Account> oldList = Arrays.asList(
+                new Account(1, "a", BigDecimal.ONE, true, null),
+                new Account(2, "b", BigDecimal.ONE, true, null),
+                new Account(3, "c", BigDecimal.ONE, true, null));
+        List<Account> newList = Arrays.asList(
+                new Account(1, "a", BigDecimal.ONE, true, null),
+                new Account(2, "b", BigDecimal.TEN, false, null),
+                new Account(4, "d", BigDecimal.ONE, true, null));
+        FieldChangeDetector<Account> detector = FieldChangeDetector.of(Account.class);
+
+        ListUtils.ListDiffResult<Account> byLong = ListUtils.diffByLong(oldList, newList, Account::getId, detector);
+        ListUtils.ListDiffResult<Account> nested = ListUtils.diff(oldList, newList, (a, b) -> a.getId() == b.getId(), detector);
+        for (ListUtils.ListDiffResult<Account> result : Arrays.asList(byLong, nested)) {
+            assertEquals(Collections.singletonList(newList.get(0)), result.getUnchangedList());
+            assertEquals(Collections.singletonList(newList.get(1)), result.getUpdatedList());
+            assertEquals(Arrays.asList("active", "amount"), result.getChanges().get(0).getChangedFields());
+            assertSame(oldList.get(1), result.getChanges().get(0).getOldItem());
+            assertEquals(Collections.singletonList(newList.get(2)), result.getAddedList());
+            assertEquals(Collections.singletonList(oldList.get(2)), result.getDeletedList());
+        }
+
+        // 不传检测器时保持原来的行为
+        assertEquals(2, ListUtils.diffByLong(oldList, newList, Account::getId).getUpdatedList().size());
+
+        List<Long> updated = new ArrayList<>();
+        List<Long> unchanged = new ArrayList<>();
+        ListUtils.diffByLong(oldList, newList, Account::getId, ListUtils.DiffHandler.skipUnchanged(detector,
+                new ListUtils.DiffHandler<Account>() {
+                    @Override
+                    public void onUpdated(Account oldItem, Account newItem) {
+                        updated.add(newItem.getId());
+                    }
+
+                    @Override
+                    public void onUnchanged(Account oldItem, Account newItem) {
+                        unchanged.add(newItem.getId());
+                    }
+                }));
+        assertEquals(Collections.singletonList(2L), updated);
+        assertEquals(Collections.singletonList(1L), unchanged);
+    }
+
+    public static class Account {
+
+        private final long id;
+
+        private final String name;
+
+        private final BigDecimal amount;
+
+        private final boolean active;
+
+        private final int[] tags;
+
+        Account(long id, String name, BigDecimal amount, boolean active, int[] tags) {
+            this.id = id;
+            this.name = name;
+            this.amount = amount;
+            this.active = active;
+            this.tags = tags;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public int[] getTags() {
+            return tags;
+        }
+    }
+}
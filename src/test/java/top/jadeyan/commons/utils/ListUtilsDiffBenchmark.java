@@ -0,0 +1,93 @@
+package top.jadeyan.commons.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ListUtils 两两比较的 diff 与按键 diff 的耗时对比, 新旧集合各有一半元素相同
+ *
+ * @author yan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ListUtilsDiffBenchmark {
+
+    @Param({"10000"})
+    private int size;
+
+    private List<Row> oldList;
+
+    private List<Row> newList;
+
+    @Setup
+    public void setup() {
+        oldList = new ArrayList<>(size);
+        newList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            oldList.add(new Row(i));
+            newList.add(new Row(i + size / 2));
+        }
+    }
+
+    @Benchmark
+    public ListUtils.ListDiffResult<Row> nestedLoop() {
+        return ListUtils.diff(oldList, newList, (a, b) -> a.id == b.id);
+    }
+
+    @Benchmark
+    public ListUtils.ListDiffResult<Row> byKey() {
+        return ListUtils.diffByKey(oldList, newList, Row::getId);
+    }
+
+    @Benchmark
+    public ListUtils.ListDiffResult<Row> byLong() {
+        return ListUtils.diffByLong(oldList, newList, Row::getId);
+    }
+
+    @Benchmark
+    public ListUtils.ListDiffResult<Row> sorted() {
+        return ListUtils.diffSorted(oldList, newList, Comparator.comparingLong(Row::getId));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ListUtilsDiffBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    static class Row {
+
+        private final long id;
+
+        Row(long id) {
+            this.id = id;
+        }
+
+        long getId() {
+            return id;
+        }
+    }
+}
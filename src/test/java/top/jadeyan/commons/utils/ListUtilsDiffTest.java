@@ -0,0 +1,159 @@
+package top.jadeyan.commons.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ListUtilsDiffTest {
+
+    @Test
+    public void testDiffByKeyMatchesNestedLoop() {
+        Random random = new Random(11);
+        List<Row> oldList = randomRows(random, 500);
+        List<Row> newList = randomRows(random, 500);
+
+        ListUtils.ListDiffResult<Row> expected = ListUtils.diff(oldList, newList, (a, b) -> a.id == b.id);
+        ListUtils.ListDiffResult<Row> byKey = ListUtils.diffByKey(oldList, newList, Row::getId);
+        ListUtils.ListDiffResult<Row> byLong = ListUtils.diffByLong(oldList, newList, Row::getId);
+
+        for (ListUtils.ListDiffResult<Row> actual : Arrays.asList(byKey, byLong)) {
+            assertEquals(expected.getAddedList(), actual.getAddedList());
+            assertEquals(expected.getDeletedList(), actual.getDeletedList());
+            assertEquals(sortById(expected.getUpdatedList()), sortById(actual.getUpdatedList()));
+        }
+    }
+
+    @Test
+    public void testDiffByKeyPairsDuplicateKeysInOrder() {
+        List<Row> oldList = Arrays.asList(new Row(1, "a1"), new Row(2, "b1"), new Row(1, "a2"), new Row(1, "a3"));
+        List<Row> newList = Arrays.asList(new Row(1, "x1"), new Row(3, "c1"), new Row(1, "x2"),
+                new Row(2, "y1"), new Row(2, "y2"));
+        List<String> expected = Arrays.asList("a1>x1", "+c1", "a2>x2", "b1>y1", "+y2", "-a3");
+        List<String> byKey = new ArrayList<>();
+        ListUtils.diffByKey(oldList, newList, Row::getId, eventHandler(byKey));
+        assertEquals(expected, byKey);
+        List<String> byLong = new ArrayList<>();
+        ListUtils.diffByLong(oldList, newList, Row::getId, eventHandler(byLong));
+        assertEquals(expected, byLong);
+    }
+
+    @Test
+    public void testDiffSorted() {
+        Random random = new Random(12);
+        List<Row> oldList = sortById(randomRows(random, 300));
+        List<Row> newList = sortById(randomRows(random, 300));
+
+        ListUtils.ListDiffResult<Row> expected = ListUtils.diffByLong(oldList, newList, Row::getId);
+        ListUtils.ListDiffResult<Row> actual = ListUtils.diffSorted(oldList, newList, Comparator.comparingLong(Row::getId));
+        assertEquals(expected.getAddedList(), actual.getAddedList());
+        assertEquals(expected.getUpdatedList(), actual.getUpdatedList());
+        assertEquals(expected.getDeletedList(), actual.getDeletedList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDiffSortedRejectsUnsortedInput() {
+        ListUtils.diffSorted(Arrays.asList(new Row(2, "a"), new Row(1, "b")), Collections.singletonList(new Row(3, "c")),
+                Comparator.comparingLong(Row::getId));
+    }
+
+    @Test
+    public void testStreamingDiff() {
+        List<Row> oldList = Arrays.asList(new Row(1, "a"), new Row(2, "b"), new Row(3, "c"));
+        List<Row> newList = Arrays.asList(new Row(3, "c2"), new Row(4, "d"), new Row(1, "a"));
+        List<String> events = new ArrayList<>();
+        ListUtils.diffByLong(oldList, newList, Row::getId, eventHandler(events));
+        assertEquals(Arrays.asList("c>c2", "+d", "a>a", "-b"), events);
+    }
+
+    @Test
+    public void testCompositeKeyAndSetOperations() {
+        List<Row> source = Arrays.asList(new Row(1, "a"), new Row(1, "b"), new Row(2, "a"), new Row(3, null));
+        List<Row> target = Arrays.asList(new Row(1, "b"), new Row(3, null));
+        List<Row> notIn = ListUtils.notInByKey(source, target, ListUtils.compositeKey(Row::getId, Row::getName));
+        assertEquals(Arrays.asList(source.get(0), source.get(2)), notIn);
+        List<Row> intersection = ListUtils.intersectionByKey(source, target, ListUtils.compositeKey(Row::getId, Row::getName));
+        assertEquals(Arrays.asList(source.get(1), source.get(3)), intersection);
+
+        assertEquals(Collections.singletonList(source.get(2)), ListUtils.notInByLong(source, target, Row::getId));
+        assertEquals(Arrays.asList(source.get(0), source.get(1), source.get(3)),
+                ListUtils.intersectionByLong(source, target, Row::getId));
+        assertTrue(ListUtils.intersectionByLong(source, Collections.<Row>emptyList(), Row::getId).isEmpty());
+    }
+
+    @Test
+    public void testLongIndex() {
+        LongIndex index = new LongIndex(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(-1, index.putIfAbsent(i * 1024L - 500, i));
+        }
+        assertEquals(3, index.putIfAbsent(3 * 1024L - 500, 99));
+        assertEquals(3, index.put(3 * 1024L - 500, 3));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, index.get(i * 1024L - 500));
+        }
+        assertEquals(-1, index.get(Long.MIN_VALUE));
+        assertEquals(-1, index.get(1));
+    }
+
+    private static ListUtils.DiffHandler<Row> eventHandler(List<String> events) {
+        return ListUtils.DiffHandler.of(
+                added -> events.add("+" + added.name),
+                (o, n) -> events.add(o.name + ">" + n.name),
+                deleted -> events.add("-" + deleted.name));
+    }
+
+    private static List<Row> randomRows(Random random, int size) {
+        List<Row> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // 范围小于数量, 保证有重复和交叉
+            rows.add(new Row(random.nextInt(size), "r" + i));
+        }
+        return rows.stream().distinct().collect(Collectors.toList());
+    }
+
+    private static List<Row> sortById(List<Row> rows) {
+        List<Row> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingLong(Row::getId));
+        return sorted;
+    }
+
+    static class Row {
+
+        private final long id;
+
+        private final String name;
+
+        Row(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Row && id == ((Row) o).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package top.jadeyan.commons.utils;
+
+import org.junit.Test;
+import top.jadeyan.commons.exception.BusinessException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ListUtilsSortTest {
+
+    @Test
+    public void testSortByMultipleFields() {
+        List<Person> list = new ArrayList<>(Arrays.asList(
+                new Person("b", 2), new Person("a", 2), new Person("c", 1), new Person(null, 3), new Person("a", null)));
+        ListUtils.sort(list, new String[]{"age", "name"}, new Boolean[]{false, true});
+        assertEquals(Arrays.asList("null:3", "a:2", "b:2", "c:1", "a:null"), describe(list));
+
+        ListUtils.sort(list, true, "name", "age");
+        assertEquals(Arrays.asList("a:2", "a:null", "b:2", "c:1", "null:3"), describe(list));
+    }
+
+    @Test
+    public void testSortIsStableAndMatchesComparator() {
+        Random random = new Random(7);
+        List<Person> list = new LinkedList<>();
+        for (int i = 0; i < 2000; i++) {
+            list.add(new Person(String.valueOf((char) ('a' + random.nextInt(5))), random.nextInt(20)));
+        }
+        List<Person> expected = new ArrayList<>(list);
+        expected.sort(Comparator.comparing(Person::getName).thenComparing(Person::getAge, Comparator.reverseOrder()));
+
+        ListUtils.sort(list, new String[]{"name", "age"}, new Boolean[]{true, false});
+        assertEquals(expected, list);
+
+        List<Person> copy = new ArrayList<>(list);
+        Collections.shuffle(copy, random);
+        copy.sort(ListUtils.propertyComparator(new String[]{"name", "age"}, new Boolean[]{true, false}));
+        assertEquals(describe(expected), describe(copy));
+    }
+
+    @Test
+    public void testSuperclassGetterAndMissingField() {
+        List<Person> list = new ArrayList<>(Arrays.asList(new Employee("b", 1, 3), new Employee("a", 1, 5), new Person("c", 1)));
+        ListUtils.sort(list, true, "NAME");
+        assertEquals(Arrays.asList("a:1", "b:1", "c:1"), describe(list));
+
+        // 找不到 getter 的字段视为空值, 保持原有顺序
+        ListUtils.sort(list, true, "unknown");
+        assertEquals(Arrays.asList("a:1", "b:1", "c:1"), describe(list));
+        assertNull(ListUtils.getFieldValueByFieldName(list.get(0), "unknown"));
+        assertEquals(5, ListUtils.getFieldValueByFieldName(list.get(0), "level"));
+    }
+
+    @Test(expected = BusinessException.class)
+    public void testLengthMismatch() {
+        ListUtils.sort(new ArrayList<Person>(), new String[]{"name"}, new Boolean[]{true, false});
+    }
+
+    private static List<String> describe(List<Person> list) {
+        return list.stream().map(p -> p.getName() + ":" + p.getAge()).collect(Collectors.toList());
+    }
+
+    public static class Person {
+
+        private final String name;
+
+        private final Integer age;
+
+        Person(String name, Integer age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+    }
+
+    static class Employee extends Person {
+
+        private final int level;
+
+        Employee(String name, Integer age, int level) {
+            super(name, age);
+            this.level = level;
+        }
+
+        int getLevel() {
+            return level;
+        }
+    }
+}